@@ -0,0 +1,111 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.benchmark;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import konverter.daten.Item;
+import konverter.daten.Satzblock;
+import konverter.formate.conllx.CoNLLXTagParser;
+import konverter.formate.conllx.CoNLLXTagSchreiber;
+import konverter.formate.rftagger.RFTagParser;
+import konverter.formate.rftagger.RFTagSchreiber;
+import konverter.formate.tsv.TsvTagParser;
+import konverter.formate.tsv.TsvTagSchreiber;
+import konverter.konvertierung.PufferZeilenleser;
+import konverter.konvertierung.Quelle;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+import konverter.konvertierung.TextdateiEingabe.Quellengenerator;
+import konverter.korpus.Korpusgenerator;
+
+// Ein künstliches Korpus aus dem Korpusgenerator, mit Wortarten, Tags und
+// Formen in der Verteilung deutscher Zeitungstexte (siehe Vokabular), immer
+// mit demselben Startwert und daher in jedem Lauf gleich.
+public class Beispielkorpus {
+	
+	// Anzahl der Tokens in text(format), als Konstante für
+	// @OperationsPerInvocation, damit JMH Zeit und (mit -prof gc) Allokation
+	// pro Token angibt
+	public static final int TOKENANZAHL = 20000;
+	
+	private static final long STARTWERT = 1;
+	// wie in der Durchsatzmessung
+	private static final int MIN_SATZLAENGE = 3;
+	private static final int MAX_SATZLAENGE = 40;
+	
+	public static String text(final String format) throws IOException {
+		return text(format, TOKENANZAHL);
+	}
+	
+	// erzeugt einen Text mit der angegebenen Anzahl an Tokens im angegebenen Format
+	public static String text(final String format, final int tokens) throws IOException {
+		final StringBuilder result = new StringBuilder();
+		new Korpusgenerator(STARTWERT, tokens, MIN_SATZLAENGE, MAX_SATZLAENGE).konvertierenVon(senkengenerator(format), result);
+		return result.toString();
+	}
+	
+	// die Tokens und Leerzeilen aus text(format) als Kopien, in der
+	// Reihenfolge der Eingabe
+	public static Item[] items(final String format) throws IOException {
+		final Quelle quelle = quellengenerator(format).quelle(new PufferZeilenleser(CharBuffer.wrap(text(format))));
+		final List<Item> result = new ArrayList<>();
+		while (true) {
+			final Item item = quelle.next();
+			switch (item.typ) {
+				case ENDE:
+					return result.toArray(new Item[result.size()]);
+				case IGNORIEREN:
+					break;
+				default:
+					result.add(item.kopie());
+			}
+		}
+	}
+	
+	// text(format), wie der Parser ihn in Satzblöcke einliest
+	public static Satzblock[] satzbloecke(final String format) throws IOException {
+		final Quelle quelle = quellengenerator(format).quelle(new PufferZeilenleser(CharBuffer.wrap(text(format))));
+		final List<Satzblock> result = new ArrayList<>();
+		Satzblock block;
+		do {
+			block = new Satzblock();
+			quelle.next(block);
+			result.add(block);
+		} while (!block.ende);
+		return result.toArray(new Satzblock[result.size()]);
+	}
+	
+	// wie in RFTagger, CoNLLX und TSV: die Parser verwenden ihr Item wieder
+	public static Quellengenerator quellengenerator(final String format) {
+		switch (format) {
+			case "rftagger":
+				return leser -> new RFTagParser(leser, true);
+			case "conllx":
+				return leser -> new CoNLLXTagParser(leser, true);
+			case "tsv":
+				return leser -> new TsvTagParser(leser, true);
+			default:
+				throw new IllegalArgumentException(format);
+		}
+	}
+	
+	public static Senkengenerator senkengenerator(final String format) {
+		switch (format) {
+			case "rftagger":
+				return RFTagSchreiber::new;
+			case "conllx":
+				return CoNLLXTagSchreiber::new;
+			case "tsv":
+				return TsvTagSchreiber::new;
+			default:
+				throw new IllegalArgumentException(format);
+		}
+	}
+	
+}
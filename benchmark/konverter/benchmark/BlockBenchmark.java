@@ -0,0 +1,88 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.benchmark;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import konverter.daten.Item;
+import konverter.konvertierung.Konvertierung;
+import konverter.konvertierung.PufferZeilenleser;
+import konverter.konvertierung.Quelle;
+import konverter.konvertierung.Senke;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+import konverter.konvertierung.TextdateiEingabe.Quellengenerator;
+
+// vergleicht die Übergabe einzelner Items mit der blockweisen Übergabe
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockBenchmark {
+	
+	private static final int TOKENS = 200000;
+	
+	@Param({ "rftagger", "conllx", "tsv" })
+	public String eingabeformat;
+	
+	@Param({ "rftagger", "conllx", "tsv" })
+	public String ausgabeformat;
+	
+	private String pText;
+	private Quellengenerator pQuellengenerator;
+	private Senkengenerator pSenkengenerator;
+	private StringBuilder pZiel;
+	
+	@Setup
+	public void vorbereiten() throws IOException {
+		pText = Beispielkorpus.text(eingabeformat, TOKENS);
+		pQuellengenerator = Beispielkorpus.quellengenerator(eingabeformat);
+		pSenkengenerator = Beispielkorpus.senkengenerator(ausgabeformat);
+		pZiel = new StringBuilder(2 * pText.length());
+	}
+	
+	@Benchmark
+	public void einzeln(final Blackhole blackhole) throws IOException {
+		pZiel.setLength(0);
+		final Quelle quelle = pQuellengenerator.quelle(new PufferZeilenleser(CharBuffer.wrap(pText)));
+		final Senke senke = pSenkengenerator.senke(pZiel);
+		while (true) {
+			final Item token = quelle.next();
+			switch (token.typ) {
+				case ENDE:
+					blackhole.consume(pZiel.length());
+					return;
+				default:
+					senke.next(token);
+				case IGNORIEREN:
+			}
+		}
+	}
+	
+	@Benchmark
+	public void blockweise(final Blackhole blackhole) throws IOException {
+		pZiel.setLength(0);
+		Konvertierung.konvertieren(pQuellengenerator.quelle(new PufferZeilenleser(CharBuffer.wrap(pText))), pSenkengenerator.senke(pZiel));
+		blackhole.consume(pZiel.length());
+	}
+	
+}
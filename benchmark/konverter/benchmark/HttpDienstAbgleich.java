@@ -0,0 +1,143 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpServer;
+
+import konverter.KonverterMain;
+import konverter.dienst.HttpDienst;
+import konverter.formate.Format;
+
+// Vergleicht die Antworten des HTTP-Dienstes mit der Kommandozeile, für alle
+// Kombinationen von Ein- und Ausgabeformat: eine gültige Eingabe ergibt
+// Status 200 und dieselbe Ausgabe, ein Fehler nach dem ersten Token Status 422
+// und dieselbe Meldung. Mit flush=sentence und einem Fehler im zweiten Satz
+// muss die Verbindung abbrechen.
+// Aufruf: java konverter.benchmark.HttpDienstAbgleich
+public class HttpDienstAbgleich {
+	
+	private static long sAnzahl;
+	private static long sFehler;
+	
+	public static void main(final String[] args) throws IOException {
+		final HttpServer server = new HttpDienst(4, 16, 60, TimeUnit.SECONDS).starten(new InetSocketAddress("127.0.0.1", 0));
+		try {
+			final String adresse = "http://127.0.0.1:" + server.getAddress().getPort() + "/convert";
+			for (final Format von : Format.values()) {
+				final String[] saetze = saetze(von);
+				for (final Format nach : Format.values()) {
+					final String query = "?input-format=" + von.getName() + "&output-format=" + nach.getName();
+					// gültig, dann Fehler in der dritten Zeile des ersten Satzes
+					vergleichen(adresse + query, von, nach, saetze[0] + saetze[1]);
+					vergleichen(adresse + query, von, nach, saetze[2] + saetze[1]);
+					vergleichen(adresse + query + "&flush=sentence", von, nach, saetze[2]);
+					abbruchPruefen(adresse + query + "&flush=sentence", saetze[0] + saetze[2]);
+				}
+			}
+		} finally {
+			server.stop(0);
+		}
+		
+		System.out.println(sAnzahl + " Anfragen verglichen, " + sFehler + " Abweichungen");
+		if (sFehler > 0)
+			System.exit(1);
+	}
+	
+	// zwei gültige Sätze (aus dem RFTagger-Format konvertiert) und ein Satz,
+	// der im dritten Token ein ungültiges Tag hat
+	private static String[] saetze(final Format format) throws UnsupportedEncodingException {
+		final String ersterSatz = konvertieren(Format.RFTAGGER, format, "Das\tART.Def.Nom.Sg.Neut\nHaus\tN.Reg.Nom.Sg.Neut\nsteht\tVFIN.Full.3.Sg.Pres.Ind\n\n");
+		final String zweiterSatz = konvertieren(Format.RFTAGGER, format, "Ja\tPART.Ans\n.\tSYM.Pun.Sent\n\n");
+		final String falsch;
+		if (format == Format.CONLLX)
+			falsch = "3\tsteht\t_\tFOO\tFOO\t_\t_\t_\t_\t_\n";
+		else
+			falsch = "steht\tFOO\n";
+		final String[] zeilen = ersterSatz.split("\n");
+		return new String[] { ersterSatz, zweiterSatz, zeilen[0] + "\n" + zeilen[1] + "\n" + falsch + "\n" };
+	}
+	
+	private static String konvertieren(final Format von, final Format nach, final String eingabe) throws UnsupportedEncodingException {
+		final String ergebnis = kommandozeile(von, nach, eingabe);
+		if (!ergebnis.startsWith("200\n"))
+			throw new IllegalStateException(ergebnis);
+		return ergebnis.substring(4);
+	}
+	
+	private static void vergleichen(final String adresse, final Format von, final Format nach, final String eingabe) throws IOException {
+		sAnzahl++;
+		final String erwartet = kommandozeile(von, nach, eingabe);
+		final String tatsaechlich;
+		try {
+			tatsaechlich = senden(adresse, eingabe);
+		} catch (final IOException e) {
+			abweichung(adresse, erwartet, e.toString());
+			return;
+		}
+		if (!erwartet.equals(tatsaechlich))
+			abweichung(adresse, erwartet, tatsaechlich);
+	}
+	
+	private static void abbruchPruefen(final String adresse, final String eingabe) {
+		sAnzahl++;
+		try {
+			abweichung(adresse, "Abbruch", senden(adresse, eingabe));
+		} catch (final IOException e) {
+			// erwartet
+		}
+	}
+	
+	private static void abweichung(final String adresse, final String erwartet, final String erhalten) {
+		sFehler++;
+		if (sFehler <= 20)
+			System.out.println(adresse + ":\nerwartet\n" + erwartet + "\nerhalten\n" + erhalten);
+	}
+	
+	// Status und Ausgabe bzw. Fehlermeldung wie in der Antwort des Dienstes
+	private static String kommandozeile(final Format von, final Format nach, final String eingabe) throws UnsupportedEncodingException {
+		final ByteArrayOutputStream ausgabe = new ByteArrayOutputStream();
+		final ByteArrayOutputStream fehler = new ByteArrayOutputStream();
+		final PrintStream fehlerstrom = new PrintStream(fehler, true, "UTF-8");
+		final int status = new KonverterMain(null, new ByteArrayInputStream(eingabe.getBytes(StandardCharsets.UTF_8)), Channels.newChannel(ausgabe), fehlerstrom, fehlerstrom, false)
+				.ausfuehren(new String[] { "-input-format", von.getName(), "-output-format", nach.getName(), "-", "-" });
+		if (status == 0)
+			return "200\n" + new String(ausgabe.toByteArray(), StandardCharsets.UTF_8);
+		return "422\n" + new String(fehler.toByteArray(), StandardCharsets.UTF_8);
+	}
+	
+	private static String senden(final String adresse, final String eingabe) throws IOException {
+		final HttpURLConnection verbindung = (HttpURLConnection) new URL(adresse).openConnection();
+		verbindung.setRequestMethod("POST");
+		verbindung.setDoOutput(true);
+		try (final OutputStream aus = verbindung.getOutputStream()) {
+			aus.write(eingabe.getBytes(StandardCharsets.UTF_8));
+		}
+		final int status = verbindung.getResponseCode();
+		try (final InputStream ein = (status < 400) ? verbindung.getInputStream() : verbindung.getErrorStream()) {
+			final ByteArrayOutputStream rumpf = new ByteArrayOutputStream();
+			final byte[] puffer = new byte[4096];
+			int gelesen;
+			while ((gelesen = ein.read(puffer)) >= 0)
+				rumpf.write(puffer, 0, gelesen);
+			return status + "\n" + new String(rumpf.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+	
+}
@@ -0,0 +1,131 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.benchmark;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import konverter.daten.Item;
+import konverter.daten.Satzblock;
+import konverter.exception.KonverterException;
+import konverter.konvertierung.Konvertierung;
+import konverter.konvertierung.PufferZeilenleser;
+import konverter.konvertierung.Quelle;
+import konverter.konvertierung.Senke;
+import konverter.konvertierung.Tokensenke;
+import konverter.konvertierung.TextdateiEingabe.Quellengenerator;
+
+// die Parser allein, ohne Ausgabe; Zeiten und Allokation pro Token. einzeln
+// liest Item für Item (wie bei -flush sentence), satzblock Satzblock für
+// Satzblock, konvertierung geht den Weg der Kommandozeile über
+// Konvertierung.konvertieren (direkt, wenn der Parser das kann, sonst
+// blockweise)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+	
+	@Param({ "rftagger", "conllx", "tsv" })
+	public String format;
+	
+	private String pText;
+	private Quellengenerator pQuellengenerator;
+	private Satzblock pBlock;
+	
+	@Setup
+	public void vorbereiten() throws IOException {
+		pText = Beispielkorpus.text(format);
+		pQuellengenerator = Beispielkorpus.quellengenerator(format);
+		pBlock = new Satzblock();
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void einzeln(final Blackhole blackhole) throws IOException {
+		final Quelle quelle = quelle();
+		while (true) {
+			final Item token = quelle.next();
+			switch (token.typ) {
+				case ENDE:
+					return;
+				default:
+					blackhole.consume(token.tagcode);
+					blackhole.consume(token.form);
+			}
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void satzblock(final Blackhole blackhole) throws IOException {
+		final Quelle quelle = quelle();
+		do {
+			pBlock.leeren();
+			quelle.next(pBlock);
+			blackhole.consume(pBlock.tokenanzahl);
+		} while (!pBlock.ende);
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void konvertierung(final Blackhole blackhole) throws IOException {
+		Konvertierung.konvertieren(quelle(), new Leersenke(blackhole));
+	}
+	
+	private Quelle quelle() throws IOException {
+		return pQuellengenerator.quelle(new PufferZeilenleser(CharBuffer.wrap(pText)));
+	}
+	
+	// nimmt Tokens auf beiden Wegen entgegen, ohne sie zu schreiben
+	private static final class Leersenke implements Senke, Tokensenke {
+		
+		private final Blackhole pBlackhole;
+		
+		Leersenke(final Blackhole blackhole) {
+			pBlackhole = blackhole;
+		}
+		
+		@Override
+		public void next(final Item token) {
+			pBlackhole.consume(token.tagcode);
+		}
+		
+		@Override
+		public void next(final Satzblock block) {
+			pBlackhole.consume(block.tokenanzahl);
+		}
+		
+		@Override
+		public void token(final long index, final CharSequence zeile, final int formVon, final int formBis, final int lemmaVon, final int lemmaBis, final int tagcode) throws KonverterException {
+			pBlackhole.consume(tagcode);
+			pBlackhole.consume(formBis);
+		}
+		
+		@Override
+		public void satzBeenden() {
+		}
+	
+	}
+	
+}
@@ -0,0 +1,111 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import konverter.daten.Item;
+import konverter.daten.Satzblock;
+import konverter.konvertierung.Senke;
+import konverter.konvertierung.Tokensenke;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+
+// die Schreiber allein, mit vorher eingelesenen Tokens; Zeiten und
+// Allokation pro Token. einzeln schreibt Item für Item (wie bei -flush
+// sentence), satzblock Satzblock für Satzblock, direkt Token für Token aus
+// Bereichen einer Zeichenfolge wie bei Quelle.direktKonvertieren; Schreiber
+// ohne Tokensenke (rftagger) bekommen dort wie in Konvertierung.konvertieren
+// Satzblöcke
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchreiberBenchmark {
+	
+	// enthält alle Felder (Index, Form, Lemma, Tag)
+	private static final String QUELLFORMAT = "conllx";
+	
+	@Param({ "rftagger", "conllx", "tsv" })
+	public String format;
+	
+	private Item[] pItems;
+	private Satzblock[] pBloecke;
+	private Senkengenerator pSenkengenerator;
+	private StringBuilder pZiel;
+	
+	@Setup
+	public void vorbereiten() throws IOException {
+		pItems = Beispielkorpus.items(QUELLFORMAT);
+		pBloecke = Beispielkorpus.satzbloecke(QUELLFORMAT);
+		pSenkengenerator = Beispielkorpus.senkengenerator(format);
+		pZiel = new StringBuilder(Beispielkorpus.text(format).length());
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void einzeln(final Blackhole blackhole) throws IOException {
+		final Senke senke = senke();
+		for (final Item item : pItems)
+			senke.next(item);
+		blackhole.consume(pZiel.length());
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void satzblock(final Blackhole blackhole) throws IOException {
+		final Senke senke = senke();
+		for (final Satzblock block : pBloecke)
+			senke.next(block);
+		blackhole.consume(pZiel.length());
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void direkt(final Blackhole blackhole) throws IOException {
+		final Senke senke = senke();
+		if (!(senke instanceof Tokensenke)) {
+			for (final Satzblock block : pBloecke)
+				senke.next(block);
+			blackhole.consume(pZiel.length());
+			return;
+		}
+		final Tokensenke tokensenke = (Tokensenke) senke;
+		for (final Satzblock block : pBloecke) {
+			final CharSequence zeichen = block.zeichenfolge();
+			int token = 0;
+			for (int satz = 0; satz <= block.satzanzahl; satz++) {
+				for (final int ende = block.satzende(satz); token < ende; token++)
+					tokensenke.token(block.indizes[token], zeichen, block.formAnfang[token], block.formEnde[token], block.lemmaAnfang[token], block.lemmaEnde[token], block.tagcodes[token]);
+				if (satz < block.satzanzahl)
+					tokensenke.satzBeenden();
+			}
+		}
+		blackhole.consume(pZiel.length());
+	}
+	
+	private Senke senke() throws IOException {
+		pZiel.setLength(0);
+		return pSenkengenerator.senke(pZiel);
+	}
+	
+}
@@ -0,0 +1,112 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Misst die Startzeit des Konverters in eigenen Prozessen: vom Start des
+// Prozesses bis zum ersten Byte auf der Standardausgabe und bis zum Ende des
+// Prozesses. Mit -cds wird zusätzlich mit dem angegebenen CDS-Archiv gemessen
+// (siehe Trainingslauf); -Xshare:on lässt den Lauf dann scheitern, statt
+// unbemerkt ohne Archiv zu starten. Der erste Lauf jeder Variante wird nicht
+// gewertet.
+// Aufruf: java konverter.benchmark.Startzeit [-runs n] [-cp Klassenpfad] [-cds Archiv] [-jvm Option ...] Eingabeformat Ausgabeformat Eingabedatei
+public class Startzeit {
+	
+	public static void main(final String[] args) throws IOException, InterruptedException {
+		int laeufe = 20;
+		String klassenpfad = System.getProperty("java.class.path");
+		String archiv = null;
+		final List<String> jvmOptionen = new ArrayList<>();
+		final List<String> argumente = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+				case "-runs":
+					laeufe = Integer.parseInt(args[++i]);
+					break;
+				case "-cp":
+					klassenpfad = args[++i];
+					break;
+				case "-cds":
+					archiv = args[++i];
+					break;
+				case "-jvm":
+					jvmOptionen.add(args[++i]);
+					break;
+				default:
+					argumente.add(args[i]);
+			}
+		}
+		if ((argumente.size() != 3) || (laeufe < 1)) {
+			System.out.println("Aufruf: java konverter.benchmark.Startzeit [-runs n] [-cp Klassenpfad] [-cds Archiv] [-jvm Option ...] Eingabeformat Ausgabeformat Eingabedatei");
+			System.exit(1);
+		}
+		
+		final List<String> befehl = new ArrayList<>();
+		befehl.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		befehl.addAll(jvmOptionen);
+		befehl.addAll(Arrays.asList("-cp", klassenpfad));
+		final List<String> konverter = Arrays.asList("konverter.KonverterMain", "-input-format", argumente.get(0), "-output-format", argumente.get(1), argumente.get(2), "-");
+		
+		System.out.println("Zeiten in ms (Minimum / Median / Maximum) aus " + laeufe + " Läufen");
+		messen("ohne CDS-Archiv", verbinden(befehl, konverter), laeufe);
+		if (archiv != null)
+			messen("mit CDS-Archiv", verbinden(verbinden(befehl, Arrays.asList("-Xshare:on", "-XX:SharedArchiveFile=" + archiv)), konverter), laeufe);
+	}
+	
+	private static void messen(final String variante, final List<String> befehl, final int laeufe) throws IOException, InterruptedException {
+		final long[] ersteAusgabe = new long[laeufe];
+		final long[] ende = new long[laeufe];
+		final byte[] puffer = new byte[1 << 16];
+		for (int lauf = -1; lauf < laeufe; lauf++) {
+			final long start = System.nanoTime();
+			final Process prozess = new ProcessBuilder(befehl).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+			prozess.getOutputStream().close();
+			long erstesByte = -1;
+			try (final InputStream ausgabe = prozess.getInputStream()) {
+				if (ausgabe.read() >= 0) {
+					erstesByte = System.nanoTime();
+					while (ausgabe.read(puffer) >= 0) {
+					}
+				}
+			}
+			final int status = prozess.waitFor();
+			final long fertig = System.nanoTime();
+			if ((status != 0) || (erstesByte < 0)) {
+				System.err.println(variante + ": Exit-Code " + status + (erstesByte < 0 ? ", keine Ausgabe" : ""));
+				System.exit(1);
+			}
+			if (lauf >= 0) {
+				ersteAusgabe[lauf] = erstesByte - start;
+				ende[lauf] = fertig - start;
+			}
+		}
+		System.out.println(variante + ":");
+		System.out.println("  bis zum ersten Byte: " + zusammenfassen(ersteAusgabe));
+		System.out.println("  bis zum Ende:        " + zusammenfassen(ende));
+	}
+	
+	private static String zusammenfassen(final long[] zeiten) {
+		Arrays.sort(zeiten);
+		return ms(zeiten[0]) + " / " + ms(zeiten[zeiten.length / 2]) + " / " + ms(zeiten[zeiten.length - 1]);
+	}
+	
+	private static String ms(final long nanos) {
+		return String.format("%.1f", nanos / 1e6);
+	}
+	
+	private static List<String> verbinden(final List<String> a, final List<String> b) {
+		final List<String> result = new ArrayList<>(a);
+		result.addAll(b);
+		return result;
+	}
+	
+}
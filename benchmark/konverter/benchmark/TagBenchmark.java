@@ -0,0 +1,176 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import konverter.daten.POS;
+import konverter.daten.Tagcode;
+import konverter.formate.conll.CoNLLFeatures;
+import konverter.tagsets.STTS;
+
+// die Tabellen für STTS-Tags und CoNLL-Features allein, mit den Tags und
+// Features der Tokens im Beispielkorpus; Zeiten und Allokation pro Token,
+// auch bei den Features (ein Token hat keins bis fünf)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagBenchmark {
+	
+	private String[] pFormen;
+	private String[] pSttsTags;
+	private POS[] pPos;
+	private int[] pTagcodes;
+	// die Features aller Tokens hintereinander, jeweils als "schlüssel=wert"
+	// und getrennt in Schlüssel und Wert
+	private String[] pFeatures;
+	private String[] pSchluessel;
+	private String[] pWerte;
+	private StringBuilder pZiel;
+	
+	@Setup
+	public void vorbereiten() throws IOException {
+		final List<String> formen = new ArrayList<>();
+		final List<String> tags = new ArrayList<>();
+		final List<POS> pos = new ArrayList<>();
+		final List<Integer> tagcodes = new ArrayList<>();
+		final List<String> features = new ArrayList<>();
+		for (final String zeile : Beispielkorpus.text("conllx").split("\n")) {
+			if (zeile.isEmpty())
+				continue;
+			// ID, FORM, LEMMA, CPOSTAG, POSTAG, FEATS, ...
+			final String[] spalten = zeile.split("\t");
+			formen.add(spalten[1]);
+			tags.add(spalten[4]);
+			pos.add(STTS.fromSTTS(spalten[1], spalten[4]));
+			int tagcode = Tagcode.kodieren(pos.get(pos.size() - 1));
+			if (!spalten[5].equals("_")) {
+				for (final String feature : spalten[5].split("\\|")) {
+					features.add(feature);
+					tagcode = Tagcode.setzen(tagcode, CoNLLFeatures.featureKodieren(feature, 0, feature.length()));
+				}
+			}
+			tagcodes.add(tagcode);
+		}
+		if (formen.size() != Beispielkorpus.TOKENANZAHL)
+			throw new IllegalStateException("Anzahl der Tokens passt nicht zu TOKENANZAHL");
+		pFormen = formen.toArray(new String[formen.size()]);
+		pSttsTags = tags.toArray(new String[tags.size()]);
+		pPos = pos.toArray(new POS[pos.size()]);
+		pTagcodes = tagcodes.stream().mapToInt(Integer::intValue).toArray();
+		pFeatures = features.toArray(new String[features.size()]);
+		pSchluessel = new String[pFeatures.length];
+		pWerte = new String[pFeatures.length];
+		for (int i = 0; i < pFeatures.length; i++) {
+			final int eqIndex = pFeatures[i].indexOf('=');
+			pSchluessel[i] = pFeatures[i].substring(0, eqIndex);
+			pWerte[i] = pFeatures[i].substring(eqIndex + 1);
+		}
+		pZiel = new StringBuilder();
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void fromSTTS(final Blackhole blackhole) {
+		for (int i = 0; i < pSttsTags.length; i++)
+			blackhole.consume(STTS.fromSTTS(pFormen[i], pSttsTags[i]));
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void toSTTS(final Blackhole blackhole) {
+		for (final POS pos : pPos)
+			blackhole.consume(STTS.toSTTS(pos));
+	}
+	
+	// der Weg des CoNLL-X-Parsers: ein Nachschlagen pro Feature
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void featuresKodieren(final Blackhole blackhole) {
+		for (final String feature : pFeatures)
+			blackhole.consume(CoNLLFeatures.featureKodieren(feature, 0, feature.length()));
+	}
+	
+	// die einzelnen Methoden für die Werte, wie für Features, die der
+	// CoNLL-X-Parser nicht in der Tabelle findet
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void werteParsen(final Blackhole blackhole) {
+		for (int i = 0; i < pWerte.length; i++) {
+			final String wert = pWerte[i];
+			switch (pSchluessel[i]) {
+				case "number":
+					blackhole.consume(CoNLLFeatures.numerusParsen(wert));
+					break;
+				case "gender":
+					blackhole.consume(CoNLLFeatures.genusParsen(wert));
+					break;
+				case "mood":
+					blackhole.consume(CoNLLFeatures.modusParsen(wert));
+					break;
+				case "person":
+					blackhole.consume(CoNLLFeatures.personParsen(wert));
+					break;
+				case "degree":
+					blackhole.consume(CoNLLFeatures.gradParsen(wert));
+					break;
+				case "tense":
+					blackhole.consume(CoNLLFeatures.tempusParsen(wert));
+					break;
+				case "case":
+					blackhole.consume(CoNLLFeatures.kasusParsen(wert));
+					break;
+				default:
+					throw new IllegalStateException(pSchluessel[i]);
+			}
+		}
+	}
+	
+	// nur die Werte, ohne Schlüssel und Trennzeichen
+	@Benchmark
+	@OperationsPerInvocation(Beispielkorpus.TOKENANZAHL)
+	public void featuresSchreiben(final Blackhole blackhole) throws IOException {
+		final StringBuilder ziel = pZiel;
+		ziel.setLength(0);
+		for (final int code : pTagcodes) {
+			if (Tagcode.kasus(code) != null)
+				CoNLLFeatures.kasusSchreiben(Tagcode.kasus(code), ziel);
+			if (Tagcode.numerus(code) != null)
+				CoNLLFeatures.numerusSchreiben(Tagcode.numerus(code), ziel);
+			if (Tagcode.genus(code) != null)
+				CoNLLFeatures.genusSchreiben(Tagcode.genus(code), ziel);
+			if (Tagcode.grad(code) != null)
+				CoNLLFeatures.gradSchreiben(Tagcode.grad(code), ziel);
+			if (Tagcode.person(code) != null)
+				CoNLLFeatures.personSchreiben(Tagcode.person(code), ziel);
+			if (Tagcode.tempus(code) != null)
+				CoNLLFeatures.tempusSchreiben(Tagcode.tempus(code), ziel);
+			if (Tagcode.modus(code) != null)
+				CoNLLFeatures.modusSchreiben(Tagcode.modus(code), ziel);
+		}
+		blackhole.consume(ziel.length());
+	}
+	
+}
@@ -0,0 +1,129 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import konverter.formate.rftagger.RFTagParser;
+import konverter.formate.rftagger.Tagautomat;
+
+// Vergleicht Tagautomat mit RFTagParser.analysieren für alle Kombinationen der
+// Tag-Bestandteile, jeweils ergänzt um falsche Wörter, sowie für
+// Strukturvarianten (fehlende, zusätzliche und leere Abschnitte). Verglichen
+// wird der Tagcode bzw. Klasse und Meldung der Exception.
+// Aufruf: java konverter.benchmark.TagautomatAbgleich
+public class TagautomatAbgleich {
+	
+	private static final String[] FALSCH = { "", "x", "nom", "Ä" };
+	
+	private static final String[] GRAD = { "Pos", "Comp", "Sup" };
+	private static final String[] KASUS = { "Nom", "Gen", "Dat", "Acc", "*" };
+	private static final String[] NUMERUS = { "Sg", "Pl", "*" };
+	private static final String[] GENUS = { "Masc", "Fem", "Neut", "*", "-" };
+	private static final String[] PERSON = { "1", "2", "3", "-" };
+	private static final String[] TEMPUS = { "Pres", "Past" };
+	private static final String[] MODUS = { "Ind", "Subj", "Imp" };
+	private static final String[] VERBTYP = { "Full", "Aux", "Mod" };
+	private static final String[] REST = { "Dat", "Imp", "Psp", "-" };
+	
+	private static long sAnzahl;
+	private static long sFehler;
+	
+	public static void main(final String[] args) {
+		final Map<String, String[][]> wortarten = new LinkedHashMap<>();
+		wortarten.put("ADJA", new String[][] { GRAD, KASUS, NUMERUS, GENUS });
+		wortarten.put("ADJD", new String[][] { GRAD });
+		wortarten.put("ADV", new String[][] {});
+		wortarten.put("APPO", new String[][] { REST });
+		wortarten.put("APPR", new String[][] { REST });
+		wortarten.put("APPRART", new String[][] { KASUS, NUMERUS, GENUS });
+		wortarten.put("APZR", new String[][] {});
+		wortarten.put("ART", new String[][] { { "Def", "Indef" }, KASUS, NUMERUS, GENUS });
+		wortarten.put("CARD", new String[][] {});
+		wortarten.put("CONJ", new String[][] { { "Comp", "Coord", "SubFin", "SubInf" } });
+		wortarten.put("FM", new String[][] {});
+		wortarten.put("ITJ", new String[][] {});
+		wortarten.put("N", new String[][] { { "Reg", "Name" }, KASUS, NUMERUS, GENUS });
+		wortarten.put("PART", new String[][] { { "Ans", "Deg", "Neg", "Zu", "Verb" } });
+		wortarten.put("PRO", new String[][] { { "Pers", "Poss", "Dem", "Indef", "Inter", "Refl", "Rel" }, { "Attr", "Subst" }, PERSON, KASUS, NUMERUS, GENUS });
+		wortarten.put("PROADV", new String[][] { { "Dem", "Inter" } });
+		wortarten.put("SYM", new String[][] { { "Pun", "Quot", "Paren", "Other" }, { "Colon", "Comma", "Sent", "Hyph", "Slash", "Cont", "Apos", "Other", "Left", "Right", "Aster", "Auth", "XY" } });
+		wortarten.put("TRUNC", new String[][] { { "Adj", "Noun", "Verb", "-" } });
+		wortarten.put("VFIN", new String[][] { VERBTYP, PERSON, NUMERUS, TEMPUS, MODUS });
+		wortarten.put("VIMP", new String[][] { VERBTYP, PERSON, NUMERUS, REST });
+		wortarten.put("VINF", new String[][] { VERBTYP, { "zu", "-" } });
+		wortarten.put("VPP", new String[][] { VERBTYP, REST });
+		
+		for (final Map.Entry<String, String[][]> wortart : wortarten.entrySet()) {
+			final String[][] abschnitte = wortart.getValue();
+			// alle Kombinationen, in jedem Abschnitt auch mit falschen Wörtern
+			final String[][] mitFalschen = new String[abschnitte.length][];
+			for (int i = 0; i < abschnitte.length; i++)
+				mitFalschen[i] = verbinden(abschnitte[i], FALSCH);
+			kombinieren(wortart.getKey(), mitFalschen, 0, false);
+			// Strukturvarianten nur für die richtigen Wörter
+			kombinieren(wortart.getKey(), abschnitte, 0, true);
+		}
+		for (final String tag : new String[] { "", ".", "..", ".ADV", "ADV.", "ADV..", "XYZ", "adv", "ADVX", "AD", "APPRAR", "PROADVX", "ADJA.Pos.Dat.Pl.Masc.", "N.Reg.Nom.Sg" })
+			vergleichen(tag);
+		
+		System.out.println(sAnzahl + " Tags verglichen, " + sFehler + " Abweichungen");
+		if (sFehler > 0)
+			System.exit(1);
+	}
+	
+	private static void kombinieren(final String tag, final String[][] abschnitte, final int abschnitt, final boolean strukturvarianten) {
+		if (abschnitt == abschnitte.length) {
+			vergleichen(tag);
+			if (strukturvarianten) {
+				vergleichen(tag + ".");
+				vergleichen(tag + "..");
+				vergleichen(tag + ".x");
+				vergleichen(tag + ".x.y");
+				vergleichen("." + tag);
+				vergleichen(tag.replaceFirst("\\.", ".."));
+				final int punkt = tag.lastIndexOf('.');
+				if (punkt >= 0)
+					vergleichen(tag.substring(0, punkt));
+			}
+			return;
+		}
+		for (final String wort : abschnitte[abschnitt])
+			kombinieren(tag + "." + wort, abschnitte, abschnitt + 1, strukturvarianten);
+	}
+	
+	private static void vergleichen(final String tag) {
+		sAnzahl++;
+		final String erwartet = ergebnis(() -> RFTagParser.analysieren(tag));
+		final String zeile = "Form\t" + tag + "\tx";
+		final String tatsaechlich = ergebnis(() -> Tagautomat.analysieren(zeile, 5, 5 + tag.length()));
+		if (!erwartet.equals(tatsaechlich)) {
+			sFehler++;
+			if (sFehler <= 20)
+				System.out.println(tag + ": erwartet " + erwartet + ", erhalten " + tatsaechlich);
+		}
+	}
+	
+	private static String ergebnis(final Callable<Integer> analyse) {
+		try {
+			return "Tagcode " + analyse.call();
+		} catch (final Exception e) {
+			return e.getClass().getName() + ": " + e.getMessage();
+		}
+	}
+	
+	private static String[] verbinden(final String[] a, final String[] b) {
+		final List<String> result = new ArrayList<>(Arrays.asList(a));
+		result.addAll(Arrays.asList(b));
+		return result.toArray(new String[0]);
+	}
+	
+}
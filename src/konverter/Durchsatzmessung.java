@@ -0,0 +1,314 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import konverter.daten.Item;
+import konverter.daten.Itemfeld;
+import konverter.daten.Itemtyp;
+import konverter.exception.KonverterException;
+import konverter.formate.Format;
+import konverter.konvertierung.Eingabe;
+import konverter.konvertierung.Kanalausgabe;
+import konverter.konvertierung.Senke;
+import konverter.konvertierung.Tokensenke;
+import konverter.konvertierung.Verfahren;
+import konverter.korpus.Korpusgenerator;
+
+// Durchsatz des ganzen Konverters (Eingabe, Verfahren, Ausgabe) für jedes
+// Paar aus Eingabe- und Ausgabeformat. Das Korpus wird vorher in jedes Format
+// konvertiert (UTF-8, in ein temporäres Verzeichnis), die Ausgabe wird
+// verworfen, damit die Platte nicht mitgemessen wird. Pro Paar
+// und Verfahren: Aufwärmdurchgänge ohne Messung, dann Messdurchgänge; Zeiten
+// als Median, GC-Zeit und Allokation über alle Messdurchgänge. Die
+// Allokation ergibt sich aus der Belegung des Heaps vorher und nachher und
+// dem, was die GC dazwischen freigegeben hat, zählt also alle Threads mit.
+public class Durchsatzmessung implements Closeable {
+	
+	// Sätze der erzeugten Korpora
+	private static final int MIN_SATZLAENGE = 3;
+	private static final int MAX_SATZLAENGE = 40;
+	
+	private static final double MB = 1e6;
+	
+	private final int pAufwaermen;
+	private final int pDurchgaenge;
+	private final Charset pAusgabeCharset;
+	private final int pPuffergroesse;
+	private final int pPufferanzahl;
+	
+	private final Path pVerzeichnis;
+	private long pTokens;
+	private long pSaetze;
+	
+	public Durchsatzmessung(final int aufwaermen, final int durchgaenge, final Charset ausgabeCharset, final int puffergroesse, final int pufferanzahl) throws IOException {
+		if ((aufwaermen < 0) || (durchgaenge < 1))
+			throw new IllegalArgumentException();
+		pAufwaermen = aufwaermen;
+		pDurchgaenge = durchgaenge;
+		pAusgabeCharset = ausgabeCharset;
+		pPuffergroesse = puffergroesse;
+		pPufferanzahl = pufferanzahl;
+		pVerzeichnis = Files.createTempDirectory("konverter-bench");
+	}
+	
+	// das Korpus aus einer Datei
+	public void korpusLesen(final Path datei, final Format format, final Charset charset) throws IOException, KonverterException {
+		for (final Format ziel : Format.values())
+			ziel.ausgabe(korpusdatei(ziel), StandardCharsets.UTF_8, Kanalausgabe.BYTEPUFFER, 2).konvertierenNach(format.eingabe(datei, charset, Verfahren.SEQUENZIELL));
+		zaehlen();
+	}
+	
+	// ein künstliches Korpus, siehe Korpusgenerator
+	public void korpusErzeugen(final long tokens) throws IOException, KonverterException {
+		final Korpusgenerator generator = new Korpusgenerator(1, tokens, MIN_SATZLAENGE, MAX_SATZLAENGE);
+		for (final Format ziel : Format.values())
+			ziel.ausgabe(korpusdatei(ziel), StandardCharsets.UTF_8, Kanalausgabe.BYTEPUFFER, 2).konvertierenNach(generator);
+		zaehlen();
+	}
+	
+	public void korpusBeschreiben(final PrintStream ausgabe) throws IOException {
+		ausgabe.print("Korpus: " + pTokens + " Tokens in " + pSaetze + " Sätzen;");
+		for (final Format format : Format.values())
+			ausgabe.print(String.format(Locale.ROOT, " %s %.1f MB", format.getName(), Files.size(korpusdatei(format)) / MB));
+		ausgabe.println();
+	}
+	
+	// misst alle neun Paare mit diesem Verfahren und schreibt eine Tabelle
+	// nach ausgabe
+	public void messen(final String name, final Verfahren verfahren, final PrintStream ausgabe) throws IOException, KonverterException {
+		final Speichermessung speicher = new Speichermessung();
+		try {
+			ausgabe.println();
+			ausgabe.println("Verfahren " + name + ", " + pAufwaermen + " Aufwärm- und " + pDurchgaenge + " Messdurchgänge:");
+			ausgabe.println(String.format(Locale.ROOT, "%-9s %-9s %8s %8s %12s %9s %11s %8s", "Eingabe", "Ausgabe", "Median s", "MB/s", "Tokens/s", "GC ms", "Alloc MB/s", "B/Token"));
+			for (final Format von : Format.values()) {
+				final Path datei = korpusdatei(von);
+				final long bytes = Files.size(datei);
+				for (final Format nach : Format.values()) {
+					for (int i = 0; i < pAufwaermen; i++)
+						konvertieren(von, nach, datei, verfahren);
+					final long[] zeiten = new long[pDurchgaenge];
+					final long gcVorher = gcZeit();
+					speicher.starten();
+					for (int i = 0; i < pDurchgaenge; i++) {
+						final long start = System.nanoTime();
+						konvertieren(von, nach, datei, verfahren);
+						zeiten[i] = System.nanoTime() - start;
+					}
+					final long alloziert = speicher.beenden();
+					final long gc = gcZeit() - gcVorher;
+					Arrays.sort(zeiten);
+					final double median = ((zeiten[(pDurchgaenge - 1) / 2] + zeiten[pDurchgaenge / 2]) / 2) / 1e9;
+					final double gesamt = Arrays.stream(zeiten).sum() / 1e9;
+					ausgabe.println(String.format(Locale.ROOT, "%-9s %-9s %8.3f %8.1f %12.0f %9.1f %11.1f %8.1f", von.getName(), nach.getName(), median, bytes / MB / median, pTokens / median, (double) gc / pDurchgaenge, alloziert / MB / gesamt, (double) alloziert / pDurchgaenge / Math.max(pTokens, 1)));
+				}
+			}
+		} finally {
+			speicher.close();
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		final List<Path> dateien;
+		try (final Stream<Path> baum = Files.walk(pVerzeichnis)) {
+			dateien = baum.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+		}
+		for (final Path datei : dateien)
+			Files.delete(datei);
+	}
+	
+	private void konvertieren(final Format von, final Format nach, final Path datei, final Verfahren verfahren) throws IOException, KonverterException {
+		nach.ausgabe(new Verwerfer(), pAusgabeCharset, pPuffergroesse, pPufferanzahl).konvertierenNach(von.eingabe(datei, StandardCharsets.UTF_8, verfahren));
+	}
+	
+	private Path korpusdatei(final Format format) {
+		return pVerzeichnis.resolve("korpus." + format.getName());
+	}
+	
+	private void zaehlen() throws IOException, KonverterException {
+		final Zaehler zaehler = new Zaehler();
+		final Eingabe eingabe = Format.RFTAGGER.eingabe(korpusdatei(Format.RFTAGGER), StandardCharsets.UTF_8, Verfahren.SEQUENZIELL);
+		eingabe.konvertierenVon(zaehler);
+		pTokens = zaehler.tokens;
+		// ein letzter Satz ohne Leerzeile am Ende zählt mit
+		pSaetze = zaehler.saetze + (zaehler.satzOffen ? 1 : 0);
+	}
+	
+	// Summe über alle Collectors in Millisekunden
+	private static long gcZeit() {
+		long result = 0;
+		for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			result += Math.max(gc.getCollectionTime(), 0);
+		return result;
+	}
+	
+	private static long gcAnzahl() {
+		long result = 0;
+		for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			result += Math.max(gc.getCollectionCount(), 0);
+		return result;
+	}
+	
+	// verbraucht die Ausgabe, ohne sie zu schreiben
+	private static class Verwerfer implements WritableByteChannel {
+		
+		@Override
+		public int write(final ByteBuffer src) {
+			final int result = src.remaining();
+			src.position(src.limit());
+			return result;
+		}
+		
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+		
+		@Override
+		public void close() {
+		}
+	
+	}
+	
+	private static class Zaehler implements Senke, Tokensenke {
+		
+		long tokens;
+		long saetze;
+		boolean satzOffen;
+		
+		@Override
+		public Set<Itemfeld> felder() {
+			return EnumSet.noneOf(Itemfeld.class);
+		}
+		
+		@Override
+		public void next(final Item token) {
+			if (token.typ == Itemtyp.LEERZEILE)
+				satzBeenden();
+			else if (token.typ == Itemtyp.TOKEN)
+				token(0, null, 0, 0, -1, -1, 0);
+		}
+		
+		@Override
+		public void token(final long index, final CharSequence zeile, final int formVon, final int formBis, final int lemmaVon, final int lemmaBis, final int tagcode) {
+			tokens++;
+			satzOffen = true;
+		}
+		
+		@Override
+		public void satzBeenden() {
+			if (satzOffen)
+				saetze++;
+			satzOffen = false;
+		}
+	
+	}
+	
+	// Allokation aller Threads: Zuwachs des belegten Heaps plus dem, was die
+	// GC in der Zwischenzeit freigegeben hat (aus den Benachrichtigungen nach
+	// jeder Collection)
+	private static class Speichermessung implements NotificationListener {
+		
+		// wie lange höchstens auf ausstehende Benachrichtigungen gewartet wird
+		private static final long WARTEZEIT = 1000;
+		
+		private final long pAnzahlStart;
+		private final AtomicLong pFreigegeben;
+		private final AtomicLong pBenachrichtigungen;
+		
+		private long pBelegtVorher;
+		private long pFreigegebenVorher;
+		
+		Speichermessung() {
+			pFreigegeben = new AtomicLong();
+			pBenachrichtigungen = new AtomicLong();
+			pAnzahlStart = gcAnzahl();
+			for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+				if (gc instanceof NotificationEmitter)
+					((NotificationEmitter) gc).addNotificationListener(this, null, null);
+		}
+		
+		@Override
+		public void handleNotification(final Notification notification, final Object handback) {
+			if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION))
+				return;
+			final GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+			final Map<String, MemoryUsage> nachher = info.getGcInfo().getMemoryUsageAfterGc();
+			long freigegeben = 0;
+			for (final Map.Entry<String, MemoryUsage> vorher : info.getGcInfo().getMemoryUsageBeforeGc().entrySet())
+				freigegeben += vorher.getValue().getUsed() - nachher.get(vorher.getKey()).getUsed();
+			pFreigegeben.addAndGet(freigegeben);
+			pBenachrichtigungen.incrementAndGet();
+		}
+		
+		void starten() {
+			warten();
+			pFreigegebenVorher = pFreigegeben.get();
+			pBelegtVorher = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		}
+		
+		// die seit starten allozierten Bytes
+		long beenden() {
+			final long belegt = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+			warten();
+			return belegt - pBelegtVorher + pFreigegeben.get() - pFreigegebenVorher;
+		}
+		
+		void close() {
+			for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				if (gc instanceof NotificationEmitter) {
+					try {
+						((NotificationEmitter) gc).removeNotificationListener(this);
+					} catch (final ListenerNotFoundException e) {
+						// nicht angemeldet
+					}
+				}
+			}
+		}
+		
+		// die Benachrichtigungen kommen aus einem eigenen Thread, etwas später
+		// als die Collection
+		private void warten() {
+			final long ende = System.currentTimeMillis() + WARTEZEIT;
+			while ((pBenachrichtigungen.get() < gcAnzahl() - pAnzahlStart) && (System.currentTimeMillis() < ende))
+				Thread.yield();
+		}
+	
+	}
+	
+}
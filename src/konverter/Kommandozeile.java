@@ -5,41 +5,108 @@
  */
 package konverter;
 
+import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map.Entry;
+import java.util.List;
 import java.util.function.BiConsumer;
 
 import konverter.kommandozeile.Option;
 
 public class Kommandozeile {
 	
-	private static final HashMap<String, Option> OPTIONEN;
+	// für die Verwendung; die Optionen selbst werden erst erzeugt, wenn sie
+	// gebraucht werden, ein Aufruf erzeugt also nur die angegebenen
+	private static final String[] OPTIONSNAMEN = { "input-charset", "output-charset", "input-format", "output-format", "engine", "flush", "output-buffer-size", "output-buffers", "output-directory", "manifest", "threads", "bench", "bench-tokens", "bench-warmup", "bench-runs", "progress", "stats", "stats-format" };
+	
+	// für Meldungen beim Parsen
+	private final PrintStream pFehler;
 	
 	private String pEingabedatei;
 	private String pAusgabedatei;
 	
+	// Stapelbetrieb: alle Dateinamen sind Eingaben
+	private final ArrayList<String> pEingaben;
+	private String pAusgabeverzeichnis;
+	private String pManifest;
+	private Integer pThreads;
+	
+	// Durchsatzmessung: Korpusdatei oder Anzahl der Tokens eines erzeugten
+	// Korpus
+	private String pMesskorpus;
+	private Integer pMesstokens;
+	private Integer pAufwaermdurchgaenge;
+	private Integer pMessdurchgaenge;
+	
+	// Statistik
+	private Integer pFortschritt;
+	private String pStatistikdatei;
+	private String pStatistikformat;
+	
 	private Charset pEingabeCharset;
 	private Charset pAusgabeCharset;
 	
 	private String pEingabeformat;
 	private String pAusgabeformat;
 	
-	static {
-		OPTIONEN = new HashMap<>();
-		
-		OPTIONEN.put("input-charset", new CharsetOption(false));
-		OPTIONEN.put("output-charset", new CharsetOption(true));
-		
-		OPTIONEN.put("input-format", new SimpleOption((k, s) -> k.pEingabeformat = s, "Das Format der Eingabe-Datei. Muss angegeben werden. Mögliche Werte: \"rftagger\", \"conllx\" und \"tsv\"."));
-		OPTIONEN.put("output-format", new SimpleOption((k, s) -> k.pAusgabeformat = s, "Das Format der Ausgabe-Datei. Muss angegeben werden. Mögliche Werte: \"rftagger\", \"conllx\" und \"tsv\"."));
+	private String pVerfahren;
+	private String pLeeren;
+	
+	private Integer pAusgabepuffergroesse;
+	private Integer pAusgabepufferanzahl;
+	
+	// null für einen unbekannten Namen
+	private static Option option(final String name) {
+		switch (name) {
+			case "input-charset":
+				return new CharsetOption(false);
+			case "output-charset":
+				return new CharsetOption(true);
+			case "input-format":
+				return new SimpleOption((k, s) -> k.pEingabeformat = s, "Das Format der Eingabe-Datei. Muss angegeben werden. Mögliche Werte: \"rftagger\", \"conllx\" und \"tsv\".");
+			case "output-format":
+				return new SimpleOption((k, s) -> k.pAusgabeformat = s, "Das Format der Ausgabe-Datei. Muss angegeben werden. Mögliche Werte: \"rftagger\", \"conllx\" und \"tsv\".");
+			case "engine":
+				return new SimpleOption((k, s) -> k.pVerfahren = s, "Das Konvertierungsverfahren. Mögliche Werte: \"sequential\" (Standard), \"pipeline\" (Einlesen, Konvertieren und Ausgeben in getrennten Threads) und \"parallel\" (an Leerzeilen geteilte Abschnitte der Eingabe-Datei parallel konvertieren).");
+			case "flush":
+				return new SimpleOption((k, s) -> k.pLeeren = s, "Wann die Ausgabe geschrieben wird. Mögliche Werte: \"buffer\" (Standard, wenn ein Ausgabepuffer voll ist) und \"sentence\" (nach jedem Satz; Item für Item, für die Verwendung als Filter, etwa hinter einem Tagger; -engine wird dann nicht beachtet).");
+			case "output-buffer-size":
+				return new ZahlOption((k, n) -> k.pAusgabepuffergroesse = n, 16, "Größe der Ausgabepuffer in Bytes (Standard: 262144).");
+			case "output-buffers":
+				return new ZahlOption((k, n) -> k.pAusgabepufferanzahl = n, 1, "Anzahl der Ausgabepuffer. Bei 1 (Standard) wird im Konvertierungs-Thread geschrieben, ab 2 in einem eigenen Thread, während der nächste Puffer gefüllt wird.");
+			case "output-directory":
+				return new SimpleOption((k, s) -> k.pAusgabeverzeichnis = s, "Stapelbetrieb: Alle Dateinamen sind Eingaben (Dateien, Verzeichnisse oder Glob-Muster), die Ausgabedateien werden unter ihrem relativen Pfad in diesem Verzeichnis angelegt.");
+			case "manifest":
+				return new SimpleOption((k, s) -> k.pManifest = s, "Stapelbetrieb: Datei mit einer Zeile pro Konvertierung, bestehend aus Eingabedatei, Tabulator und Ausgabedatei.");
+			case "threads":
+				return new ZahlOption((k, n) -> k.pThreads = n, 1, "Stapelbetrieb: Anzahl der gleichzeitig konvertierten Dateien (Standard: Anzahl der Prozessoren).");
+			case "bench":
+				return new SimpleOption((k, s) -> k.pMesskorpus = s, "Durchsatzmessung: Jedes Paar aus Eingabe- und Ausgabeformat mit diesem Korpus (im Format von -input-format) konvertieren und Durchsatz, GC-Zeit und Allokation ausgeben. -engine kann dann mehrere durch Kommas getrennte Verfahren enthalten.");
+			case "bench-tokens":
+				return new ZahlOption((k, n) -> k.pMesstokens = n, 1, "Durchsatzmessung mit einem erzeugten Korpus aus so vielen Tokens statt -bench.");
+			case "bench-warmup":
+				return new ZahlOption((k, n) -> k.pAufwaermdurchgaenge = n, 0, "Durchsatzmessung: Anzahl der Aufwärmdurchgänge pro Paar (Standard: 2).");
+			case "bench-runs":
+				return new ZahlOption((k, n) -> k.pMessdurchgaenge = n, 1, "Durchsatzmessung: Anzahl der Messdurchgänge pro Paar (Standard: 5).");
+			case "progress":
+				return new ZahlOption((k, n) -> k.pFortschritt = n, 1, "Alle so viele Sekunden den Fortschritt (mit geschätzter Restzeit, wenn die Größe der Eingabe bekannt ist) auf die Standardfehlerausgabe schreiben.");
+			case "stats":
+				return new SimpleOption((k, s) -> k.pStatistikdatei = s, "Am Ende eine Statistik (Tokens, Sätze, Bytes, Zeiten, Wortarten) in diese Datei schreiben; \"-\" steht für die Standardfehlerausgabe.");
+			case "stats-format":
+				return new SimpleOption((k, s) -> k.pStatistikformat = s, "Das Format der Statistik. Mögliche Werte: \"text\" (Standard) und \"json\".");
+			default:
+				return null;
+		}
 	}
 	
-	private Kommandozeile() {}
+	private Kommandozeile(final PrintStream fehler) {
+		pFehler = fehler;
+		pEingaben = new ArrayList<>();
+	}
 	
 	public String getEingabedatei() {
 		return pEingabedatei;
@@ -65,16 +132,89 @@ public class Kommandozeile {
 		return pAusgabeformat;
 	}
 	
+	public String getVerfahren() {
+		return pVerfahren;
+	}
+	
+	public String getLeeren() {
+		return pLeeren;
+	}
+	
+	public Integer getAusgabepuffergroesse() {
+		return pAusgabepuffergroesse;
+	}
+	
+	public Integer getAusgabepufferanzahl() {
+		return pAusgabepufferanzahl;
+	}
+	
+	public boolean isStapelbetrieb() {
+		return (pAusgabeverzeichnis != null) || (pManifest != null);
+	}
+	
+	public List<String> getEingaben() {
+		return Collections.unmodifiableList(pEingaben);
+	}
+	
+	public String getAusgabeverzeichnis() {
+		return pAusgabeverzeichnis;
+	}
+	
+	public String getManifest() {
+		return pManifest;
+	}
+	
+	public Integer getThreads() {
+		return pThreads;
+	}
+	
+	public boolean isDurchsatzmessung() {
+		return (pMesskorpus != null) || (pMesstokens != null);
+	}
+	
+	public String getMesskorpus() {
+		return pMesskorpus;
+	}
+	
+	public Integer getMesstokens() {
+		return pMesstokens;
+	}
+	
+	public Integer getAufwaermdurchgaenge() {
+		return pAufwaermdurchgaenge;
+	}
+	
+	public Integer getMessdurchgaenge() {
+		return pMessdurchgaenge;
+	}
+	
+	public Integer getFortschritt() {
+		return pFortschritt;
+	}
+	
+	public String getStatistikdatei() {
+		return pStatistikdatei;
+	}
+	
+	public String getStatistikformat() {
+		return pStatistikformat;
+	}
+	
 	public static Kommandozeile parsen(final String[] args) {
-		final Kommandozeile result = new Kommandozeile();
+		return parsen(args, System.out, System.err);
+	}
+	
+	// die Verwendung wird nach ausgabe geschrieben, Fehlermeldungen nach fehler
+	public static Kommandozeile parsen(final String[] args, final PrintStream ausgabe, final PrintStream fehler) {
+		final Kommandozeile result = new Kommandozeile(fehler);
 		Option aktuelleOption = null;
-		int dateinameIndex = 0;
 		for (final String arg : args) {
 			if (aktuelleOption == null) {
-				if (arg.startsWith("-")) {
-					aktuelleOption = OPTIONEN.getOrDefault(arg.substring(1), null);
+				// "-" allein steht für System.in bzw. System.out
+				if (arg.startsWith("-") && (arg.length() > 1)) {
+					aktuelleOption = option(arg.substring(1));
 					if (aktuelleOption == null) {
-						verwendungAusgeben();
+						verwendungAusgeben(ausgabe);
 						return null;
 					}
 					continue;
@@ -84,53 +224,63 @@ public class Kommandozeile {
 					aktuelleOption = null;
 					continue;
 				}
-				verwendungAusgeben();
+				verwendungAusgeben(ausgabe);
 				return null;
 			}
-			switch (dateinameIndex) {
-				case 0:
-					result.pEingabedatei = arg;
-					break;
-				case 1:
-					result.pAusgabedatei = arg;
-					break;
-				default:
-					verwendungAusgeben();
-					return null;
+			result.pEingaben.add(arg);
+		}
+		if (result.isDurchsatzmessung()) {
+			// entweder Korpusdatei oder erzeugtes Korpus, keine Dateinamen
+			if (!result.pEingaben.isEmpty() || result.isStapelbetrieb() || ((result.pMesskorpus != null) && (result.pMesstokens != null))) {
+				verwendungAusgeben(ausgabe);
+				return null;
 			}
-			dateinameIndex++;
+			return result;
 		}
-		if (dateinameIndex < 2) {
-			verwendungAusgeben();
+		if (result.isStapelbetrieb()) {
+			// Eingaben ohne Ausgabeverzeichnis gibt es nur im Manifest
+			if (result.pEingaben.isEmpty() ? (result.pManifest == null) : (result.pAusgabeverzeichnis == null)) {
+				verwendungAusgeben(ausgabe);
+				return null;
+			}
+			return result;
+		}
+		if (result.pEingaben.size() != 2) {
+			verwendungAusgeben(ausgabe);
 			return null;
 		}
+		result.pEingabedatei = result.pEingaben.get(0);
+		result.pAusgabedatei = result.pEingaben.get(1);
 		return result;
 	}
 	
-	private static void verwendungAusgeben() {
-		System.out.println("hermA-Tagsetkonverter");
-		System.out.println();
-		System.out.println("Kommandozeilenargumente:");
-		System.out.println("  [Option1 Wert1 Option2 Wert2 ...] Eingabedatei Ausgabedatei");
-		System.out.println();
-		System.out.println("Verfügbare Optionen:");
-		System.out.println();
+	private static void verwendungAusgeben(final PrintStream ausgabe) {
+		ausgabe.println("hermA-Tagsetkonverter");
+		ausgabe.println();
+		ausgabe.println("Kommandozeilenargumente:");
+		ausgabe.println("  [Option1 Wert1 Option2 Wert2 ...] Eingabedatei Ausgabedatei");
+		ausgabe.println("    (\"-\" als Eingabe- bzw. Ausgabedatei steht für die Standardeingabe bzw. -ausgabe)");
+		ausgabe.println("  [Option1 Wert1 ...] -output-directory Verzeichnis Eingabe1 [Eingabe2 ...]");
+		ausgabe.println("  [Option1 Wert1 ...] -manifest Datei [-output-directory Verzeichnis Eingabe1 ...]");
+		ausgabe.println("  [Option1 Wert1 ...] -bench Korpusdatei | -bench-tokens Anzahl");
+		ausgabe.println();
+		ausgabe.println("Verfügbare Optionen:");
+		ausgabe.println();
 		int spalte1breite = 0;
-		for (final String option : OPTIONEN.keySet()) {
+		for (final String option : OPTIONSNAMEN) {
 			final int length = option.length() + 1;
 			if (length > spalte1breite)
 				spalte1breite = length;
 		}
 		spalte1breite += 3;
-		final ArrayList<Entry<String, Option>> optionenSortiert = new ArrayList<>(OPTIONEN.entrySet());
-		Collections.sort(optionenSortiert, (e1, e2) -> e1.getKey().compareToIgnoreCase(e2.getKey()));
-		for (final Entry<String, Option> opt : optionenSortiert) {
-			final String optname = opt.getKey();
-			System.out.print('-');
-			System.out.print(optname);
+		final String[] optionenSortiert = OPTIONSNAMEN.clone();
+		Arrays.sort(optionenSortiert, String::compareToIgnoreCase);
+		for (final String optname : optionenSortiert) {
+			ausgabe.print('-');
+			ausgabe.print(optname);
 			for (int i = optname.length(); i < spalte1breite; i++)
-				System.out.print(' ');
-			System.out.println(opt.getValue().getBeschreibung());
+				ausgabe.print(' ');
+			ausgabe.println(option(optname).getBeschreibung());
 		}
 	}
 	
@@ -176,10 +326,10 @@ public class Kommandozeile {
 			try {
 				charset = Charset.forName(wert);
 			} catch (final IllegalCharsetNameException e) {
-				System.err.println(wert + " ist keine gültige Zeichenkodierung.");
+				kommandozeile.pFehler.println(wert + " ist keine gültige Zeichenkodierung.");
 				return false;
 			} catch (final UnsupportedCharsetException e) {
-				System.err.println("Zeichenkodierung " + wert + " wird nicht unterstützt.");
+				kommandozeile.pFehler.println("Zeichenkodierung " + wert + " wird nicht unterstützt.");
 				return false;
 			}
 			if (pAusgabe)
@@ -191,4 +341,40 @@ public class Kommandozeile {
 		
 	}
 	
+	private static class ZahlOption implements Option {
+		
+		private final String pBeschreibung;
+		private final BiConsumer<Kommandozeile, Integer> pSetter;
+		private final int pMinimum;
+		
+		public ZahlOption(final BiConsumer<Kommandozeile, Integer> setter, final int minimum, final String beschreibung) {
+			pBeschreibung = beschreibung;
+			pSetter = setter;
+			pMinimum = minimum;
+		}
+		
+		@Override
+		public String getBeschreibung() {
+			return pBeschreibung;
+		}
+		
+		@Override
+		public boolean wertUebernehmen(final Kommandozeile kommandozeile, final String wert) {
+			final int zahl;
+			try {
+				zahl = Integer.parseInt(wert);
+			} catch (final NumberFormatException e) {
+				kommandozeile.pFehler.println(wert + " ist keine gültige Zahl.");
+				return false;
+			}
+			if (zahl < pMinimum) {
+				kommandozeile.pFehler.println(wert + " ist kleiner als " + pMinimum + ".");
+				return false;
+			}
+			pSetter.accept(kommandozeile, zahl);
+			return true;
+		}
+		
+	}
+	
 }
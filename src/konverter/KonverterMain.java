@@ -5,102 +5,343 @@
  */
 package konverter;
 
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
 
 import konverter.exception.KonverterException;
-import konverter.formate.conllx.CoNLLX;
-import konverter.formate.rftagger.RFTagger;
-import konverter.formate.tsv.TSV;
+import konverter.formate.Format;
 import konverter.konvertierung.Ausgabe;
+import konverter.konvertierung.Eingabe;
+import konverter.konvertierung.Kanalausgabe;
+import konverter.konvertierung.ParalleleKonvertierung;
+import konverter.konvertierung.PipelineKonvertierung;
+import konverter.konvertierung.Statistik;
+import konverter.konvertierung.Verfahren;
 
+// Ein Aufruf des Konverters mit Kommandozeilenargumenten. Standardeingabe,
+// Standardausgabe und die Textausgaben sind austauschbar, damit der Dienst
+// (konverter.dienst) Aufrufe mit denselben Meldungen und Exit-Codes wie die
+// Kommandozeile ausführen kann.
 public class KonverterMain {
 	
+	private static final String STANDARD = "-";
+	
+	// relative Pfade werden gegen dieses Verzeichnis aufgelöst, null für das
+	// Arbeitsverzeichnis
+	private final Path pBasis;
+	private final InputStream pEingabe;
+	private final WritableByteChannel pAusgabe;
+	private final PrintStream pText;
+	private final PrintStream pFehler;
+	private final boolean pStapelbetrieb;
+	
+	public KonverterMain(final Path basis, final InputStream eingabe, final WritableByteChannel ausgabe, final PrintStream text, final PrintStream fehler, final boolean stapelbetrieb) {
+		pBasis = basis;
+		pEingabe = eingabe;
+		pAusgabe = ausgabe;
+		pText = text;
+		pFehler = fehler;
+		pStapelbetrieb = stapelbetrieb;
+	}
+	
 	public static void main(final String[] args) {
-		final Kommandozeile komm = Kommandozeile.parsen(args);
+		final WritableByteChannel standardausgabe = new FileOutputStream(FileDescriptor.out).getChannel();
+		final int status = new KonverterMain(null, System.in, standardausgabe, System.out, System.err, true).ausfuehren(args);
+		if (status != 0)
+			System.exit(status);
+	}
+	
+	// liefert den Exit-Code
+	public int ausfuehren(final String[] args) {
+		try {
+			konvertieren(args);
+			return 0;
+		} catch (final Abbruch e) {
+			return e.status;
+		}
+	}
+	
+	private void konvertieren(final String[] args) {
+		final Kommandozeile komm = Kommandozeile.parsen(args, pText, pFehler);
 		if (komm == null)
 			return;
 		
-		final FileSystem fs = FileSystems.getDefault();
+		if (komm.isStapelbetrieb()) {
+			if (!pStapelbetrieb) {
+				pFehler.println("Der Stapelbetrieb ist hier nicht verfügbar.");
+				throw new Abbruch(1);
+			}
+			stapelverarbeitung(komm);
+			return;
+		}
+		
+		if (komm.isDurchsatzmessung()) {
+			if (!pStapelbetrieb) {
+				pFehler.println("Die Durchsatzmessung ist hier nicht verfügbar.");
+				throw new Abbruch(1);
+			}
+			durchsatzmessung(komm);
+			return;
+		}
+		
+		// null für die Standardeingabe bzw. -ausgabe
 		final Path inpath;
 		final Path outpath;
 		try {
-			inpath = fs.getPath(komm.getEingabedatei());
+			inpath = STANDARD.equals(komm.getEingabedatei()) ? null : pfad(komm.getEingabedatei());
 		} catch (final InvalidPathException e) {
-			System.err.println(komm.getEingabedatei() + " ist kein gültiger Pfad.");
+			pFehler.println(komm.getEingabedatei() + " ist kein gültiger Pfad.");
 			return;
 		}
 		try {
-			outpath = fs.getPath(komm.getAusgabedatei());
+			outpath = STANDARD.equals(komm.getAusgabedatei()) ? null : pfad(komm.getAusgabedatei());
 		} catch (final InvalidPathException e) {
-			System.err.println(komm.getAusgabedatei() + " ist kein gültiger Pfad.");
+			pFehler.println(komm.getAusgabedatei() + " ist kein gültiger Pfad.");
 			return;
 		}
 		
-		final String eingabeformat = komm.getEingabeformat();
-		final String ausgabeformat = komm.getAusgabeformat();
-		
 		final Charset eingabeCharset = orDefault(komm.getEingabeCharset(), StandardCharsets.UTF_8);
 		final Charset ausgabeCharset = orDefault(komm.getAusgabeCharset(), StandardCharsets.UTF_8);
 		
+		final Verfahren verfahren = verfahren(komm.getVerfahren(), komm.getLeeren());
+		
+		final int puffergroesse = orDefault(komm.getAusgabepuffergroesse(), Kanalausgabe.BYTEPUFFER);
+		final int pufferanzahl = orDefault(komm.getAusgabepufferanzahl(), 1);
+		
+		final Format ausgabeformat = format(komm.getAusgabeformat(), "Ausgabeformat");
+		final Format eingabeformat = format(komm.getEingabeformat(), "Eingabeformat");
+		
+		final Statistik statistik = statistik(komm);
+		if ((statistik != null) && (inpath != null))
+			statistik.gesamtgroesseSetzen(groesse(inpath));
+		final Closeable anzeige = fortschrittAnzeigen(komm, statistik);
 		try {
-			convert(inpath, outpath, eingabeformat, ausgabeformat, eingabeCharset, ausgabeCharset);
+			convert(inpath, outpath, eingabeformat, ausgabeformat, eingabeCharset, ausgabeCharset, verfahren, puffergroesse, pufferanzahl, statistik);
 		} catch (final KonverterException e) {
-			System.err.print("Fehler beim ");
-			switch (e.getArbeitsschritt()) {
-				case EINLESEN:
-					System.err.print("Einlesen");
-					break;
-				case KONVERTIEREN:
-					System.err.print("Konvertieren");
-					break;
-				case AUSGEBEN:
-					System.err.print("Ausgeben");
-					break;
+			pFehler.println(fehlermeldung(e));
+			throw new Abbruch(1);
+		} catch (final Exception e) {
+			e.printStackTrace(pFehler);
+			throw new Abbruch(2);
+		} finally {
+			statistikAusgeben(komm, statistik, anzeige);
+		}
+	}
+	
+	private void stapelverarbeitung(final Kommandozeile komm) {
+		// vorher prüfen, damit nicht jede Datei einzeln scheitert
+		final Format ausgabeformat = format(komm.getAusgabeformat(), "Ausgabeformat");
+		final Format eingabeformat = format(komm.getEingabeformat(), "Eingabeformat");
+		
+		final Charset eingabeCharset = orDefault(komm.getEingabeCharset(), StandardCharsets.UTF_8);
+		final Charset ausgabeCharset = orDefault(komm.getAusgabeCharset(), StandardCharsets.UTF_8);
+		final int puffergroesse = orDefault(komm.getAusgabepuffergroesse(), Kanalausgabe.BYTEPUFFER);
+		final int pufferanzahl = orDefault(komm.getAusgabepufferanzahl(), 1);
+		final int threads = orDefault(komm.getThreads(), Runtime.getRuntime().availableProcessors());
+		// die gleichzeitig konvertierten Dateien teilen sich einen Pool, statt
+		// dass jede einen eigenen für alle Prozessoren startet
+		final Verfahren gewaehlt = verfahren(komm.getVerfahren(), komm.getLeeren());
+		final ForkJoinPool abschnittspool = (gewaehlt instanceof ParalleleKonvertierung) ? new ForkJoinPool(Runtime.getRuntime().availableProcessors()) : null;
+		final Verfahren verfahren = (abschnittspool == null) ? gewaehlt : new ParalleleKonvertierung(abschnittspool, ParalleleKonvertierung.STANDARDABSCHNITTSGROESSE);
+		
+		// eine Statistik für alle Dateien
+		final Statistik statistik = statistik(komm);
+		
+		final Stapelverarbeitung stapel = new Stapelverarbeitung(ausgabeformat.getName());
+		final boolean erfolgreich;
+		try {
+			if (komm.getManifest() != null)
+				stapel.manifestLesen(Paths.get(komm.getManifest()));
+			if (komm.getAusgabeverzeichnis() != null) {
+				final Path verzeichnis = Paths.get(komm.getAusgabeverzeichnis());
+				for (final String eingabe : komm.getEingaben())
+					stapel.eingabeHinzufuegen(eingabe, verzeichnis);
+			}
+			if (statistik != null)
+				statistik.gesamtgroesseSetzen(stapel.getGesamtgroesse());
+			final Closeable anzeige = fortschrittAnzeigen(komm, statistik);
+			try {
+				erfolgreich = stapel.ausfuehren(threads, (inpath, outpath) -> convert(inpath, outpath, eingabeformat, ausgabeformat, eingabeCharset, ausgabeCharset, verfahren, puffergroesse, pufferanzahl, statistik), pText, pFehler);
+			} finally {
+				statistikAusgeben(komm, statistik, anzeige);
 			}
-			System.err.println(": " + e.getMessage());
 		} catch (final Exception e) {
-			e.printStackTrace();
-			System.exit(2);
+			e.printStackTrace(pFehler);
+			throw new Abbruch(2);
+		} finally {
+			if (abschnittspool != null)
+				abschnittspool.shutdownNow();
 		}
+		if (!erfolgreich)
+			throw new Abbruch(1);
 	}
 	
-	private static void convert(final Path inpath, final Path outpath, final String eingabeformat, final String ausgabeformat, final Charset eingabeCharset, final Charset ausgabeCharset) throws IOException {
-		switch (ausgabeformat) {
-			case "rftagger":
-				convert(inpath, eingabeformat, eingabeCharset, RFTagger.ausgabe(outpath, ausgabeCharset));
-				break;
-			case "conllx":
-				convert(inpath, eingabeformat, eingabeCharset, CoNLLX.ausgabe(outpath, ausgabeCharset));
-				break;
-			case "tsv":
-				convert(inpath, eingabeformat, eingabeCharset, TSV.ausgabe(outpath, ausgabeCharset));
-				break;
-			default:
-				System.err.println("Unbekanntes Ausgabeformat: " + ausgabeformat);
-				System.exit(1);
+	private void durchsatzmessung(final Kommandozeile komm) {
+		final Format eingabeformat = (komm.getMesskorpus() == null) ? null : format(komm.getEingabeformat(), "Eingabeformat");
+		final Charset eingabeCharset = orDefault(komm.getEingabeCharset(), StandardCharsets.UTF_8);
+		final Charset ausgabeCharset = orDefault(komm.getAusgabeCharset(), StandardCharsets.UTF_8);
+		final int puffergroesse = orDefault(komm.getAusgabepuffergroesse(), Kanalausgabe.BYTEPUFFER);
+		final int pufferanzahl = orDefault(komm.getAusgabepufferanzahl(), 1);
+		// die Verfahren vor dem Vorbereiten des Korpus prüfen
+		final String[] namen = (komm.getVerfahren() == null) ? new String[] { "sequential" } : komm.getVerfahren().split(",");
+		final Verfahren[] verfahren = new Verfahren[namen.length];
+		for (int i = 0; i < namen.length; i++)
+			verfahren[i] = verfahren(namen[i], komm.getLeeren());
+		
+		try (final Durchsatzmessung messung = new Durchsatzmessung(orDefault(komm.getAufwaermdurchgaenge(), 2), orDefault(komm.getMessdurchgaenge(), 5), ausgabeCharset, puffergroesse, pufferanzahl)) {
+			if (eingabeformat == null)
+				messung.korpusErzeugen(komm.getMesstokens());
+			else
+				messung.korpusLesen(pfad(komm.getMesskorpus()), eingabeformat, eingabeCharset);
+			messung.korpusBeschreiben(pText);
+			for (int i = 0; i < namen.length; i++)
+				messung.messen((verfahren[i] == Verfahren.SATZWEISE) ? "sentence" : namen[i], verfahren[i], pText);
+		} catch (final KonverterException e) {
+			pFehler.println(fehlermeldung(e));
+			throw new Abbruch(1);
+		} catch (final InvalidPathException e) {
+			pFehler.println(komm.getMesskorpus() + " ist kein gültiger Pfad.");
+			throw new Abbruch(1);
+		} catch (final Exception e) {
+			e.printStackTrace(pFehler);
+			throw new Abbruch(2);
 		}
 	}
 	
-	private static void convert(final Path inpath, final String eingabeformat, final Charset eingabeCharset, final Ausgabe ausgabe) throws IOException, KonverterException {
-		switch (eingabeformat) {
-			case "rftagger":
-				ausgabe.konvertierenNach(RFTagger.eingabe(inpath, eingabeCharset));
+	public static String fehlermeldung(final KonverterException e) {
+		final StringBuilder result = new StringBuilder("Fehler beim ");
+		switch (e.getArbeitsschritt()) {
+			case EINLESEN:
+				result.append("Einlesen");
 				break;
-			case "conllx":
-				ausgabe.konvertierenNach(CoNLLX.eingabe(inpath, eingabeCharset));
+			case KONVERTIEREN:
+				result.append("Konvertieren");
 				break;
-			case "tsv":
-				ausgabe.konvertierenNach(TSV.eingabe(inpath, eingabeCharset));
+			case AUSGEBEN:
+				result.append("Ausgeben");
 				break;
+		}
+		return result.append(": ").append(e.getMessage()).toString();
+	}
+	
+	private Path pfad(final String name) {
+		if (pBasis == null)
+			return FileSystems.getDefault().getPath(name);
+		return pBasis.resolve(name);
+	}
+	
+	private Format format(final String name, final String art) {
+		final Format format = Format.suchen(name);
+		if (format == null) {
+			pFehler.println("Unbekanntes " + art + ": " + name);
+			throw new Abbruch(1);
+		}
+		return format;
+	}
+	
+	// satzweises Leeren geht nur Item für Item und ersetzt daher das Verfahren
+	private Verfahren verfahren(final String name, final String leeren) {
+		final Verfahren verfahren = verfahren(name);
+		if ((leeren == null) || leeren.equals("buffer"))
+			return verfahren;
+		if (leeren.equals("sentence"))
+			return Verfahren.SATZWEISE;
+		pFehler.println("Unbekannter Wert für -flush: " + leeren);
+		throw new Abbruch(1);
+	}
+	
+	private Verfahren verfahren(final String name) {
+		if (name == null)
+			return Verfahren.SEQUENZIELL;
+		switch (name) {
+			case "sequential":
+				return Verfahren.SEQUENZIELL;
+			case "pipeline":
+				return new PipelineKonvertierung();
+			case "parallel":
+				return new ParalleleKonvertierung();
 			default:
-				System.err.println("Unbekanntes Eingabeformat: " + eingabeformat);
-				System.exit(1);
+				pFehler.println("Unbekanntes Verfahren: " + name);
+				throw new Abbruch(1);
+		}
+	}
+	
+	private void convert(final Path inpath, final Path outpath, final Format eingabeformat, final Format ausgabeformat, final Charset eingabeCharset, final Charset ausgabeCharset, final Verfahren verfahren, final int puffergroesse, final int pufferanzahl, final Statistik statistik) throws IOException, KonverterException {
+		if (statistik == null) {
+			final Ausgabe ausgabe = (outpath == null) ? ausgabeformat.ausgabe(pAusgabe, ausgabeCharset, puffergroesse, pufferanzahl) : ausgabeformat.ausgabe(outpath, ausgabeCharset, puffergroesse, pufferanzahl);
+			ausgabe.konvertierenNach((inpath == null) ? eingabeformat.eingabe(pEingabe, eingabeCharset, verfahren == Verfahren.SATZWEISE) : eingabeformat.eingabe(inpath, eingabeCharset, verfahren));
+			return;
+		}
+		// mit Statistik wird der Ausgabekanal hier geöffnet, um die Bytes zu
+		// zählen, mit denselben Optionen wie TextdateiAusgabe
+		final Eingabe eingabe = (inpath == null) ? statistik.eingabe(eingabeformat.eingabe(statistik.strom(pEingabe), eingabeCharset, verfahren == Verfahren.SATZWEISE)) : eingabeformat.eingabe(inpath, eingabeCharset, statistik.verfahren(verfahren));
+		if (outpath == null) {
+			ausgabeformat.ausgabe(statistik.kanal(pAusgabe), ausgabeCharset, puffergroesse, pufferanzahl).konvertierenNach(eingabe);
+			return;
+		}
+		try (final FileChannel kanal = FileChannel.open(outpath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ausgabeformat.ausgabe(statistik.kanal(kanal), ausgabeCharset, puffergroesse, pufferanzahl).konvertierenNach(eingabe);
+		}
+	}
+	
+	// null, wenn weder Fortschritt noch Statistik verlangt sind
+	private Statistik statistik(final Kommandozeile komm) {
+		final String format = komm.getStatistikformat();
+		if ((format != null) && !format.equals("text") && !format.equals("json")) {
+			pFehler.println("Unbekanntes Statistikformat: " + format);
+			throw new Abbruch(1);
+		}
+		if ((komm.getFortschritt() == null) && (komm.getStatistikdatei() == null))
+			return null;
+		return new Statistik();
+	}
+	
+	private Closeable fortschrittAnzeigen(final Kommandozeile komm, final Statistik statistik) {
+		if ((statistik == null) || (komm.getFortschritt() == null))
+			return () -> {
+			};
+		return statistik.fortschrittAnzeigen(pFehler, komm.getFortschritt() * 1000L);
+	}
+	
+	// auch nach Fehlern, mit dem bis dahin Gezählten
+	private void statistikAusgeben(final Kommandozeile komm, final Statistik statistik, final Closeable anzeige) {
+		if (statistik == null)
+			return;
+		try {
+			anzeige.close();
+			statistik.beenden();
+			if (komm.getStatistikdatei() == null)
+				return;
+			final String bericht = "json".equals(komm.getStatistikformat()) ? statistik.berichtJson() : statistik.bericht();
+			if (STANDARD.equals(komm.getStatistikdatei()))
+				pFehler.print(bericht);
+			else
+				Files.write(pfad(komm.getStatistikdatei()), bericht.getBytes(StandardCharsets.UTF_8));
+		} catch (final IOException | InvalidPathException e) {
+			pFehler.println("Fehler beim Schreiben der Statistik: " + e.getMessage());
+		}
+	}
+	
+	private static long groesse(final Path datei) {
+		try {
+			return Files.isRegularFile(datei) ? Files.size(datei) : -1;
+		} catch (final IOException e) {
+			return -1;
 		}
 	}
 	
@@ -110,4 +351,25 @@ public class KonverterMain {
 		return defaultCharset;
 	}
 	
+	private static int orDefault(final Integer zahl, final int standard) {
+		if (zahl != null)
+			return zahl;
+		return standard;
+	}
+	
+	// beendet den Aufruf mit einem Exit-Code ungleich 0, die Meldung ist
+	// bereits ausgegeben
+	private static class Abbruch extends RuntimeException {
+		
+		private static final long serialVersionUID = 1L;
+		
+		final int status;
+		
+		Abbruch(final int status) {
+			super(null, null, false, false);
+			this.status = status;
+		}
+	
+	}
+	
 }
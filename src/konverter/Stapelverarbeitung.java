@@ -0,0 +1,295 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import konverter.exception.KonverterException;
+
+// Konvertiert viele Dateien in einer JVM: Eingaben sind Dateien,
+// Verzeichnisse (rekursiv), Glob-Muster und Manifeste mit Paaren aus Eingabe-
+// und Ausgabedatei. Die Dateien werden auf einem Pool fester Größe
+// konvertiert, die größten zuerst, damit am Ende keine große Datei allein
+// läuft. Fehler einzelner Dateien brechen die übrigen nicht ab, sondern
+// werden gesammelt und am Ende ausgegeben.
+public class Stapelverarbeitung {
+	
+	private static final String GLOB_ZEICHEN = "*?[{";
+	
+	private static final class Auftrag {
+		
+		final Path eingabe;
+		final Path ausgabe;
+		final long groesse;
+		
+		Auftrag(final Path eingabe, final Path ausgabe) throws IOException {
+			this.eingabe = eingabe;
+			this.ausgabe = ausgabe;
+			groesse = Files.isRegularFile(eingabe) ? Files.size(eingabe) : 0;
+		}
+	
+	}
+	
+	private final List<Auftrag> pAuftraege;
+	// Fehler, die schon beim Zusammenstellen der Aufträge auftreten
+	private final List<String> pFehler;
+	// normalisierte Ausgabedatei -> Eingabedatei
+	private final HashMap<Path, Path> pAusgaben;
+	// ohne Punkt, zum Beispiel "tsv"
+	private final String pEndung;
+	
+	// endung ersetzt die Endung der Eingabedateien in den Namen der
+	// Ausgabedateien im Ausgabeverzeichnis (nicht bei Manifesten)
+	public Stapelverarbeitung(final String endung) {
+		pEndung = endung;
+		pAuftraege = new ArrayList<>();
+		pFehler = new ArrayList<>();
+		pAusgaben = new HashMap<>();
+	}
+	
+	// Datei, Verzeichnis oder Glob-Muster; die Ausgabedateien liegen unter
+	// demselben relativen Pfad im Ausgabeverzeichnis, mit der Endung des
+	// Ausgabeformats
+	public void eingabeHinzufuegen(final String eingabe, final Path ausgabeverzeichnis) throws IOException {
+		final int glob = globAnfang(eingabe);
+		if (glob >= 0) {
+			globHinzufuegen(eingabe, glob, ausgabeverzeichnis);
+			return;
+		}
+		final Path pfad;
+		try {
+			pfad = Paths.get(eingabe);
+		} catch (final InvalidPathException e) {
+			pFehler.add(eingabe + ": kein gültiger Pfad");
+			return;
+		}
+		if (Files.isDirectory(pfad)) {
+			for (final Path datei : dateienSuchen(pfad))
+				hinzufuegen(datei, ausgabedatei(ausgabeverzeichnis, pfad.relativize(datei)));
+		} else if (Files.exists(pfad)) {
+			hinzufuegen(pfad, ausgabedatei(ausgabeverzeichnis, pfad.getFileName()));
+		} else {
+			pFehler.add(eingabe + ": nicht gefunden");
+		}
+	}
+	
+	// eine Zeile pro Datei: Eingabedatei, Tabulator, Ausgabedatei; leere
+	// Zeilen und Zeilen, die mit # beginnen, werden übergangen
+	public void manifestLesen(final Path manifest) {
+		final List<String> zeilen;
+		try {
+			zeilen = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+		} catch (final IOException e) {
+			pFehler.add(manifest + ": " + e);
+			return;
+		}
+		int zeilennummer = 0;
+		for (final String zeile : zeilen) {
+			zeilennummer++;
+			if (zeile.isEmpty() || zeile.startsWith("#"))
+				continue;
+			final int tab = zeile.indexOf('\t');
+			if ((tab <= 0) || (tab == zeile.length() - 1) || (zeile.indexOf('\t', tab + 1) >= 0)) {
+				pFehler.add(manifest + ", Zeile " + zeilennummer + ": erwartet Eingabedatei<TAB>Ausgabedatei");
+				continue;
+			}
+			try {
+				hinzufuegen(Paths.get(zeile.substring(0, tab)), Paths.get(zeile.substring(tab + 1)));
+			} catch (final InvalidPathException e) {
+				pFehler.add(manifest + ", Zeile " + zeilennummer + ": kein gültiger Pfad: " + e.getInput());
+			}
+		}
+	}
+	
+	public int getAnzahl() {
+		return pAuftraege.size();
+	}
+	
+	// Summe der Größen aller Eingabedateien
+	public long getGesamtgroesse() {
+		long result = 0;
+		for (final Auftrag auftrag : pAuftraege)
+			result += auftrag.groesse;
+		return result;
+	}
+	
+	// liefert true, wenn alle Dateien fehlerfrei konvertiert wurden; die
+	// Zusammenfassung geht nach ausgabe, die Fehler nach fehler
+	public boolean ausfuehren(final int threads, final Dateikonvertierung konvertierung, final PrintStream ausgabe, final PrintStream fehler) throws InterruptedException {
+		final List<Auftrag> auftraege = new ArrayList<>(pAuftraege);
+		auftraege.sort(Comparator.comparingLong((final Auftrag a) -> a.groesse).reversed());
+		
+		final ExecutorService pool = Executors.newFixedThreadPool(threads);
+		final List<Future<String>> ergebnisse = new ArrayList<>(auftraege.size());
+		try {
+			for (final Auftrag auftrag : auftraege)
+				ergebnisse.add(pool.submit(() -> konvertieren(auftrag, konvertierung)));
+			
+			final List<String> meldungen = new ArrayList<>(pFehler);
+			int konvertiert = 0;
+			for (int i = 0; i < auftraege.size(); i++) {
+				String meldung;
+				try {
+					meldung = ergebnisse.get(i).get();
+				} catch (final ExecutionException e) {
+					meldung = e.getCause().toString();
+				}
+				if (meldung == null)
+					konvertiert++;
+				else
+					meldungen.add(auftraege.get(i).eingabe + ": " + meldung);
+			}
+			
+			ausgabe.println(konvertiert + " von " + auftraege.size() + " Dateien konvertiert.");
+			if (meldungen.isEmpty())
+				return true;
+			fehler.println(meldungen.size() + " Fehler:");
+			for (final String meldung : meldungen)
+				fehler.println("  " + meldung);
+			return false;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	// liefert die Fehlermeldung oder null
+	private static String konvertieren(final Auftrag auftrag, final Dateikonvertierung konvertierung) {
+		try {
+			final Path verzeichnis = auftrag.ausgabe.toAbsolutePath().getParent();
+			if (verzeichnis != null)
+				Files.createDirectories(verzeichnis);
+			konvertierung.konvertieren(auftrag.eingabe, auftrag.ausgabe);
+			return null;
+		} catch (final KonverterException e) {
+			return KonverterMain.fehlermeldung(e);
+		} catch (final Exception e) {
+			return e.toString();
+		}
+	}
+	
+	// dasselbe Paar aus Eingabe- und Ausgabedatei, etwa über ein Verzeichnis
+	// und ein Glob-Muster darin, wird nur einmal konvertiert
+	private void hinzufuegen(final Path eingabe, final Path ausgabe) {
+		final Path normalisiert = ausgabe.toAbsolutePath().normalize();
+		if (normalisiert.equals(eingabe.toAbsolutePath().normalize())) {
+			pFehler.add(eingabe + ": Ausgabedatei ist die Eingabedatei");
+			return;
+		}
+		final Path vorhanden = pAusgaben.putIfAbsent(normalisiert, eingabe);
+		if (vorhanden != null) {
+			if (!vorhanden.toAbsolutePath().normalize().equals(eingabe.toAbsolutePath().normalize()))
+				pFehler.add(eingabe + ": Ausgabedatei " + ausgabe + " wird schon für " + vorhanden + " geschrieben");
+			return;
+		}
+		try {
+			pAuftraege.add(new Auftrag(eingabe, ausgabe));
+		} catch (final IOException e) {
+			pFehler.add(eingabe + ": " + e);
+		}
+	}
+	
+	// das Muster gilt für die Pfade relativ zum Verzeichnis vor der ersten
+	// Komponente mit Glob-Zeichen
+	private void globHinzufuegen(final String eingabe, final int glob, final Path ausgabeverzeichnis) throws IOException {
+		final int trenner = Math.max(eingabe.lastIndexOf('/', glob), eingabe.lastIndexOf(File.separatorChar, glob));
+		final Path basis = Paths.get((trenner < 0) ? "" : eingabe.substring(0, trenner + 1));
+		final PathMatcher muster = FileSystems.getDefault().getPathMatcher("glob:" + eingabe.substring(trenner + 1));
+		if (!Files.isDirectory(basis)) {
+			pFehler.add(eingabe + ": nicht gefunden");
+			return;
+		}
+		final List<Path> dateien = new ArrayList<>();
+		for (final Path datei : dateienSuchen(basis))
+			if (muster.matches(basis.relativize(datei)))
+				dateien.add(datei);
+		if (dateien.isEmpty())
+			pFehler.add(eingabe + ": keine passenden Dateien");
+		for (final Path datei : dateien)
+			hinzufuegen(datei, ausgabedatei(ausgabeverzeichnis, basis.relativize(datei)));
+	}
+	
+	// alle Dateien unter verzeichnis (wie Files.walk mit Files::isRegularFile);
+	// nicht lesbare Verzeichnisse und Dateien, die während des Durchlaufens
+	// verschwinden, kommen in pFehler, statt die übrigen aufzuhalten
+	private List<Path> dateienSuchen(final Path verzeichnis) throws IOException {
+		final List<Path> result = new ArrayList<>();
+		Files.walkFileTree(verzeichnis, new SimpleFileVisitor<Path>() {
+			
+			@Override
+			public FileVisitResult visitFile(final Path datei, final BasicFileAttributes attribute) {
+				if (Files.isRegularFile(datei))
+					result.add(datei);
+				return FileVisitResult.CONTINUE;
+			}
+			
+			@Override
+			public FileVisitResult visitFileFailed(final Path datei, final IOException e) {
+				durchlauffehler(datei, e);
+				return FileVisitResult.CONTINUE;
+			}
+			
+			@Override
+			public FileVisitResult postVisitDirectory(final Path unterverzeichnis, final IOException e) {
+				if (e != null)
+					durchlauffehler(unterverzeichnis, e);
+				return FileVisitResult.CONTINUE;
+			}
+		
+		});
+		return result;
+	}
+	
+	// einmal, auch wenn sich Eingaben überschneiden
+	private void durchlauffehler(final Path pfad, final IOException e) {
+		final String meldung = pfad + ": " + e;
+		if (!pFehler.contains(meldung))
+			pFehler.add(meldung);
+	}
+	
+	// a/b.conllx -> ausgabeverzeichnis/a/b.tsv; ohne Endung wird sie angehängt
+	private Path ausgabedatei(final Path ausgabeverzeichnis, final Path relativ) {
+		final String pfad = relativ.toString();
+		final String name = relativ.getFileName().toString();
+		final int punkt = name.lastIndexOf('.');
+		final String ohneEndung = (punkt > 0) ? pfad.substring(0, pfad.length() - name.length() + punkt) : pfad;
+		return ausgabeverzeichnis.resolve(ohneEndung + "." + pEndung);
+	}
+	
+	private static int globAnfang(final String eingabe) {
+		for (int i = 0; i < eingabe.length(); i++)
+			if (GLOB_ZEICHEN.indexOf(eingabe.charAt(i)) >= 0)
+				return i;
+		return -1;
+	}
+	
+	@FunctionalInterface
+	public static interface Dateikonvertierung {
+		
+		void konvertieren(Path eingabe, Path ausgabe) throws IOException, KonverterException;
+	
+	}
+	
+}
@@ -0,0 +1,90 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import konverter.formate.Format;
+
+// Trainingslauf für ein CDS-Archiv (Class Data Sharing, ab Java 13), das die
+// beim Start geladenen Klassen vorbereitet bereithält: konvertiert ein kurzes
+// Beispiel über KonverterMain von jedem Format in jedes, mit allen
+// Verfahren, zwischen Dateien sowie über Standardein- und -ausgabe, damit
+// alle dabei geladenen Klassen ins Archiv kommen.
+// Aufruf: java -XX:ArchiveClassesAtExit=Archiv -cp konverter.jar konverter.Trainingslauf
+public class Trainingslauf {
+	
+	// ein Satz mit Tags aller Wortart-Gruppen
+	public static final String BEISPIEL = "Das\tART.Def.Nom.Sg.Neut\nHaus\tN.Reg.Nom.Sg.Neut\nist\tVFIN.Aux.3.Sg.Pres.Ind\nschön\tADJD.Pos\n,\tSYM.Pun.Comma\nsagt\tVFIN.Full.3.Sg.Pres.Ind\ner\tPRO.Pers.Subst.3.Nom.Sg.Masc\n.\tSYM.Pun.Sent\n\n";
+	
+	private static final String[] VERFAHREN = { "sequential", "pipeline", "parallel" };
+	
+	public static void main(final String[] args) throws IOException {
+		final Path verzeichnis = Files.createTempDirectory("konverter");
+		try {
+			final Path beispiel = verzeichnis.resolve("quelle.rftagger");
+			Files.write(beispiel, BEISPIEL.getBytes(StandardCharsets.UTF_8));
+			// Standardausgabe der Aufrufe mit Dateien
+			final Path leer = verzeichnis.resolve("leer");
+			for (final Format format : Format.values())
+				konvertieren(beispiel, leer, "-input-format", "rftagger", "-output-format", format.getName(), beispiel.toString(), datei(verzeichnis, "beispiel", format).toString());
+			
+			for (final Format von : Format.values()) {
+				final Path eingabe = datei(verzeichnis, "beispiel", von);
+				for (final Format nach : Format.values()) {
+					final Path ausgabe = datei(verzeichnis, "ausgabe", nach);
+					for (final String verfahren : VERFAHREN)
+						konvertieren(eingabe, leer, "-input-format", von.getName(), "-output-format", nach.getName(), "-engine", verfahren, eingabe.toString(), ausgabe.toString());
+					konvertieren(eingabe, ausgabe, "-input-format", von.getName(), "-output-format", nach.getName(), "-", "-");
+					konvertieren(eingabe, ausgabe, "-input-format", von.getName(), "-output-format", nach.getName(), "-flush", "sentence", "-", "-");
+				}
+			}
+		} finally {
+			loeschen(verzeichnis);
+		}
+	}
+	
+	private static Path datei(final Path verzeichnis, final String name, final Format format) {
+		return verzeichnis.resolve(name + "." + format.getName());
+	}
+	
+	// standardeingabe und standardausgabe wie bei System.in und
+	// FileDescriptor.out als FileInputStream und FileChannel
+	private static void konvertieren(final Path standardeingabe, final Path standardausgabe, final String... args) throws IOException {
+		final ByteArrayOutputStream meldungen = new ByteArrayOutputStream();
+		final PrintStream text = new PrintStream(meldungen, true, "UTF-8");
+		final int status;
+		try (final InputStream ein = new FileInputStream(standardeingabe.toFile());
+				final FileChannel aus = new FileOutputStream(standardausgabe.toFile()).getChannel()) {
+			status = new KonverterMain(null, ein, aus, text, text, true).ausfuehren(args);
+		}
+		if ((status != 0) || (meldungen.size() > 0))
+			throw new IOException("Trainingslauf fehlgeschlagen: " + String.join(" ", args) + "\n" + new String(meldungen.toByteArray(), StandardCharsets.UTF_8));
+	}
+	
+	private static void loeschen(final Path verzeichnis) throws IOException {
+		final List<Path> dateien;
+		try (final Stream<Path> baum = Files.walk(verzeichnis)) {
+			dateien = baum.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+		}
+		for (final Path datei : dateien)
+			Files.delete(datei);
+	}
+	
+}
@@ -5,21 +5,95 @@
  */
 package konverter.daten;
 
-import java.math.BigInteger;
-
 public class Item {
 	
 	public Itemtyp typ;
-	public BigInteger index;
+	public long index;
 	public String form;
 	public String lemma;
-	public POS pos;
-	public Steigerungsstufe grad;
-	public Kasus kasus;
-	public Numerus numerus;
-	public Genus genus;
-	public Person person;
-	public Tempus tempus;
-	public Modus modus;
+	// Wortart und Morphologie, siehe Tagcode
+	public int tagcode;
+	
+	public POS getPos() {
+		return Tagcode.pos(tagcode);
+	}
+	
+	public void setPos(final POS pos) {
+		tagcode = Tagcode.setzen(tagcode, pos);
+	}
+	
+	public Steigerungsstufe getGrad() {
+		return Tagcode.grad(tagcode);
+	}
+	
+	public void setGrad(final Steigerungsstufe grad) {
+		tagcode = Tagcode.setzen(tagcode, grad);
+	}
+	
+	public Kasus getKasus() {
+		return Tagcode.kasus(tagcode);
+	}
+	
+	public void setKasus(final Kasus kasus) {
+		tagcode = Tagcode.setzen(tagcode, kasus);
+	}
+	
+	public Numerus getNumerus() {
+		return Tagcode.numerus(tagcode);
+	}
+	
+	public void setNumerus(final Numerus numerus) {
+		tagcode = Tagcode.setzen(tagcode, numerus);
+	}
+	
+	public Genus getGenus() {
+		return Tagcode.genus(tagcode);
+	}
+	
+	public void setGenus(final Genus genus) {
+		tagcode = Tagcode.setzen(tagcode, genus);
+	}
+	
+	public Person getPerson() {
+		return Tagcode.person(tagcode);
+	}
+	
+	public void setPerson(final Person person) {
+		tagcode = Tagcode.setzen(tagcode, person);
+	}
+	
+	public Tempus getTempus() {
+		return Tagcode.tempus(tagcode);
+	}
+	
+	public void setTempus(final Tempus tempus) {
+		tagcode = Tagcode.setzen(tagcode, tempus);
+	}
+	
+	public Modus getModus() {
+		return Tagcode.modus(tagcode);
+	}
+	
+	public void setModus(final Modus modus) {
+		tagcode = Tagcode.setzen(tagcode, modus);
+	}
+	
+	public void leeren() {
+		typ = null;
+		index = 0;
+		form = null;
+		lemma = null;
+		tagcode = 0;
+	}
+	
+	public Item kopie() {
+		final Item result = new Item();
+		result.typ = typ;
+		result.index = index;
+		result.form = form;
+		result.lemma = lemma;
+		result.tagcode = tagcode;
+		return result;
+	}
 	
 }
@@ -0,0 +1,14 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.daten;
+
+// die Felder eines Tokens, siehe Senke.felder und Quelle.felderFestlegen
+public enum Itemfeld {
+	INDEX,
+	FORM,
+	LEMMA,
+	TAG
+}
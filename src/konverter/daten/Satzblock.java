@@ -0,0 +1,192 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.daten;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+// Spaltenweise Ablage vieler Sätze: Formen und Lemmata liegen als Bereiche in
+// einem gemeinsamen char-Puffer, Tags als Tagcode. satzenden[s] ist die Anzahl
+// der Tokens bis einschließlich Satz s; jeder dieser Sätze ist durch eine
+// Leerzeile abgeschlossen. Tokens nach dem letzten Satzende gehören zu einem
+// Satz, dessen Leerzeile (noch) nicht gelesen wurde.
+// Die Felder dürfen nur gelesen werden; beim Vergrößern werden die Arrays
+// ersetzt.
+public class Satzblock {
+	
+	// Zeilen (Tokens und Leerzeilen), ab denen der Block als voll gilt
+	public static final int STANDARDKAPAZITAET = 1024;
+	
+	private static final int ZEICHEN_PRO_TOKEN = 16;
+	
+	private final int pKapazitaet;
+	
+	public char[] zeichen;
+	public int zeichenanzahl;
+	
+	public int[] formAnfang;
+	public int[] formEnde;
+	// -1, wenn das Token kein Lemma hat
+	public int[] lemmaAnfang;
+	public int[] lemmaEnde;
+	public int[] tagcodes;
+	public long[] indizes;
+	public int tokenanzahl;
+	
+	public int[] satzenden;
+	public int satzanzahl;
+	
+	public boolean ende;
+	
+	private CharBuffer pZeichenfolge;
+	
+	public Satzblock() {
+		this(STANDARDKAPAZITAET);
+	}
+	
+	public Satzblock(final int kapazitaet) {
+		if (kapazitaet < 1)
+			throw new IllegalArgumentException();
+		pKapazitaet = kapazitaet;
+		zeichen = new char[kapazitaet * ZEICHEN_PRO_TOKEN];
+		formAnfang = new int[kapazitaet];
+		formEnde = new int[kapazitaet];
+		lemmaAnfang = new int[kapazitaet];
+		lemmaEnde = new int[kapazitaet];
+		tagcodes = new int[kapazitaet];
+		indizes = new long[kapazitaet];
+		satzenden = new int[kapazitaet];
+	}
+	
+	public boolean voll() {
+		return tokenanzahl + satzanzahl >= pKapazitaet;
+	}
+	
+	public void leeren() {
+		zeichenanzahl = 0;
+		tokenanzahl = 0;
+		satzanzahl = 0;
+		ende = false;
+	}
+	
+	// hängt die Zeichen an den Puffer an und liefert die Anfangsposition;
+	// das Ende ist die Anfangsposition plus (bis - von)
+	public int zeichenAnhaengen(final CharSequence text, final int von, final int bis) {
+		final int anfang = zeichenanzahl;
+		final int laenge = bis - von;
+		zeichenReservieren(laenge);
+		if (text instanceof String)
+			((String) text).getChars(von, bis, zeichen, anfang);
+		else
+			for (int i = 0; i < laenge; i++)
+				zeichen[anfang + i] = text.charAt(von + i);
+		zeichenanzahl += laenge;
+		return anfang;
+	}
+	
+	// Form und Lemma müssen vorher mit zeichenAnhaengen abgelegt worden sein
+	public void tokenHinzufuegen(final long index, final int formVon, final int formBis, final int lemmaVon, final int lemmaBis, final int tagcode) {
+		if (tokenanzahl == tagcodes.length)
+			tokensVergroessern();
+		final int i = tokenanzahl;
+		indizes[i] = index;
+		formAnfang[i] = formVon;
+		formEnde[i] = formBis;
+		lemmaAnfang[i] = lemmaVon;
+		lemmaEnde[i] = lemmaBis;
+		tagcodes[i] = tagcode;
+		tokenanzahl++;
+	}
+	
+	public void tokenHinzufuegen(final long index, final String form, final String lemma, final int tagcode) {
+		final int formVon = zeichenAnhaengen(form, 0, form.length());
+		final int formBis = zeichenanzahl;
+		if (lemma == null) {
+			tokenHinzufuegen(index, formVon, formBis, -1, -1, tagcode);
+		} else {
+			final int lemmaVon = zeichenAnhaengen(lemma, 0, lemma.length());
+			tokenHinzufuegen(index, formVon, formBis, lemmaVon, zeichenanzahl, tagcode);
+		}
+	}
+	
+	// entspricht einer Leerzeile
+	public void satzBeenden() {
+		if (satzanzahl == satzenden.length)
+			satzenden = Arrays.copyOf(satzenden, satzenden.length * 2);
+		satzenden[satzanzahl++] = tokenanzahl;
+	}
+	
+	// übernimmt Tokens und Leerzeilen, andere Items werden ignoriert
+	public void hinzufuegen(final Item item) {
+		switch (item.typ) {
+			case TOKEN:
+				tokenHinzufuegen(item.index, item.form, item.lemma, item.tagcode);
+				break;
+			case LEERZEILE:
+				satzBeenden();
+				break;
+			default:
+				break;
+		}
+	}
+	
+	public int satzanfang(final int satz) {
+		return (satz == 0) ? 0 : satzenden[satz - 1];
+	}
+	
+	// für satz == satzanzahl das Ende der Tokens ohne abschließende Leerzeile
+	public int satzende(final int satz) {
+		return (satz == satzanzahl) ? tokenanzahl : satzenden[satz];
+	}
+	
+	public boolean hatLemma(final int token) {
+		return lemmaAnfang[token] >= 0;
+	}
+	
+	// für Appendable.append(CharSequence, int, int) mit den Bereichen der Tokens
+	public CharSequence zeichenfolge() {
+		if (pZeichenfolge == null)
+			pZeichenfolge = CharBuffer.wrap(zeichen);
+		return pZeichenfolge;
+	}
+	
+	public String form(final int token) {
+		return new String(zeichen, formAnfang[token], formEnde[token] - formAnfang[token]);
+	}
+	
+	public String lemma(final int token) {
+		if (!hatLemma(token))
+			return null;
+		return new String(zeichen, lemmaAnfang[token], lemmaEnde[token] - lemmaAnfang[token]);
+	}
+	
+	public Item item(final int token, final Item ziel) {
+		ziel.typ = Itemtyp.TOKEN;
+		ziel.index = indizes[token];
+		ziel.form = form(token);
+		ziel.lemma = lemma(token);
+		ziel.tagcode = tagcodes[token];
+		return ziel;
+	}
+	
+	private void zeichenReservieren(final int laenge) {
+		if (zeichenanzahl + laenge <= zeichen.length)
+			return;
+		zeichen = Arrays.copyOf(zeichen, Math.max(zeichen.length * 2, zeichenanzahl + laenge));
+		pZeichenfolge = null;
+	}
+	
+	private void tokensVergroessern() {
+		final int groesse = tagcodes.length * 2;
+		formAnfang = Arrays.copyOf(formAnfang, groesse);
+		formEnde = Arrays.copyOf(formEnde, groesse);
+		lemmaAnfang = Arrays.copyOf(lemmaAnfang, groesse);
+		lemmaEnde = Arrays.copyOf(lemmaEnde, groesse);
+		tagcodes = Arrays.copyOf(tagcodes, groesse);
+		indizes = Arrays.copyOf(indizes, groesse);
+	}
+	
+}
@@ -0,0 +1,178 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.daten;
+
+// Packt Wortart und Morphologie eines Tokens in einen int. Jedes Merkmal
+// belegt so viele Bits, wie für seine Konstanten nötig sind; gespeichert wird
+// jeweils die Ordinalzahl plus eins, 0 steht für ein nicht vorhandenes Merkmal.
+// Alle Codes sind kleiner als ANZAHL, sie eignen sich daher auch als Index
+// für Tabellen.
+public final class Tagcode {
+	
+	private static final POS[] POS_WERTE = POS.values();
+	private static final Steigerungsstufe[] GRAD_WERTE = Steigerungsstufe.values();
+	private static final Kasus[] KASUS_WERTE = Kasus.values();
+	private static final Numerus[] NUMERUS_WERTE = Numerus.values();
+	private static final Genus[] GENUS_WERTE = Genus.values();
+	private static final Person[] PERSON_WERTE = Person.values();
+	private static final Tempus[] TEMPUS_WERTE = Tempus.values();
+	private static final Modus[] MODUS_WERTE = Modus.values();
+	
+	private static final int POS_SHIFT = 0;
+	private static final int GRAD_SHIFT = POS_SHIFT + bits(POS_WERTE);
+	private static final int KASUS_SHIFT = GRAD_SHIFT + bits(GRAD_WERTE);
+	private static final int NUMERUS_SHIFT = KASUS_SHIFT + bits(KASUS_WERTE);
+	private static final int GENUS_SHIFT = NUMERUS_SHIFT + bits(NUMERUS_WERTE);
+	private static final int PERSON_SHIFT = GENUS_SHIFT + bits(GENUS_WERTE);
+	private static final int TEMPUS_SHIFT = PERSON_SHIFT + bits(PERSON_WERTE);
+	private static final int MODUS_SHIFT = TEMPUS_SHIFT + bits(TEMPUS_WERTE);
+	
+	public static final int BITS = MODUS_SHIFT + bits(MODUS_WERTE);
+	public static final int ANZAHL = 1 << BITS;
+	
+	private static final int POS_MASKE = maske(POS_SHIFT, GRAD_SHIFT);
+	private static final int GRAD_MASKE = maske(GRAD_SHIFT, KASUS_SHIFT);
+	private static final int KASUS_MASKE = maske(KASUS_SHIFT, NUMERUS_SHIFT);
+	private static final int NUMERUS_MASKE = maske(NUMERUS_SHIFT, GENUS_SHIFT);
+	private static final int GENUS_MASKE = maske(GENUS_SHIFT, PERSON_SHIFT);
+	private static final int PERSON_MASKE = maske(PERSON_SHIFT, TEMPUS_SHIFT);
+	private static final int TEMPUS_MASKE = maske(TEMPUS_SHIFT, MODUS_SHIFT);
+	private static final int MODUS_MASKE = maske(MODUS_SHIFT, BITS);
+	private static final int[] MASKEN = { POS_MASKE, GRAD_MASKE, KASUS_MASKE, NUMERUS_MASKE, GENUS_MASKE, PERSON_MASKE, TEMPUS_MASKE, MODUS_MASKE };
+	
+	private Tagcode() {}
+	
+	private static int bits(final Enum<?>[] werte) {
+		return 32 - Integer.numberOfLeadingZeros(werte.length);
+	}
+	
+	private static int maske(final int vonShift, final int bisShift) {
+		return ((1 << (bisShift - vonShift)) - 1) << vonShift;
+	}
+	
+	private static int feld(final Enum<?> wert, final int shift) {
+		return (wert == null) ? 0 : ((wert.ordinal() + 1) << shift);
+	}
+	
+	private static <T> T wert(final int code, final int maske, final int shift, final T[] werte) {
+		final int feld = (code & maske) >>> shift;
+		return (feld == 0) ? null : werte[feld - 1];
+	}
+	
+	public static int kodieren(final POS pos, final Steigerungsstufe grad, final Kasus kasus, final Numerus numerus, final Genus genus, final Person person, final Tempus tempus, final Modus modus) {
+		return kodieren(pos) | kodieren(grad) | kodieren(kasus) | kodieren(numerus) | kodieren(genus) | kodieren(person) | kodieren(tempus) | kodieren(modus);
+	}
+	
+	public static int kodieren(final POS pos) {
+		return feld(pos, POS_SHIFT);
+	}
+	
+	public static int kodieren(final Steigerungsstufe grad) {
+		return feld(grad, GRAD_SHIFT);
+	}
+	
+	public static int kodieren(final Kasus kasus) {
+		return feld(kasus, KASUS_SHIFT);
+	}
+	
+	public static int kodieren(final Numerus numerus) {
+		return feld(numerus, NUMERUS_SHIFT);
+	}
+	
+	public static int kodieren(final Genus genus) {
+		return feld(genus, GENUS_SHIFT);
+	}
+	
+	public static int kodieren(final Person person) {
+		return feld(person, PERSON_SHIFT);
+	}
+	
+	public static int kodieren(final Tempus tempus) {
+		return feld(tempus, TEMPUS_SHIFT);
+	}
+	
+	public static int kodieren(final Modus modus) {
+		return feld(modus, MODUS_SHIFT);
+	}
+	
+	public static int setzen(final int code, final POS pos) {
+		return (code & ~POS_MASKE) | kodieren(pos);
+	}
+	
+	public static int setzen(final int code, final Steigerungsstufe grad) {
+		return (code & ~GRAD_MASKE) | kodieren(grad);
+	}
+	
+	public static int setzen(final int code, final Kasus kasus) {
+		return (code & ~KASUS_MASKE) | kodieren(kasus);
+	}
+	
+	public static int setzen(final int code, final Numerus numerus) {
+		return (code & ~NUMERUS_MASKE) | kodieren(numerus);
+	}
+	
+	public static int setzen(final int code, final Genus genus) {
+		return (code & ~GENUS_MASKE) | kodieren(genus);
+	}
+	
+	public static int setzen(final int code, final Person person) {
+		return (code & ~PERSON_MASKE) | kodieren(person);
+	}
+	
+	public static int setzen(final int code, final Tempus tempus) {
+		return (code & ~TEMPUS_MASKE) | kodieren(tempus);
+	}
+	
+	public static int setzen(final int code, final Modus modus) {
+		return (code & ~MODUS_MASKE) | kodieren(modus);
+	}
+	
+	// ersetzt das Merkmal, zu dem feld gehört; feld ist das Ergebnis eines
+	// der kodieren-Aufrufe für ein einzelnes Merkmal
+	public static int setzen(final int code, final int feld) {
+		return (code & ~feldmaske(feld)) | feld;
+	}
+	
+	private static int feldmaske(final int feld) {
+		for (final int maske : MASKEN)
+			if ((feld & maske) != 0)
+				return maske;
+		return 0;
+	}
+	
+	public static POS pos(final int code) {
+		return wert(code, POS_MASKE, POS_SHIFT, POS_WERTE);
+	}
+	
+	public static Steigerungsstufe grad(final int code) {
+		return wert(code, GRAD_MASKE, GRAD_SHIFT, GRAD_WERTE);
+	}
+	
+	public static Kasus kasus(final int code) {
+		return wert(code, KASUS_MASKE, KASUS_SHIFT, KASUS_WERTE);
+	}
+	
+	public static Numerus numerus(final int code) {
+		return wert(code, NUMERUS_MASKE, NUMERUS_SHIFT, NUMERUS_WERTE);
+	}
+	
+	public static Genus genus(final int code) {
+		return wert(code, GENUS_MASKE, GENUS_SHIFT, GENUS_WERTE);
+	}
+	
+	public static Person person(final int code) {
+		return wert(code, PERSON_MASKE, PERSON_SHIFT, PERSON_WERTE);
+	}
+	
+	public static Tempus tempus(final int code) {
+		return wert(code, TEMPUS_MASKE, TEMPUS_SHIFT, TEMPUS_WERTE);
+	}
+	
+	public static Modus modus(final int code) {
+		return wert(code, MODUS_MASKE, MODUS_SHIFT, MODUS_WERTE);
+	}
+	
+}
@@ -0,0 +1,106 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.daten;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Merkt sich für jeden Tagcode die fertige Ausgabe eines Schreibers, so dass
+// ein Tag mit einem einzigen append geschrieben wird. Die Ausgabe wird beim
+// ersten Auftreten eines Tagcodes mit der Darstellung erzeugt; die Tabelle ist
+// ohne Sperren von mehreren Threads nutzbar. Wirft die Darstellung eine
+// Exception, wird nichts gespeichert und die bis dahin erzeugte Ausgabe wie
+// bisher geschrieben, bevor die Exception weitergereicht wird.
+public class Tagtabelle {
+	
+	public static final int STANDARDGROESSE = 4096;
+	
+	@FunctionalInterface
+	public static interface Darstellung {
+		
+		void schreiben(int tagcode, Appendable ziel) throws IOException;
+	
+	}
+	
+	private static final class Eintrag {
+		
+		final int code;
+		final String text;
+		
+		Eintrag(final int code, final String text) {
+			this.code = code;
+			this.text = text;
+		}
+	
+	}
+	
+	private final Darstellung pDarstellung;
+	
+	private final int pMaxEintraege;
+	// offene Adressierung, höchstens zu einem Viertel gefüllt
+	private final AtomicReferenceArray<Eintrag> pTabelle;
+	private final int pMaske;
+	private final AtomicInteger pAnzahl;
+	
+	public Tagtabelle(final Darstellung darstellung) {
+		this(darstellung, STANDARDGROESSE);
+	}
+	
+	public Tagtabelle(final Darstellung darstellung, final int maxEintraege) {
+		if (maxEintraege < 1)
+			throw new IllegalArgumentException();
+		pDarstellung = darstellung;
+		pMaxEintraege = maxEintraege;
+		final int groesse = Integer.highestOneBit(maxEintraege) << 2;
+		pTabelle = new AtomicReferenceArray<>(groesse);
+		pMaske = groesse - 1;
+		pAnzahl = new AtomicInteger();
+	}
+	
+	public void schreiben(final int tagcode, final Appendable ziel) throws IOException {
+		ziel.append(text(tagcode, ziel));
+	}
+	
+	// ziel erhält nur im Fehlerfall die unvollständige Ausgabe
+	private String text(final int tagcode, final Appendable ziel) throws IOException {
+		int position = platz(tagcode);
+		Eintrag eintrag;
+		while ((eintrag = pTabelle.get(position)) != null) {
+			if (eintrag.code == tagcode)
+				return eintrag.text;
+			position = (position + 1) & pMaske;
+		}
+		
+		final StringBuilder text = new StringBuilder(32);
+		try {
+			pDarstellung.schreiben(tagcode, text);
+		} catch (final RuntimeException e) {
+			ziel.append(text);
+			throw e;
+		}
+		final String result = text.toString();
+		speichern(new Eintrag(tagcode, result), position);
+		return result;
+	}
+	
+	private void speichern(final Eintrag neu, int position) {
+		if (pAnzahl.get() >= pMaxEintraege)
+			return;
+		while (!pTabelle.compareAndSet(position, null, neu)) {
+			if (pTabelle.get(position).code == neu.code)
+				return;
+			position = (position + 1) & pMaske;
+		}
+		pAnzahl.incrementAndGet();
+	}
+	
+	private int platz(final int tagcode) {
+		final int h = tagcode * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & pMaske;
+	}
+	
+}
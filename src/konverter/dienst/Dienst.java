@@ -0,0 +1,299 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.dienst;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import konverter.KonverterMain;
+import konverter.Trainingslauf;
+import konverter.formate.Format;
+import konverter.konvertierung.Ausgabe;
+
+// Hält den Konverter in einer laufenden JVM bereit und führt Aufrufe von
+// Dienstclient über einen Unix-Domain-Socket aus. Ein Aufruf hat dieselben
+// Argumente wie die Kommandozeile (ohne Stapelbetrieb); Meldungen, Exit-Code
+// sowie Standardein- und -ausgabe werden zum Client übertragen, relative
+// Pfade gelten für dessen Arbeitsverzeichnis. Jede Verbindung bekommt einen
+// eigenen Thread. Der Socket ist nur für den Benutzer des Dienstes
+// zugänglich und wird beim Beenden gelöscht.
+// Aufruf: java konverter.dienst.Dienst Socketdatei
+public class Dienst {
+	
+	public static void main(final String[] args) {
+		if (args.length != 1) {
+			System.out.println("Aufruf: java konverter.dienst.Dienst Socketdatei");
+			System.exit(1);
+		}
+		final Path socket = Paths.get(args[0]);
+		final ServerSocketChannel server;
+		try {
+			server = binden(socket);
+		} catch (final IOException e) {
+			System.err.println("Dienst kann nicht gestartet werden: " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> loeschen(socket)));
+		
+		try {
+			vorwaermen();
+		} catch (final IOException e) {
+			e.printStackTrace();
+			System.exit(2);
+		}
+		
+		final ExecutorService pool = Executors.newCachedThreadPool(aufgabe -> {
+			final Thread thread = new Thread(aufgabe, "Dienst");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			while (true) {
+				final SocketChannel verbindung = server.accept();
+				pool.execute(() -> bearbeiten(verbindung));
+			}
+		} catch (final IOException e) {
+			e.printStackTrace();
+			System.exit(2);
+		}
+	}
+	
+	// eine vorhandene Socketdatei wird nur ersetzt, wenn dort kein Dienst läuft
+	private static ServerSocketChannel binden(final Path socket) throws IOException {
+		if (Files.isRegularFile(socket) || Files.isDirectory(socket))
+			throw new IOException(socket + " ist keine Socketdatei");
+		if (Files.exists(socket)) {
+			if (erreichbar(socket))
+				throw new IOException("Unter " + socket + " läuft bereits ein Dienst");
+			Files.delete(socket);
+		}
+		final Path verzeichnis;
+		try {
+			verzeichnis = Files.createTempDirectory(socket.toAbsolutePath().getParent(), ".konverter", PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+		} catch (final UnsupportedOperationException e) {
+			// kein POSIX-Dateisystem
+			return Unixsocket.binden(socket);
+		}
+		// der Socket entsteht mit den Rechten der umask, daher erst in einem
+		// nur dem Benutzer zugänglichen Verzeichnis binden und die Rechte
+		// setzen, dann an seinen Platz verschieben
+		final Path vorlaeufig = verzeichnis.resolve("s");
+		try {
+			final ServerSocketChannel server = Unixsocket.binden(vorlaeufig);
+			try {
+				Files.setPosixFilePermissions(vorlaeufig, PosixFilePermissions.fromString("rw-------"));
+				Files.move(vorlaeufig, socket, StandardCopyOption.ATOMIC_MOVE);
+			} catch (final IOException e) {
+				server.close();
+				throw e;
+			}
+			return server;
+		} finally {
+			Files.deleteIfExists(vorlaeufig);
+			Files.deleteIfExists(verzeichnis);
+		}
+	}
+	
+	private static boolean erreichbar(final Path socket) {
+		try {
+			Unixsocket.verbinden(socket).close();
+			return true;
+		} catch (final IOException e) {
+			return false;
+		}
+	}
+	
+	private static void loeschen(final Path socket) {
+		try {
+			Files.deleteIfExists(socket);
+		} catch (final IOException e) {
+			// beim Beenden nicht mehr zu ändern
+		}
+	}
+	
+	// konvertiert das Beispiel des Trainingslaufs von jedem Format in jedes
+	static void vorwaermen() throws IOException {
+		final Format[] formate = Format.values();
+		final String[] texte = new String[formate.length];
+		for (int nach = 0; nach < formate.length; nach++)
+			texte[nach] = konvertieren(Trainingslauf.BEISPIEL, Format.RFTAGGER, formate[nach]);
+		for (int von = 0; von < formate.length; von++)
+			for (final Format nach : formate)
+				konvertieren(texte[von], formate[von], nach);
+	}
+	
+	private static String konvertieren(final String text, final Format von, final Format nach) throws IOException {
+		final ByteArrayOutputStream ergebnis = new ByteArrayOutputStream();
+		final Ausgabe ausgabe = nach.ausgabe(Channels.newChannel(ergebnis), StandardCharsets.UTF_8, 1 << 12, 1);
+		ausgabe.konvertierenNach(von.eingabe(text(text), StandardCharsets.UTF_8, false));
+		return new String(ergebnis.toByteArray(), StandardCharsets.UTF_8);
+	}
+	
+	private static InputStream text(final String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private static void bearbeiten(final SocketChannel verbindung) {
+		try (final SocketChannel kanal = verbindung) {
+			final DataInputStream ein = new DataInputStream(new BufferedInputStream(Protokoll.eingabestrom(kanal)));
+			if (ein.readInt() != Protokoll.KENNUNG)
+				return;
+			final Path basis;
+			try {
+				basis = Paths.get(ein.readUTF());
+			} catch (final InvalidPathException e) {
+				return;
+			}
+			final int anzahl = ein.readInt();
+			if ((anzahl < 0) || (anzahl > Protokoll.MAX_ARGUMENTE))
+				return;
+			final String[] args = new String[anzahl];
+			for (int i = 0; i < anzahl; i++)
+				args[i] = ein.readUTF();
+			
+			final Antwort antwort = new Antwort(Protokoll.ausgabestrom(kanal));
+			final KonverterMain aufruf = new KonverterMain(basis, new Clienteingabe(ein, antwort), antwort, antwort.text(Protokoll.TEXT), antwort.text(Protokoll.FEHLER), false);
+			antwort.beenden(aufruf.ausfuehren(args));
+		} catch (final IOException e) {
+			// Verbindung abgebrochen, der Client ist nicht mehr erreichbar
+		}
+	}
+	
+	// schreibt Rahmen an den Client; die Standardausgabe des Konverters ist
+	// ein Kanal, den auch der Hintergrundthread der Kanalausgabe benutzt
+	private static final class Antwort implements WritableByteChannel {
+		
+		private final DataOutputStream pAus;
+		
+		Antwort(final OutputStream aus) {
+			pAus = new DataOutputStream(new BufferedOutputStream(aus));
+		}
+		
+		synchronized void rahmen(final byte typ, final byte[] b, final int off, final int len) throws IOException {
+			pAus.writeByte(typ);
+			if (typ != Protokoll.EINGABE) {
+				pAus.writeInt(len);
+				pAus.write(b, off, len);
+			}
+			pAus.flush();
+		}
+		
+		synchronized void beenden(final int status) throws IOException {
+			pAus.writeByte(Protokoll.ENDE);
+			pAus.writeInt(status);
+			pAus.flush();
+		}
+		
+		@Override
+		public int write(final ByteBuffer quelle) throws IOException {
+			final int laenge = quelle.remaining();
+			final byte[] b = new byte[laenge];
+			quelle.get(b);
+			rahmen(Protokoll.AUSGABE, b, 0, laenge);
+			return laenge;
+		}
+		
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+		
+		@Override
+		public void close() {
+		}
+		
+		PrintStream text(final byte typ) throws UnsupportedEncodingException {
+			return new PrintStream(new OutputStream() {
+				
+				@Override
+				public void write(final int b) throws IOException {
+					write(new byte[] { (byte) b }, 0, 1);
+				}
+				
+				@Override
+				public void write(final byte[] b, final int off, final int len) throws IOException {
+					rahmen(typ, b, off, len);
+				}
+			
+			}, true, "UTF-8");
+		}
+	
+	}
+	
+	// die Standardeingabe des Clients; sie wird erst beim ersten Lesen
+	// angefordert, damit der Client sie nur liest, wenn sie gebraucht wird
+	private static final class Clienteingabe extends InputStream {
+		
+		private final DataInputStream pEin;
+		private final Antwort pAntwort;
+		private boolean pAngefordert;
+		private boolean pEnde;
+		// restliche Bytes im aktuellen Block
+		private int pRest;
+		
+		Clienteingabe(final DataInputStream ein, final Antwort antwort) {
+			pEin = ein;
+			pAntwort = antwort;
+		}
+		
+		@Override
+		public int read() throws IOException {
+			final byte[] b = new byte[1];
+			return (read(b, 0, 1) < 0) ? -1 : (b[0] & 0xff);
+		}
+		
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			if (len == 0)
+				return 0;
+			if (!pAngefordert) {
+				pAntwort.rahmen(Protokoll.EINGABE, null, 0, 0);
+				pAngefordert = true;
+			}
+			if (pRest == 0) {
+				if (pEnde)
+					return -1;
+				pRest = pEin.readInt();
+				if (pRest <= 0) {
+					pRest = 0;
+					pEnde = true;
+					return -1;
+				}
+			}
+			final int gelesen = pEin.read(b, off, Math.min(len, pRest));
+			if (gelesen < 0)
+				throw new IOException("Verbindung zum Client unterbrochen");
+			pRest -= gelesen;
+			return gelesen;
+		}
+	
+	}
+	
+}
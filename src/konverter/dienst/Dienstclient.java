@@ -0,0 +1,119 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.dienst;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// Schlanker Client für Dienst: übergibt die Kommandozeilenargumente, leitet
+// bei Bedarf die Standardeingabe weiter, gibt Ausgabe und Meldungen des
+// Dienstes aus und endet mit dessen Exit-Code. Ist der Dienst nicht
+// erreichbar, endet der Client mit Exit-Code 2.
+// Aufruf: java konverter.dienst.Dienstclient Socketdatei [Argumente wie bei KonverterMain]
+public class Dienstclient {
+	
+	private static final int BLOCKGROESSE = 1 << 16;
+	
+	public static void main(final String[] args) {
+		if (args.length < 1) {
+			System.out.println("Aufruf: java konverter.dienst.Dienstclient Socketdatei [Option1 Wert1 ...] Eingabedatei Ausgabedatei");
+			System.exit(1);
+		}
+		final SocketChannel kanal;
+		try {
+			kanal = Unixsocket.verbinden(Paths.get(args[0]));
+		} catch (final IOException e) {
+			System.err.println("Keine Verbindung zum Dienst unter " + args[0] + ": " + e.getMessage());
+			System.exit(2);
+			return;
+		}
+		try {
+			System.exit(aufrufen(kanal, Arrays.copyOfRange(args, 1, args.length)));
+		} catch (final IOException e) {
+			System.err.println("Verbindung zum Dienst unterbrochen: " + e.getMessage());
+			System.exit(2);
+		}
+	}
+	
+	private static int aufrufen(final SocketChannel kanal, final String[] args) throws IOException {
+		final DataOutputStream aus = new DataOutputStream(new BufferedOutputStream(Protokoll.ausgabestrom(kanal)));
+		aus.writeInt(Protokoll.KENNUNG);
+		aus.writeUTF(Paths.get("").toAbsolutePath().toString());
+		aus.writeInt(args.length);
+		for (final String arg : args)
+			aus.writeUTF(arg);
+		aus.flush();
+		
+		final DataInputStream ein = new DataInputStream(new BufferedInputStream(Protokoll.eingabestrom(kanal)));
+		final OutputStream standardausgabe = new FileOutputStream(FileDescriptor.out);
+		byte[] puffer = new byte[BLOCKGROESSE];
+		try {
+			while (true) {
+				final byte typ = ein.readByte();
+				if (typ == Protokoll.ENDE)
+					return ein.readInt();
+				if (typ == Protokoll.EINGABE) {
+					final Thread weiterleitung = new Thread(() -> eingabeWeiterleiten(aus), "Standardeingabe");
+					weiterleitung.setDaemon(true);
+					weiterleitung.start();
+					continue;
+				}
+				final int laenge = ein.readInt();
+				if (laenge > puffer.length)
+					puffer = new byte[laenge];
+				ein.readFully(puffer, 0, laenge);
+				switch (typ) {
+					case Protokoll.AUSGABE:
+						standardausgabe.write(puffer, 0, laenge);
+						break;
+					case Protokoll.TEXT:
+						System.out.print(new String(puffer, 0, laenge, StandardCharsets.UTF_8));
+						System.out.flush();
+						break;
+					case Protokoll.FEHLER:
+						System.err.print(new String(puffer, 0, laenge, StandardCharsets.UTF_8));
+						System.err.flush();
+						break;
+					default:
+						throw new IOException("Unbekannter Rahmen: " + typ);
+				}
+			}
+		} catch (final EOFException e) {
+			throw new IOException("Dienst hat die Verbindung geschlossen", e);
+		}
+	}
+	
+	// in Blöcken, sobald Daten da sind, damit satzweise Eingabe sofort ankommt
+	private static void eingabeWeiterleiten(final DataOutputStream aus) {
+		final byte[] puffer = new byte[BLOCKGROESSE];
+		try {
+			int gelesen;
+			while ((gelesen = System.in.read(puffer)) >= 0) {
+				if (gelesen == 0)
+					continue;
+				aus.writeInt(gelesen);
+				aus.write(puffer, 0, gelesen);
+				aus.flush();
+			}
+			aus.writeInt(0);
+			aus.flush();
+		} catch (final IOException e) {
+			// der Dienst liest nicht mehr, sein Ergebnis kommt trotzdem an
+		}
+	}
+	
+}
@@ -0,0 +1,443 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.dienst;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import konverter.KonverterMain;
+import konverter.exception.KonverterException;
+import konverter.formate.Format;
+import konverter.konvertierung.Ausgabe;
+import konverter.konvertierung.Eingabe;
+import konverter.konvertierung.Senke;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+
+// HTTP-Schnittstelle auf dem HTTP-Server des JDK: POST /convert mit den
+// Parametern input-format, output-format und optional input-charset,
+// output-charset und flush (wie auf der Kommandozeile) in der Query. Der
+// Rumpf der Anfrage wird beim Lesen konvertiert und als Rumpf der Antwort
+// (chunked) geschrieben, ohne ihn ganz in den Speicher zu laden.
+// Jede Anfrage läuft ab Java 21 in einem virtuellen Thread, sonst in einem
+// eigenen Thread. Höchstens max-concurrent Anfragen werden gleichzeitig
+// konvertiert, höchstens queue weitere warten darauf; darüber hinaus und nach
+// Ablauf des Zeitlimits vor der ersten Ausgabe ist die Antwort 503. Läuft das
+// Zeitlimit oder ein Fehler erst nach Beginn der Ausgabe ab, wird die
+// Verbindung abgebrochen, sodass der Client keine unvollständige Antwort für
+// vollständig hält.
+// Aufruf: java konverter.dienst.HttpDienst [-host Adresse] [-max-concurrent Anzahl] [-queue Anzahl] [-timeout Sekunden] Port
+public class HttpDienst {
+	
+	private static final String PFAD = "/convert";
+	
+	// klein, weil viele Anfragen gleichzeitig laufen
+	private static final int PUFFERGROESSE = 1 << 14;
+	
+	private final Semaphore pZulassung;
+	private final AtomicInteger pWartende;
+	private final int pWarteschlange;
+	private final long pZeitlimit;
+	
+	public HttpDienst(final int gleichzeitig, final int warteschlange, final long zeitlimit, final TimeUnit einheit) {
+		// fair, damit wartende Anfragen in der Reihenfolge ihres Eintreffens drankommen
+		pZulassung = new Semaphore(gleichzeitig, true);
+		pWartende = new AtomicInteger();
+		pWarteschlange = warteschlange;
+		pZeitlimit = einheit.toNanos(zeitlimit);
+	}
+	
+	public static void main(final String[] args) {
+		String host = "127.0.0.1";
+		int gleichzeitig = 256;
+		int warteschlange = 4096;
+		int zeitlimit = 60;
+		int port = -1;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+					case "-host":
+						host = args[++i];
+						break;
+					case "-max-concurrent":
+						gleichzeitig = Integer.parseInt(args[++i]);
+						break;
+					case "-queue":
+						warteschlange = Integer.parseInt(args[++i]);
+						break;
+					case "-timeout":
+						zeitlimit = Integer.parseInt(args[++i]);
+						break;
+					default:
+						if (port >= 0)
+							throw new IllegalArgumentException(args[i]);
+						port = Integer.parseInt(args[i]);
+				}
+			}
+			if ((port < 0) || (port > 0xffff) || (gleichzeitig < 1) || (warteschlange < 0) || (zeitlimit < 1))
+				throw new IllegalArgumentException();
+		} catch (final IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			System.out.println("Aufruf: java konverter.dienst.HttpDienst [-host Adresse] [-max-concurrent Anzahl] [-queue Anzahl] [-timeout Sekunden] Port");
+			System.exit(1);
+			return;
+		}
+		
+		// der Server schließt Verbindungen, deren Anfrage oder Antwort länger
+		// dauert; das beendet auch blockierte Lese- und Schreibvorgänge, die
+		// die Frist in Anfragestrom und Antwortkanal nicht erreicht
+		if (System.getProperty("sun.net.httpserver.maxReqTime") == null)
+			System.setProperty("sun.net.httpserver.maxReqTime", Integer.toString(zeitlimit));
+		if (System.getProperty("sun.net.httpserver.maxRspTime") == null)
+			System.setProperty("sun.net.httpserver.maxRspTime", Integer.toString(zeitlimit));
+		
+		try {
+			Dienst.vorwaermen();
+			final HttpServer server = new HttpDienst(gleichzeitig, warteschlange, zeitlimit, TimeUnit.SECONDS).starten(new InetSocketAddress(host, port));
+			System.out.println("HTTP-Dienst unter http://" + host + ":" + server.getAddress().getPort() + PFAD);
+		} catch (final IOException e) {
+			System.err.println("Dienst kann nicht gestartet werden: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	public HttpServer starten(final InetSocketAddress adresse) throws IOException {
+		final HttpServer server = HttpServer.create(adresse, 0);
+		server.createContext(PFAD, this::bearbeiten);
+		server.setExecutor(executor());
+		server.start();
+		return server;
+	}
+	
+	// Executors.newVirtualThreadPerTaskExecutor gibt es erst ab Java 21 (davor
+	// nur als Vorschau, dann scheitert der Aufruf); die Begrenzung übernimmt
+	// in beiden Fällen pZulassung
+	private static Executor executor() {
+		try {
+			return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (final ReflectiveOperationException | RuntimeException e) {
+			return Executors.newCachedThreadPool(aufgabe -> {
+				final Thread thread = new Thread(aufgabe, "HttpDienst");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+	
+	private void bearbeiten(final HttpExchange exchange) throws IOException {
+		final long frist = System.nanoTime() + pZeitlimit;
+		if (!PFAD.equals(exchange.getRequestURI().getPath())) {
+			antworten(exchange, 404, "Unbekannter Pfad: " + exchange.getRequestURI().getPath());
+			return;
+		}
+		if (!"POST".equals(exchange.getRequestMethod())) {
+			exchange.getResponseHeaders().set("Allow", "POST");
+			antworten(exchange, 405, "Nur POST wird unterstützt.");
+			return;
+		}
+		
+		final Map<String, String> parameter;
+		try {
+			parameter = parameter(exchange.getRequestURI().getRawQuery());
+		} catch (final IllegalArgumentException e) {
+			antworten(exchange, 400, "Ungültige Query: " + e.getMessage());
+			return;
+		}
+		final String eingabeformat = parameter.remove("input-format");
+		final String ausgabeformat = parameter.remove("output-format");
+		final String leeren = parameter.remove("flush");
+		final Charset eingabeCharset;
+		final Charset ausgabeCharset;
+		try {
+			eingabeCharset = charset(parameter.remove("input-charset"));
+			ausgabeCharset = charset(parameter.remove("output-charset"));
+		} catch (final IllegalArgumentException e) {
+			antworten(exchange, 400, "Zeichenkodierung " + e.getMessage() + " wird nicht unterstützt.");
+			return;
+		}
+		if (!parameter.isEmpty()) {
+			antworten(exchange, 400, "Unbekannter Parameter: " + parameter.keySet().iterator().next());
+			return;
+		}
+		if ((eingabeformat == null) || (ausgabeformat == null)) {
+			antworten(exchange, 400, "input-format und output-format müssen angegeben werden.");
+			return;
+		}
+		if ((leeren != null) && !leeren.equals("buffer") && !leeren.equals("sentence")) {
+			antworten(exchange, 400, "Unbekannter Wert für flush: " + leeren);
+			return;
+		}
+		
+		final Format von = Format.suchen(eingabeformat);
+		final Format nach = Format.suchen(ausgabeformat);
+		if (von == null) {
+			antworten(exchange, 400, "Unbekanntes Eingabeformat: " + eingabeformat);
+			return;
+		}
+		if (nach == null) {
+			antworten(exchange, 400, "Unbekanntes Ausgabeformat: " + ausgabeformat);
+			return;
+		}
+		final Antwortkanal kanal = new Antwortkanal(exchange, "text/plain; charset=" + ausgabeCharset.name(), frist);
+		final Eingabe eingabe = new Antworteingabe(von.eingabe(new Anfragestrom(exchange.getRequestBody(), frist), eingabeCharset, "sentence".equals(leeren)), kanal);
+		// ein Puffer, geschrieben wird im bearbeitenden Thread
+		final Ausgabe ausgabe = nach.ausgabe(kanal, ausgabeCharset, PUFFERGROESSE, 1);
+		
+		if (!zulassen(frist)) {
+			exchange.getResponseHeaders().set("Retry-After", "1");
+			antworten(exchange, 503, "Zu viele Anfragen.");
+			return;
+		}
+		try {
+			ausgabe.konvertierenNach(eingabe);
+			kanal.beenden();
+			exchange.close();
+		} catch (final KonverterException e) {
+			abbrechen(kanal, e);
+			// die Kanalausgabe meldet auch ein beim Schreiben abgelaufenes
+			// Zeitlimit als Ausgabefehler
+			if (e.getCause() instanceof Zeitueberschreitung)
+				antworten(exchange, 503, "Zeitlimit überschritten.");
+			else
+				antworten(exchange, 422, KonverterMain.fehlermeldung(e));
+		} catch (final Zeitueberschreitung e) {
+			abbrechen(kanal, e);
+			antworten(exchange, 503, "Zeitlimit überschritten.");
+		} catch (final CharacterCodingException e) {
+			abbrechen(kanal, e);
+			antworten(exchange, 400, "Die Eingabe ist nicht in " + eingabeCharset.name() + " kodiert.");
+		} finally {
+			pZulassung.release();
+		}
+	}
+	
+	// wartet höchstens bis zur Frist; false, wenn die Warteschlange voll ist
+	// oder die Frist abläuft
+	private boolean zulassen(final long frist) {
+		try {
+			// tryAcquire() ohne Wartezeit würde sich an den Wartenden vorbeidrängeln
+			if (pZulassung.tryAcquire(0, TimeUnit.NANOSECONDS))
+				return true;
+			try {
+				if (pWartende.incrementAndGet() > pWarteschlange)
+					return false;
+				return pZulassung.tryAcquire(frist - System.nanoTime(), TimeUnit.NANOSECONDS);
+			} finally {
+				pWartende.decrementAndGet();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	// hat die Antwort schon begonnen, lässt sich kein Status mehr senden; die
+	// Ausnahme verlässt dann bearbeiten, ohne dass der Austausch geschlossen
+	// wird, und der Server bricht die Verbindung ab
+	private static void abbrechen(final Antwortkanal kanal, final Exception e) throws IOException {
+		if (kanal.gesendet())
+			throw (e instanceof IOException) ? (IOException) e : new IOException(e);
+	}
+	
+	private static void antworten(final HttpExchange exchange, final int status, final String meldung) throws IOException {
+		final byte[] text = (meldung + "\n").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+		exchange.sendResponseHeaders(status, text.length);
+		try (final OutputStream aus = exchange.getResponseBody()) {
+			aus.write(text);
+		}
+		exchange.close();
+	}
+	
+	private static Map<String, String> parameter(final String query) throws UnsupportedEncodingException {
+		final HashMap<String, String> result = new HashMap<>();
+		if (query == null)
+			return result;
+		for (final String paar : query.split("&")) {
+			if (paar.isEmpty())
+				continue;
+			final int gleich = paar.indexOf('=');
+			if (gleich < 0)
+				result.put(URLDecoder.decode(paar, "UTF-8"), "");
+			else
+				result.put(URLDecoder.decode(paar.substring(0, gleich), "UTF-8"), URLDecoder.decode(paar.substring(gleich + 1), "UTF-8"));
+		}
+		return result;
+	}
+	
+	private static Charset charset(final String name) {
+		if (name == null)
+			return StandardCharsets.UTF_8;
+		try {
+			return Charset.forName(name);
+		} catch (final IllegalArgumentException e) {
+			throw new IllegalArgumentException(name, e);
+		}
+	}
+	
+	private static void fristPruefen(final long frist) throws Zeitueberschreitung {
+		if (System.nanoTime() - frist > 0)
+			throw new Zeitueberschreitung();
+	}
+	
+	private static final class Zeitueberschreitung extends IOException {
+		
+		private static final long serialVersionUID = 1L;
+	
+	}
+	
+	private static final class Anfragestrom extends FilterInputStream {
+		
+		private final long pFrist;
+		
+		Anfragestrom(final InputStream strom, final long frist) {
+			super(strom);
+			pFrist = frist;
+		}
+		
+		@Override
+		public int read() throws IOException {
+			fristPruefen(pFrist);
+			return super.read();
+		}
+		
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			fristPruefen(pFrist);
+			return super.read(b, off, len);
+		}
+	
+	}
+	
+	// verwirft nach einem Fehler die noch nicht gesendete Ausgabe: sonst
+	// schreibt die Kanalausgabe sie beim Schließen, und die Antwort hätte
+	// schon mit Status 200 begonnen, bevor der Fehler gemeldet werden kann
+	private static final class Antworteingabe implements Eingabe {
+		
+		private final Eingabe pEingabe;
+		private final Antwortkanal pKanal;
+		
+		Antworteingabe(final Eingabe eingabe, final Antwortkanal kanal) {
+			pEingabe = eingabe;
+			pKanal = kanal;
+		}
+		
+		@Override
+		public void konvertierenVon(final Senke senke) throws IOException, KonverterException {
+			try {
+				pEingabe.konvertierenVon(senke);
+			} catch (final IOException | RuntimeException e) {
+				pKanal.verwerfen();
+				throw e;
+			}
+		}
+		
+		@Override
+		public void konvertierenVon(final Senkengenerator senkengenerator, final Appendable ziel) throws IOException, KonverterException {
+			try {
+				pEingabe.konvertierenVon(senkengenerator, ziel);
+			} catch (final IOException | RuntimeException e) {
+				pKanal.verwerfen();
+				throw e;
+			}
+		}
+	
+	}
+	
+	// sendet die Kopfzeilen erst mit der ersten Ausgabe, damit Fehler davor
+	// noch mit einem passenden Status beantwortet werden können
+	private static final class Antwortkanal implements WritableByteChannel {
+		
+		private final HttpExchange pExchange;
+		private final String pInhaltstyp;
+		private final long pFrist;
+		// null, solange die Kopfzeilen nicht gesendet sind
+		private OutputStream pAus;
+		private byte[] pPuffer;
+		private boolean pVerwerfen;
+		
+		Antwortkanal(final HttpExchange exchange, final String inhaltstyp, final long frist) {
+			pExchange = exchange;
+			pInhaltstyp = inhaltstyp;
+			pFrist = frist;
+		}
+		
+		boolean gesendet() {
+			return pAus != null;
+		}
+		
+		// alles weitere wird nicht mehr gesendet
+		void verwerfen() {
+			pVerwerfen = true;
+		}
+		
+		@Override
+		public int write(final ByteBuffer quelle) throws IOException {
+			if (pVerwerfen) {
+				final int laenge = quelle.remaining();
+				quelle.position(quelle.limit());
+				return laenge;
+			}
+			fristPruefen(pFrist);
+			if (pAus == null) {
+				pExchange.getResponseHeaders().set("Content-Type", pInhaltstyp);
+				// Länge 0: chunked
+				pExchange.sendResponseHeaders(200, 0);
+				pAus = pExchange.getResponseBody();
+			}
+			final int laenge = quelle.remaining();
+			if (quelle.hasArray()) {
+				pAus.write(quelle.array(), quelle.arrayOffset() + quelle.position(), laenge);
+				quelle.position(quelle.limit());
+			} else {
+				if ((pPuffer == null) || (pPuffer.length < laenge))
+					pPuffer = new byte[laenge];
+				quelle.get(pPuffer, 0, laenge);
+				pAus.write(pPuffer, 0, laenge);
+			}
+			// die Kanalausgabe schreibt nur volle Puffer oder beim Leeren, das
+			// soll beim Client ankommen
+			pAus.flush();
+			return laenge;
+		}
+		
+		void beenden() throws IOException {
+			if (pAus == null)
+				pExchange.sendResponseHeaders(200, -1);
+			else
+				pAus.close();
+		}
+		
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+		
+		@Override
+		public void close() {
+		}
+	
+	}
+	
+}
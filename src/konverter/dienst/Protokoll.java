@@ -0,0 +1,78 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.dienst;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+// Protokoll zwischen Dienstclient und Dienst.
+// Client an Dienst: KENNUNG (int), Arbeitsverzeichnis (UTF), Anzahl der
+// Argumente (int), Argumente (je UTF). Nach einem Rahmen EINGABE folgt die
+// Standardeingabe in Blöcken aus Länge (int) und Bytes, Länge 0 ist das Ende.
+// Dienst an Client: Rahmen aus Typ (byte) und Inhalt; AUSGABE, TEXT und
+// FEHLER mit Länge (int) und Bytes, EINGABE ohne Inhalt, ENDE mit dem
+// Exit-Code (int) als letzter Rahmen.
+final class Protokoll {
+	
+	static final int KENNUNG = 0x4b4f4e56;
+	
+	static final int MAX_ARGUMENTE = 4096;
+	
+	// Bytes für die Standardausgabe, wie sie der Konverter schreibt
+	static final byte AUSGABE = 'O';
+	// Text für die Standardausgabe bzw. Standardfehlerausgabe, in UTF-8
+	static final byte TEXT = 'T';
+	static final byte FEHLER = 'E';
+	// der Dienst liest die Standardeingabe
+	static final byte EINGABE = 'I';
+	static final byte ENDE = 'X';
+	
+	private Protokoll() {}
+	
+	// Channels.newInputStream und newOutputStream sperren bei einem
+	// SocketChannel Lesen und Schreiben gemeinsam, dann könnte nicht ein Thread
+	// lesen, während ein anderer schreibt
+	static InputStream eingabestrom(final SocketChannel kanal) {
+		return new InputStream() {
+			
+			@Override
+			public int read() throws IOException {
+				final byte[] b = new byte[1];
+				return (read(b, 0, 1) < 0) ? -1 : (b[0] & 0xff);
+			}
+			
+			@Override
+			public int read(final byte[] b, final int off, final int len) throws IOException {
+				if (len == 0)
+					return 0;
+				return kanal.read(ByteBuffer.wrap(b, off, len));
+			}
+		
+		};
+	}
+	
+	static OutputStream ausgabestrom(final SocketChannel kanal) {
+		return new OutputStream() {
+			
+			@Override
+			public void write(final int b) throws IOException {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+			
+			@Override
+			public void write(final byte[] b, final int off, final int len) throws IOException {
+				final ByteBuffer puffer = ByteBuffer.wrap(b, off, len);
+				while (puffer.hasRemaining())
+					kanal.write(puffer);
+			}
+		
+		};
+	}
+	
+}
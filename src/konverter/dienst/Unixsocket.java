@@ -0,0 +1,92 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.dienst;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+// Unix-Domain-Sockets gibt es erst ab Java 16 (UnixDomainSocketAddress und
+// open(ProtocolFamily) für die Kanäle); da der Konverter für Java 8 übersetzt
+// wird, werden sie über Reflection angesprochen. Auf älteren Laufzeitumgebungen
+// liefern binden und verbinden eine IOException.
+final class Unixsocket {
+	
+	private Unixsocket() {}
+	
+	static ServerSocketChannel binden(final Path pfad) throws IOException {
+		final ServerSocketChannel kanal = (ServerSocketChannel) aufrufen(ServerSocketChannel.class, "open", ProtocolFamily.class, familie());
+		try {
+			kanal.bind(adresse(pfad));
+		} catch (final IOException e) {
+			kanal.close();
+			throw e;
+		}
+		return kanal;
+	}
+	
+	static SocketChannel verbinden(final Path pfad) throws IOException {
+		final SocketChannel kanal = (SocketChannel) aufrufen(SocketChannel.class, "open", ProtocolFamily.class, familie());
+		try {
+			kanal.connect(adresse(pfad));
+		} catch (final IOException e) {
+			kanal.close();
+			throw e;
+		}
+		return kanal;
+	}
+	
+	private static ProtocolFamily familie() throws IOException {
+		try {
+			return StandardProtocolFamily.valueOf("UNIX");
+		} catch (final IllegalArgumentException e) {
+			throw nichtUnterstuetzt(e);
+		}
+	}
+	
+	private static SocketAddress adresse(final Path pfad) throws IOException {
+		final Class<?> klasse;
+		try {
+			klasse = Class.forName("java.net.UnixDomainSocketAddress");
+		} catch (final ClassNotFoundException e) {
+			throw nichtUnterstuetzt(e);
+		}
+		return (SocketAddress) aufrufen(klasse, "of", Path.class, pfad);
+	}
+	
+	// ruft eine statische Methode mit einem Parameter auf
+	private static Object aufrufen(final Class<?> klasse, final String name, final Class<?> parameter, final Object argument) throws IOException {
+		final Method methode;
+		try {
+			methode = klasse.getMethod(name, parameter);
+		} catch (final NoSuchMethodException e) {
+			throw nichtUnterstuetzt(e);
+		}
+		try {
+			return methode.invoke(null, argument);
+		} catch (final InvocationTargetException e) {
+			final Throwable ursache = e.getCause();
+			if (ursache instanceof IOException)
+				throw (IOException) ursache;
+			if (ursache instanceof RuntimeException)
+				throw (RuntimeException) ursache;
+			throw new IOException(ursache);
+		} catch (final IllegalAccessException e) {
+			throw nichtUnterstuetzt(e);
+		}
+	}
+	
+	private static IOException nichtUnterstuetzt(final Exception ursache) {
+		return new IOException("Unix-Domain-Sockets erfordern Java 16 oder neuer", ursache);
+	}
+	
+}
@@ -0,0 +1,123 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.formate;
+
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
+import konverter.formate.conllx.CoNLLX;
+import konverter.formate.rftagger.RFTagger;
+import konverter.konvertierung.Ausgabe;
+import konverter.konvertierung.Eingabe;
+import konverter.konvertierung.Verfahren;
+
+// Die Formate unter ihrem Namen auf der Kommandozeile. Parser, Schreiber und
+// ihre Tabellen werden erst beim ersten Aufruf für das jeweilige Format
+// geladen und initialisiert, ein Lauf initialisiert also nur die beiden
+// gewählten Formate.
+public enum Format {
+	
+	RFTAGGER("rftagger") {
+		
+		@Override
+		public Eingabe eingabe(final Path datei, final Charset charset, final Verfahren verfahren) {
+			return RFTagger.eingabe(datei, charset, verfahren);
+		}
+		
+		@Override
+		public Eingabe eingabe(final InputStream strom, final Charset charset, final boolean satzweise) {
+			return RFTagger.eingabe(strom, charset, satzweise);
+		}
+		
+		@Override
+		public Ausgabe ausgabe(final Path datei, final Charset charset, final int puffergroesse, final int pufferanzahl) {
+			return RFTagger.ausgabe(datei, charset, puffergroesse, pufferanzahl);
+		}
+		
+		@Override
+		public Ausgabe ausgabe(final WritableByteChannel kanal, final Charset charset, final int puffergroesse, final int pufferanzahl) {
+			return RFTagger.ausgabe(kanal, charset, puffergroesse, pufferanzahl);
+		}
+	
+	},
+	
+	CONLLX("conllx") {
+		
+		@Override
+		public Eingabe eingabe(final Path datei, final Charset charset, final Verfahren verfahren) {
+			return CoNLLX.eingabe(datei, charset, verfahren);
+		}
+		
+		@Override
+		public Eingabe eingabe(final InputStream strom, final Charset charset, final boolean satzweise) {
+			return CoNLLX.eingabe(strom, charset, satzweise);
+		}
+		
+		@Override
+		public Ausgabe ausgabe(final Path datei, final Charset charset, final int puffergroesse, final int pufferanzahl) {
+			return CoNLLX.ausgabe(datei, charset, puffergroesse, pufferanzahl);
+		}
+		
+		@Override
+		public Ausgabe ausgabe(final WritableByteChannel kanal, final Charset charset, final int puffergroesse, final int pufferanzahl) {
+			return CoNLLX.ausgabe(kanal, charset, puffergroesse, pufferanzahl);
+		}
+	
+	},
+	
+	TSV("tsv") {
+		
+		@Override
+		public Eingabe eingabe(final Path datei, final Charset charset, final Verfahren verfahren) {
+			return konverter.formate.tsv.TSV.eingabe(datei, charset, verfahren);
+		}
+		
+		@Override
+		public Eingabe eingabe(final InputStream strom, final Charset charset, final boolean satzweise) {
+			return konverter.formate.tsv.TSV.eingabe(strom, charset, satzweise);
+		}
+		
+		@Override
+		public Ausgabe ausgabe(final Path datei, final Charset charset, final int puffergroesse, final int pufferanzahl) {
+			return konverter.formate.tsv.TSV.ausgabe(datei, charset, puffergroesse, pufferanzahl);
+		}
+		
+		@Override
+		public Ausgabe ausgabe(final WritableByteChannel kanal, final Charset charset, final int puffergroesse, final int pufferanzahl) {
+			return konverter.formate.tsv.TSV.ausgabe(kanal, charset, puffergroesse, pufferanzahl);
+		}
+	
+	};
+	
+	private final String pName;
+	
+	private Format(final String name) {
+		pName = name;
+	}
+	
+	public String getName() {
+		return pName;
+	}
+	
+	// null für einen unbekannten Namen
+	public static Format suchen(final String name) {
+		for (final Format format : values())
+			if (format.pName.equals(name))
+				return format;
+		return null;
+	}
+	
+	public abstract Eingabe eingabe(Path datei, Charset charset, Verfahren verfahren);
+	
+	public abstract Eingabe eingabe(InputStream strom, Charset charset, boolean satzweise);
+	
+	public abstract Ausgabe ausgabe(Path datei, Charset charset, int puffergroesse, int pufferanzahl);
+	
+	public abstract Ausgabe ausgabe(WritableByteChannel kanal, Charset charset, int puffergroesse, int pufferanzahl);
+	
+}
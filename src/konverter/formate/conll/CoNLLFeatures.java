@@ -6,6 +6,9 @@
 package konverter.formate.conll;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
 
 import konverter.daten.Genus;
 import konverter.daten.Kasus;
@@ -13,103 +16,173 @@ import konverter.daten.Modus;
 import konverter.daten.Numerus;
 import konverter.daten.Person;
 import konverter.daten.Steigerungsstufe;
+import konverter.daten.Tagcode;
 import konverter.daten.Tempus;
 import konverter.exception.Arbeitsschritt;
 import konverter.exception.KonverterException;
+import konverter.tagsets.Hashtabelle;
 
 public class CoNLLFeatures {
 	
+	private static final Hashtabelle<Genus> GENUS;
+	private static final Hashtabelle<Kasus> KASUS;
+	private static final Hashtabelle<Numerus> NUMERUS;
+	private static final Hashtabelle<Steigerungsstufe> GRAD;
+	private static final Hashtabelle<Person> PERSON;
+	private static final Hashtabelle<Tempus> TEMPUS;
+	private static final Hashtabelle<Modus> MODUS;
+	// vollständige Features "schlüssel=wert" mit ihrem Feld im Tagcode
+	private static final Hashtabelle<Integer> FEATURES;
+	
+	static {
+		final Map<String, Genus> genus = new LinkedHashMap<>();
+		genus.put("masc", Genus.MASKULINUM);
+		genus.put("fem", Genus.FEMININUM);
+		genus.put("neut", Genus.NEUTRUM);
+		genus.put("*", Genus.UNTERSPEZIFIZIERT);
+		GENUS = new Hashtabelle<>(genus);
+		
+		final Map<String, Kasus> kasus = new LinkedHashMap<>();
+		kasus.put("nom", Kasus.NOMINATIV);
+		kasus.put("gen", Kasus.GENITIV);
+		kasus.put("dat", Kasus.DATIV);
+		kasus.put("acc", Kasus.AKKUSATIV);
+		kasus.put("*", Kasus.UNTERSPEZIFIZIERT);
+		KASUS = new Hashtabelle<>(kasus);
+		
+		final Map<String, Numerus> numerus = new LinkedHashMap<>();
+		numerus.put("sg", Numerus.SINGULAR);
+		numerus.put("pl", Numerus.PLURAL);
+		numerus.put("*", Numerus.UNTERSPEZIFIZIERT);
+		NUMERUS = new Hashtabelle<>(numerus);
+		
+		final Map<String, Steigerungsstufe> grad = new LinkedHashMap<>();
+		grad.put("pos", Steigerungsstufe.POSITIV);
+		grad.put("comp", Steigerungsstufe.KOMPARATIV);
+		grad.put("sup", Steigerungsstufe.SUPERLATIV);
+		GRAD = new Hashtabelle<>(grad);
+		
+		final Map<String, Person> person = new LinkedHashMap<>();
+		person.put("1", Person.ERSTE);
+		person.put("2", Person.ZWEITE);
+		person.put("3", Person.DRITTE);
+		PERSON = new Hashtabelle<>(person);
+		
+		final Map<String, Tempus> tempus = new LinkedHashMap<>();
+		tempus.put("pres", Tempus.PRAESENS);
+		tempus.put("past", Tempus.PRAETERITUM);
+		TEMPUS = new Hashtabelle<>(tempus);
+		
+		final Map<String, Modus> modus = new LinkedHashMap<>();
+		modus.put("ind", Modus.INDIKATIV);
+		modus.put("subj", Modus.KONJUNKTIV);
+		MODUS = new Hashtabelle<>(modus);
+		
+		final Map<String, Integer> features = new LinkedHashMap<>();
+		featuresEintragen(features, "number", numerus, Tagcode::kodieren);
+		featuresEintragen(features, "gender", genus, Tagcode::kodieren);
+		featuresEintragen(features, "mood", modus, Tagcode::kodieren);
+		featuresEintragen(features, "person", person, Tagcode::kodieren);
+		featuresEintragen(features, "degree", grad, Tagcode::kodieren);
+		featuresEintragen(features, "tense", tempus, Tagcode::kodieren);
+		featuresEintragen(features, "case", kasus, Tagcode::kodieren);
+		FEATURES = new Hashtabelle<>(features);
+	}
+	
+	private static <T> void featuresEintragen(final Map<String, Integer> features, final String schluessel, final Map<String, T> werte, final ToIntFunction<T> kodierung) {
+		for (final Map.Entry<String, T> wert : werte.entrySet())
+			features.put(schluessel + "=" + wert.getKey(), kodierung.applyAsInt(wert.getValue()));
+	}
+	
+	// Feld im Tagcode für das Feature text.subSequence(von, bis) der Form
+	// "schlüssel=wert" oder 0, wenn es kein gültiges Feature ist
+	public static int featureKodieren(final CharSequence text, final int von, final int bis) {
+		final Integer feld = FEATURES.suchen(text, von, bis);
+		return (feld == null) ? 0 : feld;
+	}
+	
 	public static Genus genusParsen(final String genus) {
-		switch (genus) {
-			case "masc":
-				return Genus.MASKULINUM;
-			case "fem":
-				return Genus.FEMININUM;
-			case "neut":
-				return Genus.NEUTRUM;
-			case "*":
-				return Genus.UNTERSPEZIFIZIERT;
-			default:
-				throw new KonverterException("Unbekanntes Genus: " + genus, Arbeitsschritt.EINLESEN);
-		}
+		return genusParsen(genus, 0, genus.length());
+	}
+	
+	// der Wert ist text.subSequence(von, bis)
+	public static Genus genusParsen(final CharSequence text, final int von, final int bis) {
+		final Genus result = GENUS.suchen(text, von, bis);
+		if (result == null)
+			throw new KonverterException("Unbekanntes Genus: " + text.subSequence(von, bis), Arbeitsschritt.EINLESEN);
+		return result;
 	}
 	
 	public static Kasus kasusParsen(final String kasus) {
-		switch (kasus) {
-			case "nom":
-				return Kasus.NOMINATIV;
-			case "gen":
-				return Kasus.GENITIV;
-			case "dat":
-				return Kasus.DATIV;
-			case "acc":
-				return Kasus.AKKUSATIV;
-			case "*":
-				return Kasus.UNTERSPEZIFIZIERT;
-			default:
-				throw new KonverterException("Unbekannter Kasus: " + kasus, Arbeitsschritt.EINLESEN);
-		}
+		return kasusParsen(kasus, 0, kasus.length());
+	}
+	
+	// der Wert ist text.subSequence(von, bis)
+	public static Kasus kasusParsen(final CharSequence text, final int von, final int bis) {
+		final Kasus result = KASUS.suchen(text, von, bis);
+		if (result == null)
+			throw new KonverterException("Unbekannter Kasus: " + text.subSequence(von, bis), Arbeitsschritt.EINLESEN);
+		return result;
 	}
 	
 	public static Numerus numerusParsen(final String numerus) {
-		switch (numerus) {
-			case "sg":
-				return Numerus.SINGULAR;
-			case "pl":
-				return Numerus.PLURAL;
-			case "*":
-				return Numerus.UNTERSPEZIFIZIERT;
-			default:
-				throw new KonverterException("Unbekannter Numerus: " + numerus, Arbeitsschritt.EINLESEN);
-		}
+		return numerusParsen(numerus, 0, numerus.length());
+	}
+	
+	// der Wert ist text.subSequence(von, bis)
+	public static Numerus numerusParsen(final CharSequence text, final int von, final int bis) {
+		final Numerus result = NUMERUS.suchen(text, von, bis);
+		if (result == null)
+			throw new KonverterException("Unbekannter Numerus: " + text.subSequence(von, bis), Arbeitsschritt.EINLESEN);
+		return result;
 	}
 	
 	public static Steigerungsstufe gradParsen(final String grad) {
-		switch (grad) {
-			case "pos":
-				return Steigerungsstufe.POSITIV;
-			case "comp":
-				return Steigerungsstufe.KOMPARATIV;
-			case "sup":
-				return Steigerungsstufe.SUPERLATIV;
-			default:
-				throw new KonverterException("Unbekannte Steigerungsstufe: " + grad, Arbeitsschritt.EINLESEN);
-		}
+		return gradParsen(grad, 0, grad.length());
+	}
+	
+	// der Wert ist text.subSequence(von, bis)
+	public static Steigerungsstufe gradParsen(final CharSequence text, final int von, final int bis) {
+		final Steigerungsstufe result = GRAD.suchen(text, von, bis);
+		if (result == null)
+			throw new KonverterException("Unbekannte Steigerungsstufe: " + text.subSequence(von, bis), Arbeitsschritt.EINLESEN);
+		return result;
 	}
 	
 	public static Person personParsen(final String person) {
-		switch (person) {
-			case "1":
-				return Person.ERSTE;
-			case "2":
-				return Person.ZWEITE;
-			case "3":
-				return Person.DRITTE;
-			default:
-				throw new KonverterException("Nicht unterstützte Person: " + person, Arbeitsschritt.EINLESEN);
-		}
+		return personParsen(person, 0, person.length());
+	}
+	
+	// der Wert ist text.subSequence(von, bis)
+	public static Person personParsen(final CharSequence text, final int von, final int bis) {
+		final Person result = PERSON.suchen(text, von, bis);
+		if (result == null)
+			throw new KonverterException("Nicht unterstützte Person: " + text.subSequence(von, bis), Arbeitsschritt.EINLESEN);
+		return result;
 	}
 	
 	public static Tempus tempusParsen(final String tempus) {
-		switch (tempus) {
-			case "pres":
-				return Tempus.PRAESENS;
-			case "past":
-				return Tempus.PRAETERITUM;
-			default:
-				throw new KonverterException("Unbekanntes Tempus: " + tempus, Arbeitsschritt.EINLESEN);
-		}
+		return tempusParsen(tempus, 0, tempus.length());
+	}
+	
+	// der Wert ist text.subSequence(von, bis)
+	public static Tempus tempusParsen(final CharSequence text, final int von, final int bis) {
+		final Tempus result = TEMPUS.suchen(text, von, bis);
+		if (result == null)
+			throw new KonverterException("Unbekanntes Tempus: " + text.subSequence(von, bis), Arbeitsschritt.EINLESEN);
+		return result;
 	}
 	
 	public static Modus modusParsen(final String modus) {
-		switch (modus) {
-			case "ind":
-				return Modus.INDIKATIV;
-			case "subj":
-				return Modus.KONJUNKTIV;
-			default:
-				throw new KonverterException("Unbekannter Modus: " + modus, Arbeitsschritt.EINLESEN);
-		}
+		return modusParsen(modus, 0, modus.length());
+	}
+	
+	// der Wert ist text.subSequence(von, bis)
+	public static Modus modusParsen(final CharSequence text, final int von, final int bis) {
+		final Modus result = MODUS.suchen(text, von, bis);
+		if (result == null)
+			throw new KonverterException("Unbekannter Modus: " + text.subSequence(von, bis), Arbeitsschritt.EINLESEN);
+		return result;
 	}
 	
 	public static void genusSchreiben(final Genus genus, final Appendable appendable) throws IOException, KonverterException {
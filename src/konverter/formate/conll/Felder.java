@@ -0,0 +1,88 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.formate.conll;
+
+import java.util.Arrays;
+
+// Zerlegt eine Zeile an einem Trennzeichen wie Pattern.split, merkt sich aber
+// nur Anfang und Ende der Felder in der Zeile. Strings entstehen erst mit
+// text; die Bereiche können direkt an Hashtabelle, STTS und CoNLLFeatures
+// übergeben werden. Gültig bis zum nächsten Aufruf von zerlegen bzw. solange
+// die Zeile gültig ist.
+public final class Felder {
+	
+	private CharSequence pZeile;
+	private int[] pAnfang;
+	private int[] pEnde;
+	// alle gefundenen Felder, auch leere am Ende
+	private int pGefunden;
+	
+	public Felder() {
+		pAnfang = new int[16];
+		pEnde = new int[16];
+	}
+	
+	// liefert die Anzahl der Felder wie Pattern.split(zeile, limit).length:
+	// bei limit > 0 höchstens limit Felder, das letzte enthält den Rest der
+	// Zeile; bei limit 0 werden leere Felder am Ende nicht mitgezählt, sind
+	// aber trotzdem abrufbar
+	public int zerlegen(final CharSequence zeile, final char trenner, final int limit) {
+		pZeile = zeile;
+		pGefunden = 0;
+		final int laenge = zeile.length();
+		int anfang = 0;
+		for (int i = 0; i < laenge; i++) {
+			if (zeile.charAt(i) != trenner)
+				continue;
+			if ((limit > 0) && (pGefunden == limit - 1))
+				break;
+			feldHinzufuegen(anfang, i);
+			anfang = i + 1;
+		}
+		feldHinzufuegen(anfang, laenge);
+		if ((limit != 0) || (pGefunden == 1))
+			return pGefunden;
+		int anzahl = pGefunden;
+		while ((anzahl > 0) && leer(anzahl - 1))
+			anzahl--;
+		return anzahl;
+	}
+	
+	public CharSequence zeile() {
+		return pZeile;
+	}
+	
+	public int anfang(final int feld) {
+		return pAnfang[feld];
+	}
+	
+	public int ende(final int feld) {
+		return pEnde[feld];
+	}
+	
+	public boolean leer(final int feld) {
+		return pAnfang[feld] == pEnde[feld];
+	}
+	
+	public boolean gleich(final int feld, final char c) {
+		return (pEnde[feld] - pAnfang[feld] == 1) && (pZeile.charAt(pAnfang[feld]) == c);
+	}
+	
+	public String text(final int feld) {
+		return pZeile.subSequence(pAnfang[feld], pEnde[feld]).toString();
+	}
+	
+	private void feldHinzufuegen(final int anfang, final int ende) {
+		if (pGefunden == pAnfang.length) {
+			pAnfang = Arrays.copyOf(pAnfang, pGefunden * 2);
+			pEnde = Arrays.copyOf(pEnde, pGefunden * 2);
+		}
+		pAnfang[pGefunden] = anfang;
+		pEnde[pGefunden] = ende;
+		pGefunden++;
+	}
+	
+}
@@ -5,105 +5,234 @@
  */
 package konverter.formate.conllx;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.math.BigInteger;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 import konverter.daten.Item;
+import konverter.daten.Itemfeld;
 import konverter.daten.Itemtyp;
+import konverter.daten.POS;
+import konverter.daten.Satzblock;
+import konverter.daten.Tagcode;
 import konverter.exception.Arbeitsschritt;
 import konverter.exception.KonverterException;
 import konverter.formate.conll.CoNLLFeatures;
+import konverter.formate.conll.Felder;
 import konverter.konvertierung.Quelle;
+import konverter.konvertierung.Tokensenke;
+import konverter.konvertierung.Zeilenleser;
 import konverter.tagsets.STTS;
 
 public class CoNLLXTagParser implements Quelle {
 	
-	private static final Pattern TAB_PATTERN = Pattern.compile(Pattern.quote("\t"));
-	private static final Pattern PIPE_PATTERN = Pattern.compile(Pattern.quote("|"));
+	private final Zeilenleser pLeser;
+	private final boolean pWiederverwenden;
+	private final Item pItem;
+	private final Felder pFelder;
 	
-	private final BufferedReader pReader;
+	private boolean pLemma;
+	private boolean pIndex;
 	
-	public CoNLLXTagParser(final BufferedReader reader) {
-		pReader = reader;
+	public CoNLLXTagParser(final Zeilenleser leser) {
+		this(leser, false);
+	}
+	
+	// bei Wiederverwendung liefert der Parser bei jedem Aufruf von next
+	// dasselbe Item, siehe Quelle
+	public CoNLLXTagParser(final Zeilenleser leser, final boolean wiederverwenden) {
+		pLeser = leser;
+		pWiederverwenden = wiederverwenden;
+		pItem = wiederverwenden ? new Item() : null;
+		pFelder = new Felder();
+		pLemma = true;
+		pIndex = true;
+	}
+	
+	@Override
+	public void felderFestlegen(final Set<Itemfeld> felder) {
+		pLemma = felder.contains(Itemfeld.LEMMA);
+		pIndex = felder.contains(Itemfeld.INDEX);
 	}
 	
 	@Override
 	public Item next() throws IOException, KonverterException {
-		final Item result = new Item();
-		
-		final String line = pReader.readLine();
+		final Item result = item(pItem);
+		final CharSequence line = pLeser.zeileAnsehen();
 		if (line == null)
 			result.typ = Itemtyp.ENDE;
-		else if ("".equals(line))
+		else
+			zeileParsen(line, result);
+		return result;
+	}
+	
+	@Override
+	public void next(final Satzblock block) throws IOException, KonverterException {
+		while (!block.voll()) {
+			final CharSequence line = pLeser.zeileAnsehen();
+			if (line == null) {
+				block.ende = true;
+				return;
+			}
+			if (line.length() == 0) {
+				block.satzBeenden();
+				continue;
+			}
+			final long index = zerlegen(line);
+			final int tagcode = tagParsen();
+			// Form und Lemma direkt aus der Zeile, ohne Strings
+			final int formAnfang = block.zeichenAnhaengen(line, pFelder.anfang(1), pFelder.ende(1));
+			final int formEnde = block.zeichenanzahl;
+			if (!pLemma || pFelder.gleich(2, '_')) {
+				block.tokenHinzufuegen(index, formAnfang, formEnde, -1, -1, tagcode);
+			} else {
+				final int lemmaAnfang = block.zeichenAnhaengen(line, pFelder.anfang(2), pFelder.ende(2));
+				block.tokenHinzufuegen(index, formAnfang, formEnde, lemmaAnfang, block.zeichenanzahl, tagcode);
+			}
+		}
+	}
+	
+	// Form und Lemma gehen als Bereiche der Zeile an die Senke
+	@Override
+	public boolean direktKonvertieren(final Tokensenke senke) throws IOException, KonverterException {
+		CharSequence line;
+		while ((line = pLeser.zeileAnsehen()) != null) {
+			if (line.length() == 0) {
+				senke.satzBeenden();
+				continue;
+			}
+			final long index = zerlegen(line);
+			final int tagcode = tagParsen();
+			if (!pLemma || pFelder.gleich(2, '_'))
+				senke.token(index, line, pFelder.anfang(1), pFelder.ende(1), -1, -1, tagcode);
+			else
+				senke.token(index, line, pFelder.anfang(1), pFelder.ende(1), pFelder.anfang(2), pFelder.ende(2), tagcode);
+		}
+		return true;
+	}
+	
+	private static Item item(final Item vorhanden) {
+		if (vorhanden == null)
+			return new Item();
+		vorhanden.leeren();
+		return vorhanden;
+	}
+	
+	private void zeileParsen(final CharSequence line, final Item result) {
+		if (line.length() == 0)
 			result.typ = Itemtyp.LEERZEILE;
 		else
 			parsen(line, result);
-		return result;
 	}
 	
-	private void parsen(final String line, final Item result) {
-		final String[] lineParts = TAB_PATTERN.split(line, 7);
-		
-		if (lineParts.length < 6)
-			throw new KonverterException("Zu wenige Bestandteile: " + line, Arbeitsschritt.EINLESEN);
-		
-		result.index = idEinlesen(lineParts[0]);
-		result.form = lineParts[1];
-		
-		result.pos = STTS.fromSTTS(result.form, lineParts[4]);
-		lemmaEinlesen(lineParts[2], result);
-		featuresParsen(lineParts[5], result);
-		
+	private void parsen(final CharSequence line, final Item result) {
+		result.index = zerlegen(line);
+		result.form = pFelder.text(1);
+		result.tagcode = tagParsen();
+		result.lemma = (!pLemma || pFelder.gleich(2, '_')) ? null : pFelder.text(2);
 		result.typ = Itemtyp.TOKEN;
 	}
 	
-	private static BigInteger idEinlesen(final String value) {
-		return new BigInteger(value.trim(), 10);
+	// zerlegt die Zeile in pFelder und liefert die ID
+	private long zerlegen(final CharSequence line) {
+		if (pFelder.zerlegen(line, '\t', 7) < 6)
+			throw new KonverterException("Zu wenige Bestandteile: " + line, Arbeitsschritt.EINLESEN);
+		return idEinlesen(line, pFelder.anfang(0), pFelder.ende(0));
+	}
+	
+	// Wortart und Features der zerlegten Zeile
+	private int tagParsen() {
+		final CharSequence line = pFelder.zeile();
+		final POS pos = STTS.fromSTTS(line, pFelder.anfang(1), pFelder.ende(1), line, pFelder.anfang(4), pFelder.ende(4));
+		return featuresParsen(line, pFelder.anfang(5), pFelder.ende(5), Tagcode.kodieren(pos));
 	}
 	
-	private static void lemmaEinlesen(final String lemma, final Item targetToken) {
-		targetToken.lemma = "_".equals(lemma) ? null : lemma;
+	// wie Long.parseLong(value.trim(), 10); ungültige IDs sind Einlesefehler.
+	// IDs außerhalb des Wertebereichs von long sind es nur, wenn die Senke
+	// den Index ausgibt, sonst werden sie wie früher mit BigInteger geprüft
+	// und als 0 übergeben
+	private long idEinlesen(final CharSequence line, final int von, final int bis) {
+		if ((bis - von > 0) && (bis - von < 19)) {
+			long result = 0;
+			int i = von;
+			for (; i < bis; i++) {
+				final char c = line.charAt(i);
+				if ((c < '0') || (c > '9'))
+					break;
+				result = result * 10 + (c - '0');
+			}
+			if (i == bis)
+				return result;
+		}
+		final String id = line.subSequence(von, bis).toString();
+		try {
+			return Long.parseLong(id.trim(), 10);
+		} catch (final NumberFormatException e) {
+			try {
+				new BigInteger(id.trim(), 10);
+			} catch (final NumberFormatException keineZahl) {
+				throw new KonverterException("Ungültige ID: " + id, Arbeitsschritt.EINLESEN);
+			}
+			if (pIndex)
+				throw new KonverterException("ID außerhalb des Wertebereichs (" + Long.MIN_VALUE + " bis " + Long.MAX_VALUE + "): " + id, Arbeitsschritt.EINLESEN);
+			return 0;
+		}
+	}
+	
+	// wie PIPE_PATTERN.split, aber ohne Teilstrings: leere Features am Ende
+	// werden übergangen, alle anderen leeren Features sind Fehler
+	private static int featuresParsen(final CharSequence line, final int von, final int bis, final int tagcode) {
+		if ((bis - von == 1) && (line.charAt(von) == '_'))
+			return tagcode;
+		int ende = bis;
+		while ((ende > von) && (line.charAt(ende - 1) == '|'))
+			ende--;
+		if ((ende == von) && (bis > von))
+			return tagcode;
+		int code = tagcode;
+		int anfang = von;
+		while (true) {
+			int trenner = anfang;
+			while ((trenner < ende) && (line.charAt(trenner) != '|'))
+				trenner++;
+			code = featureParsen(code, line, anfang, trenner);
+			if (trenner == ende)
+				return code;
+			anfang = trenner + 1;
+		}
 	}
 	
-	private static void featuresParsen(final String featuresString, final Item targetToken) {
-		if ("_".equals(featuresString))
-			return;
-		for (final String feature : PIPE_PATTERN.split(featuresString))
-			featureParsen(targetToken, feature);
+	private static int featureParsen(final int tagcode, final CharSequence line, final int von, final int bis) {
+		final int feld = CoNLLFeatures.featureKodieren(line, von, bis);
+		if (feld == 0)
+			// kein gültiges Feature, wirft die passende Exception
+			return featureParsen(tagcode, line.subSequence(von, bis).toString());
+		return Tagcode.setzen(tagcode, feld);
 	}
 	
-	private static void featureParsen(final Item result, final String feature) {
+	private static int featureParsen(final int tagcode, final String feature) {
 		final int eqIndex = feature.indexOf('=');
 		if (eqIndex < 0)
 			throw new KonverterException("Kein gültiges Schlüssel-Wert-Paar: " + feature, Arbeitsschritt.EINLESEN);
-		featureParsen(result, feature.substring(0, eqIndex), feature.substring(eqIndex + 1));
+		return featureParsen(tagcode, feature.substring(0, eqIndex), feature.substring(eqIndex + 1));
 	}
 	
-	private static void featureParsen(final Item result, final String key, final String value) {
+	private static int featureParsen(final int tagcode, final String key, final String value) {
 		switch (key) {
 			case "number":
-				result.numerus = CoNLLFeatures.numerusParsen(value);
-				break;
+				return Tagcode.setzen(tagcode, CoNLLFeatures.numerusParsen(value));
 			case "gender":
-				result.genus = CoNLLFeatures.genusParsen(value);
-				break;
+				return Tagcode.setzen(tagcode, CoNLLFeatures.genusParsen(value));
 			case "mood":
-				result.modus = CoNLLFeatures.modusParsen(value);
-				break;
+				return Tagcode.setzen(tagcode, CoNLLFeatures.modusParsen(value));
 			case "person":
-				result.person = CoNLLFeatures.personParsen(value);
-				break;
+				return Tagcode.setzen(tagcode, CoNLLFeatures.personParsen(value));
 			case "degree":
-				result.grad = CoNLLFeatures.gradParsen(value);
-				break;
+				return Tagcode.setzen(tagcode, CoNLLFeatures.gradParsen(value));
 			case "tense":
-				result.tempus = CoNLLFeatures.tempusParsen(value);
-				break;
+				return Tagcode.setzen(tagcode, CoNLLFeatures.tempusParsen(value));
 			case "case":
-				result.kasus = CoNLLFeatures.kasusParsen(value);
-				break;
+				return Tagcode.setzen(tagcode, CoNLLFeatures.kasusParsen(value));
 			default:
 				throw new KonverterException("Unbekanntes Feature: " + key, Arbeitsschritt.EINLESEN);
 		}
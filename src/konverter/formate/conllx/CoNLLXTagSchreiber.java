@@ -14,27 +14,67 @@ import konverter.daten.Kasus;
 import konverter.daten.Modus;
 import konverter.daten.Numerus;
 import konverter.daten.Person;
+import konverter.daten.Satzblock;
 import konverter.daten.Steigerungsstufe;
+import konverter.daten.Tagcode;
+import konverter.daten.Tagtabelle;
 import konverter.daten.Tempus;
 import konverter.exception.KonverterException;
 import konverter.formate.conll.CoNLLFeatures;
 import konverter.konvertierung.Senke;
+import konverter.konvertierung.Tokensenke;
 import konverter.tagsets.STTS;
 
-public class CoNLLXTagSchreiber implements Senke {
+public class CoNLLXTagSchreiber implements Senke, Tokensenke {
 	
-	private final Appendable pTarget;
+	private static final Tagtabelle TAGS = new Tagtabelle(CoNLLXTagSchreiber::tagSchreiben);
 	
-	private boolean pFirstFeature;
+	private final Appendable pTarget;
+	private final char[] pZiffern;
 	
 	public CoNLLXTagSchreiber(final Appendable target) {
 		pTarget = target;
+		pZiffern = new char[20];
 	}
 	
 	@Override
 	public void next(final Item token) throws IOException, KonverterException {
+		schreiben(token);
+	}
+	
+	@Override
+	public void next(final Satzblock block) throws IOException, KonverterException {
+		final CharSequence zeichen = block.zeichenfolge();
+		int token = 0;
+		for (int satz = 0; satz <= block.satzanzahl; satz++) {
+			for (final int ende = block.satzende(satz); token < ende; token++)
+				token(block.indizes[token], zeichen, block.formAnfang[token], block.formEnde[token], block.lemmaAnfang[token], block.lemmaEnde[token], block.tagcodes[token]);
+			if (satz < block.satzanzahl)
+				satzBeenden();
+		}
+	}
+	
+	@Override
+	public void token(final long index, final CharSequence zeile, final int formVon, final int formBis, final int lemmaVon, final int lemmaBis, final int tagcode) throws IOException, KonverterException {
+		indexAusgeben(index);
+		pTarget.append('\t');
+		pTarget.append(zeile, formVon, formBis);
+		pTarget.append('\t');
+		if (lemmaVon >= 0)
+			pTarget.append(zeile, lemmaVon, lemmaBis);
+		else
+			pTarget.append('_');
+		TAGS.schreiben(tagcode, pTarget);
+	}
+	
+	@Override
+	public void satzBeenden() throws IOException {
+		pTarget.append('\n');
+	}
+	
+	private void schreiben(final Item token) throws IOException, KonverterException {
 		if (token.typ == Itemtyp.TOKEN) {
-			pTarget.append(token.index.toString());
+			indexAusgeben(token.index);
 			pTarget.append('\t');
 			pTarget.append(token.form);
 			pTarget.append('\t');
@@ -42,84 +82,111 @@ public class CoNLLXTagSchreiber implements Senke {
 				pTarget.append('_');
 			else
 				pTarget.append(token.lemma);
-			pTarget.append("\t_\t");
-			pTarget.append(STTS.toSTTS(token.pos));
-			pTarget.append('\t');
-			featuresAusgeben(token.kasus, token.numerus, token.genus, token.grad, token.person, token.tempus, token.modus);
-			pTarget.append("\t_\t_\t_\t_");
+			TAGS.schreiben(token.tagcode, pTarget);
+		} else {
+			pTarget.append('\n');
 		}
-		pTarget.append('\n');
 	}
 	
-	private void featuresAusgeben(final Kasus caseName, final Numerus number, final Genus gender, final Steigerungsstufe degree, final Person person, final Tempus tense, final Modus mood) throws IOException, KonverterException {
-		pFirstFeature = true;
-		caseAusgeben(caseName);
-		numberAusgeben(number);
-		genderAusgeben(gender);
-		degreeAusgeben(degree);
-		personAusgeben(person);
-		tenseAusgeben(tense);
-		moodAusgeben(mood);
+	// alle Spalten nach dem Lemma einschließlich Zeilenende
+	private static void tagSchreiben(final int code, final Appendable ziel) throws IOException, KonverterException {
+		ziel.append("\t_\t");
+		ziel.append(STTS.toSTTS(Tagcode.pos(code)));
+		ziel.append('\t');
+		featuresAusgeben(ziel, Tagcode.kasus(code), Tagcode.numerus(code), Tagcode.genus(code), Tagcode.grad(code), Tagcode.person(code), Tagcode.tempus(code), Tagcode.modus(code));
+		ziel.append("\t_\t_\t_\t_\n");
+	}
+	
+	// ohne Umweg über einen String
+	private void indexAusgeben(final long index) throws IOException {
+		if (index < 0) {
+			pTarget.append(Long.toString(index));
+			return;
+		}
+		int position = pZiffern.length;
+		long rest = index;
+		do {
+			pZiffern[--position] = (char) ('0' + (rest % 10));
+			rest /= 10;
+		} while (rest != 0);
+		while (position < pZiffern.length)
+			pTarget.append(pZiffern[position++]);
+	}
+	
+	private static void featuresAusgeben(final Appendable ziel, final Kasus caseName, final Numerus number, final Genus gender, final Steigerungsstufe degree, final Person person, final Tempus tense, final Modus mood) throws IOException, KonverterException {
+		boolean firstFeature = true;
+		firstFeature = caseAusgeben(ziel, caseName, firstFeature);
+		firstFeature = numberAusgeben(ziel, number, firstFeature);
+		firstFeature = genderAusgeben(ziel, gender, firstFeature);
+		firstFeature = degreeAusgeben(ziel, degree, firstFeature);
+		firstFeature = personAusgeben(ziel, person, firstFeature);
+		firstFeature = tenseAusgeben(ziel, tense, firstFeature);
+		firstFeature = moodAusgeben(ziel, mood, firstFeature);
 		
-		if (pFirstFeature)
-			pTarget.append("_");
+		if (firstFeature)
+			ziel.append("_");
 	}
 	
-	private void numberAusgeben(final Numerus number) throws IOException, KonverterException {
+	private static boolean numberAusgeben(final Appendable ziel, final Numerus number, final boolean firstFeature) throws IOException, KonverterException {
 		if (number == null)
-			return;
-		startFeature("number=");
-		CoNLLFeatures.numerusSchreiben(number, pTarget);
+			return firstFeature;
+		startFeature(ziel, "number=", firstFeature);
+		CoNLLFeatures.numerusSchreiben(number, ziel);
+		return false;
 	}
 	
-	private void genderAusgeben(final Genus gender) throws IOException, KonverterException {
+	private static boolean genderAusgeben(final Appendable ziel, final Genus gender, final boolean firstFeature) throws IOException, KonverterException {
 		if (gender == null)
-			return;
-		startFeature("gender=");
-		CoNLLFeatures.genusSchreiben(gender, pTarget);
+			return firstFeature;
+		startFeature(ziel, "gender=", firstFeature);
+		CoNLLFeatures.genusSchreiben(gender, ziel);
+		return false;
 	}
 	
-	private void personAusgeben(final Person person) throws IOException, KonverterException {
+	private static boolean personAusgeben(final Appendable ziel, final Person person, final boolean firstFeature) throws IOException, KonverterException {
 		if (person == null)
-			return;
-		startFeature("person=");
-		CoNLLFeatures.personSchreiben(person, pTarget);
+			return firstFeature;
+		startFeature(ziel, "person=", firstFeature);
+		CoNLLFeatures.personSchreiben(person, ziel);
+		return false;
 	}
 	
-	private void degreeAusgeben(final Steigerungsstufe degree) throws IOException, KonverterException {
+	private static boolean degreeAusgeben(final Appendable ziel, final Steigerungsstufe degree, final boolean firstFeature) throws IOException, KonverterException {
 		if (degree == null)
-			return;
-		startFeature("degree=");
-		CoNLLFeatures.gradSchreiben(degree, pTarget);
+			return firstFeature;
+		startFeature(ziel, "degree=", firstFeature);
+		CoNLLFeatures.gradSchreiben(degree, ziel);
+		return false;
 	}
 	
-	private void tenseAusgeben(final Tempus tense) throws IOException, KonverterException {
+	private static boolean tenseAusgeben(final Appendable ziel, final Tempus tense, final boolean firstFeature) throws IOException, KonverterException {
 		if (tense == null)
-			return;
-		startFeature("tense=");
-		CoNLLFeatures.tempusSchreiben(tense, pTarget);
+			return firstFeature;
+		startFeature(ziel, "tense=", firstFeature);
+		CoNLLFeatures.tempusSchreiben(tense, ziel);
+		return false;
 	}
 	
-	private void caseAusgeben(final Kasus caseName) throws IOException, KonverterException {
+	private static boolean caseAusgeben(final Appendable ziel, final Kasus caseName, final boolean firstFeature) throws IOException, KonverterException {
 		if (caseName == null)
-			return;
-		startFeature("case=");
-		CoNLLFeatures.kasusSchreiben(caseName, pTarget);
+			return firstFeature;
+		startFeature(ziel, "case=", firstFeature);
+		CoNLLFeatures.kasusSchreiben(caseName, ziel);
+		return false;
 	}
 	
-	private void moodAusgeben(final Modus mood) throws IOException, KonverterException {
+	private static boolean moodAusgeben(final Appendable ziel, final Modus mood, final boolean firstFeature) throws IOException, KonverterException {
 		if (mood == null)
-			return;
-		startFeature("mood=");
-		CoNLLFeatures.modusSchreiben(mood, pTarget);
+			return firstFeature;
+		startFeature(ziel, "mood=", firstFeature);
+		CoNLLFeatures.modusSchreiben(mood, ziel);
+		return false;
 	}
 	
-	private void startFeature(final String featurePrefix) throws IOException {
-		if (pFirstFeature)
-			pFirstFeature = false;
-		else
-			pTarget.append('|');
-		pTarget.append(featurePrefix);
+	private static void startFeature(final Appendable ziel, final String featurePrefix, final boolean firstFeature) throws IOException {
+		if (!firstFeature)
+			ziel.append('|');
+		ziel.append(featurePrefix);
 	}
 	
 }
@@ -5,9 +5,7 @@
  */
 package konverter.formate.rftagger;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.math.BigInteger;
 import java.util.regex.Pattern;
 
 import konverter.daten.Item;
@@ -16,6 +14,8 @@ import konverter.daten.Kasus;
 import konverter.daten.Modus;
 import konverter.daten.Numerus;
 import konverter.daten.POS;
+import konverter.daten.Satzblock;
+import konverter.daten.Tagcode;
 import konverter.daten.Person;
 import konverter.daten.Steigerungsstufe;
 import konverter.daten.Tempus;
@@ -23,198 +23,233 @@ import konverter.daten.Itemtyp;
 import konverter.exception.Arbeitsschritt;
 import konverter.exception.KonverterException;
 import konverter.konvertierung.Quelle;
+import konverter.konvertierung.Zeilenleser;
 
 public class RFTagParser implements Quelle {
 	
 	private static final Pattern DOT_PATTERN = Pattern.compile(Pattern.quote("."));
 	
-	private final BufferedReader pReader;
+	private final Zeilenleser pLeser;
+	private final boolean pWiederverwenden;
+	private final Item pItem;
 	
-	private BigInteger pIndex;
+	private long pIndex;
 	
-	public RFTagParser(final BufferedReader reader) {
-		pReader = reader;
+	public RFTagParser(final Zeilenleser leser) {
+		this(leser, false);
+	}
+	
+	// bei Wiederverwendung liefert der Parser bei jedem Aufruf von next
+	// dasselbe Item, siehe Quelle
+	public RFTagParser(final Zeilenleser leser, final boolean wiederverwenden) {
+		pLeser = leser;
+		pWiederverwenden = wiederverwenden;
+		pItem = wiederverwenden ? new Item() : null;
 		
-		pIndex = BigInteger.ZERO;
+		pIndex = 0;
 	}
 	
 	@Override
 	public Item next() throws IOException, KonverterException {
-		final Item result = new Item();
-		
-		final String line = pReader.readLine();
-		if (line == null) {
+		final Item result = item(pItem);
+		final CharSequence line = pLeser.zeileAnsehen();
+		if (line == null)
 			result.typ = Itemtyp.ENDE;
-		} else if ("".equals(line)) {
+		else
+			zeileParsen(line, result);
+		return result;
+	}
+	
+	@Override
+	public void next(final Satzblock block) throws IOException, KonverterException {
+		while (!block.voll()) {
+			final CharSequence line = pLeser.zeileAnsehen();
+			if (line == null) {
+				block.ende = true;
+				return;
+			}
+			if (line.length() == 0) {
+				block.satzBeenden();
+				pIndex = 0;
+			} else {
+				pIndex++;
+				parsen(line, block);
+			}
+		}
+	}
+	
+	private static Item item(final Item vorhanden) {
+		if (vorhanden == null)
+			return new Item();
+		vorhanden.leeren();
+		return vorhanden;
+	}
+	
+	private void zeileParsen(final CharSequence line, final Item result) {
+		if (line.length() == 0) {
 			result.typ = Itemtyp.LEERZEILE;
-			pIndex = BigInteger.ZERO;
+			pIndex = 0;
 		} else {
-			pIndex = BigInteger.ONE.add(pIndex);
+			pIndex++;
 			parsen(line, result);
 		}
+	}
+	
+	private void parsen(final CharSequence line, final Item targetToken) {
+		final int tabIndex1 = tabSuchen(line);
+		targetToken.tagcode = tagParsen(line, tabIndex1);
 		
-		return result;
+		targetToken.typ = Itemtyp.TOKEN;
+		targetToken.index = pIndex;
+		targetToken.form = line.subSequence(0, tabIndex1).toString();
+	}
+	
+	private void parsen(final CharSequence line, final Satzblock block) {
+		final int tabIndex1 = tabSuchen(line);
+		final int tagcode = tagParsen(line, tabIndex1);
+		
+		final int formAnfang = block.zeichenAnhaengen(line, 0, tabIndex1);
+		block.tokenHinzufuegen(pIndex, formAnfang, block.zeichenanzahl, -1, -1, tagcode);
 	}
 	
-	private void parsen(final String line, final Item targetToken) {
-		final int tabIndex1 = line.indexOf('\t');
+	private static int tabSuchen(final CharSequence line) {
+		final int tabIndex1 = indexOf(line, '\t', 0);
 		if (tabIndex1 < 0)
 			throw new KonverterException(line + " hat kein Tag.", Arbeitsschritt.EINLESEN);
+		return tabIndex1;
+	}
+	
+	private int tagParsen(final CharSequence line, final int tabIndex1) {
+		final int tagAnfang = tabIndex1 + 1;
+		final int tabIndex2 = indexOf(line, '\t', tagAnfang);
+		final int tagEnde = tabIndex2 < 0 ? line.length() : tabIndex2;
 		
-		final String tokenString = line.substring(0, tabIndex1);
-		final String tagString = extractTagString(line, tabIndex1);
-		
-		if ("".equals(tagString))
-			throw new KonverterException(tokenString + " hat kein Tag.", Arbeitsschritt.EINLESEN);
-		
-		analysieren(tagString, targetToken);
+		if (tagAnfang == tagEnde)
+			throw new KonverterException(line.subSequence(0, tabIndex1) + " hat kein Tag.", Arbeitsschritt.EINLESEN);
 		
-		targetToken.typ = Itemtyp.TOKEN;
-		targetToken.index = pIndex;
-		targetToken.form = tokenString;
+		return Tagautomat.analysieren(line, tagAnfang, tagEnde);
 	}
 	
-	private static String extractTagString(final String line, int tabIndex1) {
-		tabIndex1++;
-		final int tabIndex2 = line.indexOf('\t', tabIndex1);
-		return line.substring(tabIndex1, tabIndex2 < 0 ? line.length() : tabIndex2);
+	private static int indexOf(final CharSequence line, final char c, final int von) {
+		for (int i = von; i < line.length(); i++)
+			if (line.charAt(i) == c)
+				return i;
+		return -1;
 	}
 	
-	private static void analysieren(final String tagString, final Item targetToken) {
+	public static int analysieren(final String tagString) {
 		final String[] parts = DOT_PATTERN.split(tagString);
 		
 		switch (parts[0]) {
 			case "ADJA":
 				// ADJA.Pos.Dat.Pl.Masc
 				strukturtest(parts, 5, tagString);
-				targetToken.pos = POS.ADJEKTIV_ATTRIBUTIV;
-				targetToken.grad = gradBestimmen(parts[1]);
-				targetToken.kasus = kasusBestimmen(parts[2]);
-				targetToken.numerus = numerusBestimmen(parts[3]);
-				targetToken.genus = genusBestimmen(parts[4]);
-				break;
+				return Tagcode.kodieren(POS.ADJEKTIV_ATTRIBUTIV)
+						| Tagcode.kodieren(gradBestimmen(parts[1]))
+						| Tagcode.kodieren(kasusBestimmen(parts[2]))
+						| Tagcode.kodieren(numerusBestimmen(parts[3]))
+						| Tagcode.kodieren(genusBestimmen(parts[4]));
 			case "ADJD":
 				// ADJD.Pos
 				strukturtest(parts, 2, tagString);
-				targetToken.pos = POS.ADJEKTIV_PRAEDIKATIV;
-				targetToken.grad = gradBestimmen(parts[1]);
-				break;
+				return Tagcode.kodieren(POS.ADJEKTIV_PRAEDIKATIV)
+						| Tagcode.kodieren(gradBestimmen(parts[1]));
 			case "ADV":
 				strukturtest(parts, 1, tagString);
-				targetToken.pos = POS.ADVERB;
-				break;
+				return Tagcode.kodieren(POS.ADVERB);
 			case "APPO":
 				if ((parts.length != 1) && (parts.length != 2))
 					strukturfehler(parts, tagString);
-				targetToken.pos = POS.POSTPOSITION;
-				break;
+				return Tagcode.kodieren(POS.POSTPOSITION);
 			case "APPR":
 				if ((parts.length != 1) && (parts.length != 2))
 					strukturfehler(parts, tagString);
-				targetToken.pos = POS.PRAEPOSITION;
-				break;
+				return Tagcode.kodieren(POS.PRAEPOSITION);
 			case "APPRART":
 				// APPRART.Acc.Sg.Neut
 				strukturtest(parts, 4, tagString);
-				targetToken.pos = POS.PRAEPOSITION_MIT_ARTIKEL;
-				targetToken.kasus = kasusBestimmen(parts[1]);
-				targetToken.numerus = numerusBestimmen(parts[2]);
-				targetToken.genus = genusBestimmen(parts[3]);
-				break;
+				return Tagcode.kodieren(POS.PRAEPOSITION_MIT_ARTIKEL)
+						| Tagcode.kodieren(kasusBestimmen(parts[1]))
+						| Tagcode.kodieren(numerusBestimmen(parts[2]))
+						| Tagcode.kodieren(genusBestimmen(parts[3]));
 			case "APZR":
 				strukturtest(parts, 1, tagString);
-				targetToken.pos = POS.RECHTER_TEIL_EINER_ZIRKUMPOSITION;
-				break;
+				return Tagcode.kodieren(POS.RECHTER_TEIL_EINER_ZIRKUMPOSITION);
 			case "ART":
 				// ART.Indef.Nom.Sg.Masc
 				strukturtest(parts, 5, tagString);
-				targetToken.pos = definitheitBestimmen(parts[1]);
-				targetToken.kasus = kasusBestimmen(parts[2]);
-				targetToken.numerus = numerusBestimmen(parts[3]);
-				targetToken.genus = genusBestimmen(parts[4]);
-				break;
+				return Tagcode.kodieren(definitheitBestimmen(parts[1]))
+						| Tagcode.kodieren(kasusBestimmen(parts[2]))
+						| Tagcode.kodieren(numerusBestimmen(parts[3]))
+						| Tagcode.kodieren(genusBestimmen(parts[4]));
 			case "CARD":
 				strukturtest(parts, 1, tagString);
-				targetToken.pos = POS.KARDINALZAHL;
-				break;
+				return Tagcode.kodieren(POS.KARDINALZAHL);
 			case "CONJ":
 				// CONJ.Coord
 				strukturtest(parts, 2, tagString);
-				targetToken.pos = konjunktionstypBestimmen(parts[1]);
-				break;
+				return Tagcode.kodieren(konjunktionstypBestimmen(parts[1]));
 			case "FM":
 				strukturtest(parts, 1, tagString);
-				targetToken.pos = POS.FREMDSPRACHLICHES_MATERIAL;
-				break;
+				return Tagcode.kodieren(POS.FREMDSPRACHLICHES_MATERIAL);
 			case "ITJ":
 				strukturtest(parts, 1, tagString);
-				targetToken.pos = POS.INTERJEKTION;
-				break;
+				return Tagcode.kodieren(POS.INTERJEKTION);
 			case "N":
 				// N.Reg.Acc.Sg.Fem
 				strukturtest(parts, 5, tagString);
-				targetToken.pos = substantivtypBestimmen(parts[1]);
-				targetToken.kasus = kasusBestimmen(parts[2]);
-				targetToken.numerus = numerusBestimmen(parts[3]);
-				targetToken.genus = genusBestimmen(parts[4]);
-				break;
+				return Tagcode.kodieren(substantivtypBestimmen(parts[1]))
+						| Tagcode.kodieren(kasusBestimmen(parts[2]))
+						| Tagcode.kodieren(numerusBestimmen(parts[3]))
+						| Tagcode.kodieren(genusBestimmen(parts[4]));
 			case "PART":
 				// PART.Zu
 				strukturtest(parts, 2, tagString);
-				targetToken.pos = partikeltypBestimmen(parts[1]);
-				break;
+				return Tagcode.kodieren(partikeltypBestimmen(parts[1]));
 			case "PRO":
 				// PRO.Pers.Subst.3.Nom.Sg.Masc
 				strukturtest(parts, 7, tagString);
-				targetToken.pos = pronomentypBestimmen(parts[1], parts[2]);
-				targetToken.person = personBestimmen(parts[3], true);
-				targetToken.kasus = kasusBestimmen(parts[4]);
-				targetToken.numerus = numerusBestimmen(parts[5]);
-				targetToken.genus = genusBestimmen(parts[6], true);
-				break;
+				return Tagcode.kodieren(pronomentypBestimmen(parts[1], parts[2]))
+						| Tagcode.kodieren(personBestimmen(parts[3], true))
+						| Tagcode.kodieren(kasusBestimmen(parts[4]))
+						| Tagcode.kodieren(numerusBestimmen(parts[5]))
+						| Tagcode.kodieren(genusBestimmen(parts[6], true));
 			case "PROADV":
 				// PROADV.Inter
 				strukturtest(parts, 2, tagString);
-				targetToken.pos = pronominaladverbtypBestimmen(parts[1]);
-				break;
+				return Tagcode.kodieren(pronominaladverbtypBestimmen(parts[1]));
 			case "SYM":
 				// SYM.Pun.Sent
 				strukturtest(parts, 3, tagString);
-				targetToken.pos = symboltypBestimmen(parts[1], parts[2]);
-				break;
+				return Tagcode.kodieren(symboltypBestimmen(parts[1], parts[2]));
 			case "TRUNC":
 				// TRUNC.Verb
 				strukturtest(parts, 2, tagString);
-				targetToken.pos = restgliedtypBestimmen(parts[1]);
-				break;
+				return Tagcode.kodieren(restgliedtypBestimmen(parts[1]));
 			case "VFIN":
 				// VFIN.Full.3.Sg.Pres.Ind
 				strukturtest(parts, 6, tagString);
-				targetToken.pos = verbtypBestimmen(parts[1], POS.VOLLVERB_FINIT, POS.HILFSVERB_FINIT, POS.MODALVERB_FINIT);
-				targetToken.person = personBestimmen(parts[2]);
-				targetToken.numerus = numerusBestimmen(parts[3]);
-				targetToken.tempus = tempusBestimmen(parts[4]);
-				targetToken.modus = modusBestimmen(parts[5]);
-				break;
+				return Tagcode.kodieren(verbtypBestimmen(parts[1], POS.VOLLVERB_FINIT, POS.HILFSVERB_FINIT, POS.MODALVERB_FINIT))
+						| Tagcode.kodieren(personBestimmen(parts[2]))
+						| Tagcode.kodieren(numerusBestimmen(parts[3]))
+						| Tagcode.kodieren(tempusBestimmen(parts[4]))
+						| Tagcode.kodieren(modusBestimmen(parts[5]));
 			case "VIMP":
 				// VIMP.Full.2.Sg[.Imp]
 				if ((parts.length != 4) && (parts.length != 5))
 					strukturfehler(parts, tagString);
-				targetToken.pos = verbtypBestimmenImperativ(parts[1]);
-				targetToken.person = personBestimmen(parts[2]);
-				targetToken.numerus = numerusBestimmen(parts[3]);
-				break;
+				return Tagcode.kodieren(verbtypBestimmenImperativ(parts[1]))
+						| Tagcode.kodieren(personBestimmen(parts[2]))
+						| Tagcode.kodieren(numerusBestimmen(parts[3]));
 			case "VINF":
 				// VINF.Full.zu
 				strukturtest(parts, 3, tagString);
-				targetToken.pos = verbtypBestimmenInfinitiv(parts[1], parts[2]);
-				break;
+				return Tagcode.kodieren(verbtypBestimmenInfinitiv(parts[1], parts[2]));
 			case "VPP":
 				// VPP.Full[.Psp]
 				if ((parts.length != 2) && (parts.length != 3))
 					strukturfehler(parts, tagString);
-				targetToken.pos = verbtypBestimmen(parts[1], POS.VOLLVERB_PARTIZIP, POS.HILFSVERB_PARTIZIP, POS.MODALVERB_PARTIZIP);
-				break;
+				return Tagcode.kodieren(verbtypBestimmen(parts[1], POS.VOLLVERB_PARTIZIP, POS.HILFSVERB_PARTIZIP, POS.MODALVERB_PARTIZIP));
 			default:
 				throw new KonverterException("Unbekannte Wortart: " + parts[0], Arbeitsschritt.EINLESEN);
 		}
@@ -229,7 +264,7 @@ public class RFTagParser implements Quelle {
 		throw new KonverterException("Strukturfehler " + tagParts[0] + "-Tag: " + tagString, Arbeitsschritt.EINLESEN);
 	}
 	
-	private static POS definitheitBestimmen(final String definitheitString) {
+	static POS definitheitBestimmen(final String definitheitString) {
 		switch (definitheitString) {
 			case "Def":
 				return POS.BESTIMMTER_ARTIKEL;
@@ -240,7 +275,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static POS konjunktionstypBestimmen(final String konjunktionstypString) {
+	static POS konjunktionstypBestimmen(final String konjunktionstypString) {
 		switch (konjunktionstypString) {
 			case "Comp":
 				return POS.VERGLEICHSPARTIKEL;
@@ -255,7 +290,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static POS substantivtypBestimmen(final String substantivtypString) {
+	static POS substantivtypBestimmen(final String substantivtypString) {
 		switch (substantivtypString) {
 			case "Reg":
 				return POS.SUBSTANTIV;
@@ -266,7 +301,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static POS partikeltypBestimmen(final String partikeltypString) {
+	static POS partikeltypBestimmen(final String partikeltypString) {
 		switch (partikeltypString) {
 			case "Ans":
 				return POS.ANTWORTPARTIKEL;
@@ -283,7 +318,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static POS pronomentypBestimmen(final String pronomentypString, final String verwendungString) {
+	static POS pronomentypBestimmen(final String pronomentypString, final String verwendungString) {
 		switch (pronomentypString) {
 			case "Pers":
 				checkIsSubst(verwendungString, "Personalpronomen");
@@ -322,7 +357,7 @@ public class RFTagParser implements Quelle {
 			throw new KonverterException("Unerwarteter Pronomentyp für " + pronomentyp + " (nur Subst möglich): " + verwendungString, Arbeitsschritt.EINLESEN);
 	}
 	
-	private static POS pronominaladverbtypBestimmen(final String pronominaladverbtypString) {
+	static POS pronominaladverbtypBestimmen(final String pronominaladverbtypString) {
 		switch (pronominaladverbtypString) {
 			case "Dem":
 				return POS.PRONOMINALADVERB;
@@ -333,7 +368,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static POS symboltypBestimmen(final String symboltypString, final String symboluntertypString) {
+	static POS symboltypBestimmen(final String symboltypString, final String symboluntertypString) {
 		switch (symboltypString) {
 			case "Pun":
 				return interpunktionstypBestimmen(symboluntertypString);
@@ -395,7 +430,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static POS restgliedtypBestimmen(final String restgliedtypString) {
+	static POS restgliedtypBestimmen(final String restgliedtypString) {
 		switch (restgliedtypString) {
 			case "Adj":
 				return POS.ABGETRENNTES_ADJEKTIVRESTGLIED;
@@ -410,7 +445,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static POS verbtypBestimmen(final String verbtypString, final POS full, final POS aux, final POS mod) {
+	static POS verbtypBestimmen(final String verbtypString, final POS full, final POS aux, final POS mod) {
 		switch (verbtypString) {
 			case "Full":
 				return full;
@@ -423,7 +458,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static POS verbtypBestimmenImperativ(final String verbtypString) {
+	static POS verbtypBestimmenImperativ(final String verbtypString) {
 		switch (verbtypString) {
 			case "Full":
 				return POS.VOLLVERB_IMPERATIV;
@@ -436,7 +471,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static POS verbtypBestimmenInfinitiv(final String verbtypString, final String infinitivtypString) {
+	static POS verbtypBestimmenInfinitiv(final String verbtypString, final String infinitivtypString) {
 		switch (infinitivtypString) {
 			case "zu":
 				return verbtypBestimmenZuInfinitiv(verbtypString);
@@ -459,7 +494,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static Steigerungsstufe gradBestimmen(final String gradString) {
+	static Steigerungsstufe gradBestimmen(final String gradString) {
 		switch (gradString) {
 			case "Pos":
 				return Steigerungsstufe.POSITIV;
@@ -472,11 +507,11 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static Person personBestimmen(final String personString) {
+	static Person personBestimmen(final String personString) {
 		return personBestimmen(personString, false);
 	}
 	
-	private static Person personBestimmen(final String personString, final boolean optional) {
+	static Person personBestimmen(final String personString, final boolean optional) {
 		switch (personString) {
 			case "1":
 				return Person.ERSTE;
@@ -492,7 +527,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static Kasus kasusBestimmen(final String kasusString) {
+	static Kasus kasusBestimmen(final String kasusString) {
 		switch (kasusString) {
 			case "Nom":
 				return Kasus.NOMINATIV;
@@ -509,7 +544,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static Numerus numerusBestimmen(final String numerusString) {
+	static Numerus numerusBestimmen(final String numerusString) {
 		switch (numerusString) {
 			case "Sg":
 				return Numerus.SINGULAR;
@@ -522,11 +557,11 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static Genus genusBestimmen(final String genusString) {
+	static Genus genusBestimmen(final String genusString) {
 		return genusBestimmen(genusString, false);
 	}
 	
-	private static Genus genusBestimmen(final String genusString, final boolean optional) {
+	static Genus genusBestimmen(final String genusString, final boolean optional) {
 		switch (genusString) {
 			case "Masc":
 				return Genus.MASKULINUM;
@@ -544,7 +579,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static Tempus tempusBestimmen(final String tempusString) {
+	static Tempus tempusBestimmen(final String tempusString) {
 		switch (tempusString) {
 			case "Pres":
 				return Tempus.PRAESENS;
@@ -555,7 +590,7 @@ public class RFTagParser implements Quelle {
 		}
 	}
 	
-	private static Modus modusBestimmen(final String modusString) {
+	static Modus modusBestimmen(final String modusString) {
 		switch (modusString) {
 			case "Ind":
 				return Modus.INDIKATIV;
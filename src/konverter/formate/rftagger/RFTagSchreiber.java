@@ -6,14 +6,22 @@
 package konverter.formate.rftagger;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 import konverter.daten.Item;
+import konverter.daten.Itemfeld;
 import konverter.daten.Genus;
 import konverter.daten.Kasus;
 import konverter.daten.Modus;
 import konverter.daten.Numerus;
+import konverter.daten.POS;
+import konverter.daten.Satzblock;
 import konverter.daten.Person;
 import konverter.daten.Steigerungsstufe;
+import konverter.daten.Tagcode;
+import konverter.daten.Tagtabelle;
 import konverter.daten.Tempus;
 import konverter.daten.Itemtyp;
 import konverter.exception.Arbeitsschritt;
@@ -22,430 +30,467 @@ import konverter.konvertierung.Senke;
 
 public class RFTagSchreiber implements Senke {
 
+	private static final Tagtabelle TAGS = new Tagtabelle(RFTagSchreiber::tagzeileSchreiben);
+
+	// ohne Index und Lemma
+	private static final Set<Itemfeld> FELDER = Collections.unmodifiableSet(EnumSet.of(Itemfeld.FORM, Itemfeld.TAG));
+
 	private final Appendable pTarget;
 
 	public RFTagSchreiber(final Appendable target) {
 		pTarget = target;
 	}
 
+	@Override
+	public Set<Itemfeld> felder() {
+		return FELDER;
+	}
+	
 	@Override
 	public void next(final Item token) throws IOException, KonverterException {
-		if (token.typ == Itemtyp.TOKEN) {
-			pTarget.append(token.form);
-			pTarget.append('\t');
-			tagSchreiben(token);
+		schreiben(token);
+	}
+	
+	@Override
+	public void next(final Satzblock block) throws IOException, KonverterException {
+		final CharSequence zeichen = block.zeichenfolge();
+		int token = 0;
+		for (int satz = 0; satz <= block.satzanzahl; satz++) {
+			for (final int ende = block.satzende(satz); token < ende; token++)
+				tokenSchreiben(zeichen, block.formAnfang[token], block.formEnde[token], block.tagcodes[token]);
+			if (satz < block.satzanzahl)
+				pTarget.append('\n');
 		}
-		pTarget.append('\n');
 	}
 	
-	private void tagSchreiben(final Item token) throws IOException, KonverterException {
-		switch (token.pos) {
+	private void schreiben(final Item token) throws IOException, KonverterException {
+		if (token.typ == Itemtyp.TOKEN)
+			tokenSchreiben(token.form, 0, token.form.length(), token.tagcode);
+		else
+			pTarget.append('\n');
+	}
+	
+	private void tokenSchreiben(final CharSequence form, final int formVon, final int formBis, final int tagcode) throws IOException, KonverterException {
+		pTarget.append(form, formVon, formBis);
+		TAGS.schreiben(tagcode, pTarget);
+	}
+	
+	// Tabulator, Tag und Zeilenende
+	private static void tagzeileSchreiben(final int code, final Appendable ziel) throws IOException, KonverterException {
+		ziel.append('\t');
+		tagSchreiben(ziel, code);
+		ziel.append('\n');
+	}
+	
+	private static void tagSchreiben(final Appendable ziel, final int code) throws IOException, KonverterException {
+		final POS pos = Tagcode.pos(code);
+		switch (pos) {
 			case ADJEKTIV_ATTRIBUTIV:
-				pTarget.append("ADJA");
-				featureAusgeben(token.grad);
-				kngAusgeben(token);
+				ziel.append("ADJA");
+				featureAusgeben(ziel, Tagcode.grad(code));
+				kngAusgeben(ziel, code);
 				break;
 			case ADJEKTIV_PRAEDIKATIV:
-				pTarget.append("ADJD");
-				featureAusgeben(token.grad);
+				ziel.append("ADJD");
+				featureAusgeben(ziel, Tagcode.grad(code));
 				break;
 			case ADVERB:
-				pTarget.append("ADV");
+				ziel.append("ADV");
 				break;
 			case POSTPOSITION:
-				pTarget.append("APPO");
+				ziel.append("APPO");
 				break;
 			case PRAEPOSITION:
-				pTarget.append("APPR");
+				ziel.append("APPR");
 				break;
 			case PRAEPOSITION_MIT_ARTIKEL:
-				pTarget.append("APPRART");
-				kngAusgeben(token);
+				ziel.append("APPRART");
+				kngAusgeben(ziel, code);
 				break;
 			case RECHTER_TEIL_EINER_ZIRKUMPOSITION:
-				pTarget.append("APZR");
+				ziel.append("APZR");
 				break;
 			case BESTIMMTER_ARTIKEL:
-				pTarget.append("ART.Def");
-				kngAusgeben(token);
+				ziel.append("ART.Def");
+				kngAusgeben(ziel, code);
 				break;
 			case UNBESTIMMTER_ARTIKEL:
-				pTarget.append("ART.Indef");
-				kngAusgeben(token);
+				ziel.append("ART.Indef");
+				kngAusgeben(ziel, code);
 				break;
 			case KARDINALZAHL:
-				pTarget.append("CARD");
+				ziel.append("CARD");
 				break;
 			case VERGLEICHSPARTIKEL:
-				pTarget.append("CONJ.Comp");
+				ziel.append("CONJ.Comp");
 				break;
 			case BEIORDNENDE_KONJUNKTION:
-				pTarget.append("CONJ.Coord");
+				ziel.append("CONJ.Coord");
 				break;
 			case KONJUNKTION_MIT_FINITEM_NEBENSATZ:
-				pTarget.append("CONJ.SubFin");
+				ziel.append("CONJ.SubFin");
 				break;
 			case KONJUNKTION_MIT_INFINITIV_MIT_ZU:
-				pTarget.append("CONJ.SubInf");
+				ziel.append("CONJ.SubInf");
 				break;
 			case FREMDSPRACHLICHES_MATERIAL:
-				pTarget.append("FM");
+				ziel.append("FM");
 				break;
 			case INTERJEKTION:
-				pTarget.append("ITJ");
+				ziel.append("ITJ");
 				break;
 			case EIGENNAME:
-				pTarget.append("N.Name");
-				kngAusgeben(token);
+				ziel.append("N.Name");
+				kngAusgeben(ziel, code);
 				break;
 			case SUBSTANTIV:
-				pTarget.append("N.Reg");
-				kngAusgeben(token);
+				ziel.append("N.Reg");
+				kngAusgeben(ziel, code);
 				break;
 			case ANTWORTPARTIKEL:
-				pTarget.append("PART.Ans");
+				ziel.append("PART.Ans");
 				break;
 			case GRADPARTIKEL:
-				pTarget.append("PART.Deg");
+				ziel.append("PART.Deg");
 				break;
 			case NEGATIONSPARTIKEL:
-				pTarget.append("PART.Neg");
+				ziel.append("PART.Neg");
 				break;
 			case VERBPRAEFIX:
-				pTarget.append("PART.Verb");
+				ziel.append("PART.Verb");
 				break;
 			case PARTIKEL_ZU:
-				pTarget.append("PART.Zu");
+				ziel.append("PART.Zu");
 				break;
 			case ATTRIBUTIVES_DEMONSTRATIVPRONOMEN:
-				pTarget.append("PRO.Dem.Attr");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Dem.Attr");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case SUBSTITUIERENDES_DEMONSTRATIVPRONOMEN:
-				pTarget.append("PRO.Dem.Subst");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Dem.Subst");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case ATTRIBUTIVES_INDEFINITPRONOMEN:
 			case ATTRIBUTIVES_INDEFINITPRONOMEN_MIT_ARTIKEL:
 				// PIDAT wurde nicht benutzt
-				pTarget.append("PRO.Indef.Attr");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Indef.Attr");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case SUBSTITUIERENDES_INDEFINITPRONOMEN:
-				pTarget.append("PRO.Indef.Subst");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Indef.Subst");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case ATTRIBUTIVES_INTERROGATIVPRONOMEN:
-				pTarget.append("PRO.Inter.Attr");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Inter.Attr");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case SUBSTITUIERENDES_INTERROGATIVPRONOMEN:
-				pTarget.append("PRO.Inter.Subst");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Inter.Subst");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case PERSONALPRONOMEN:
-				pTarget.append("PRO.Pers.Subst");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Pers.Subst");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case ATTRIBUTIVES_POSSESSIVPRONOMEN:
-				pTarget.append("PRO.Poss.Attr");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Poss.Attr");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case SUBSTITUIERENDES_POSSESSIVPRONOMEN:
-				pTarget.append("PRO.Poss.Subst");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Poss.Subst");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case REFLEXIVPRONOMEN:
-				pTarget.append("PRO.Refl.Subst");
-				featureAusgeben(token.person);
-				kngAusgeben(token, false);
+				ziel.append("PRO.Refl.Subst");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code, false);
 				break;
 			case ATTRIBUTIVES_RELATIVPRONOMEN:
-				pTarget.append("PRO.Rel.Attr");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Rel.Attr");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case SUBSTITUIERENDES_RELATIVPRONOMEN:
-				pTarget.append("PRO.Rel.Subst");
-				featureAusgeben(token.person);
-				kngAusgeben(token);
+				ziel.append("PRO.Rel.Subst");
+				featureAusgeben(ziel, Tagcode.person(code));
+				kngAusgeben(ziel, code);
 				break;
 			case PRONOMINALADVERB:
-				pTarget.append("PROADV.Dem");
+				ziel.append("PROADV.Dem");
 				break;
 			case ADVERBIALES_INTERROGATIVPRONOMEN:
-				pTarget.append("PROADV.Inter");
+				ziel.append("PROADV.Inter");
 				break;
 			case STERNCHEN:
-				pTarget.append("SYM.Other.Aster");
+				ziel.append("SYM.Other.Aster");
 				break;
 			case APOSTROPH:
-				pTarget.append("SYM.Pun.Apos");
+				ziel.append("SYM.Pun.Apos");
 				break;
 			case AUTH:
-				pTarget.append("SYM.Other.Auth");
+				ziel.append("SYM.Other.Auth");
 				break;
 			case NICHTWORT:
-				pTarget.append("SYM.Other.XY");
+				ziel.append("SYM.Other.XY");
 				break;
 			case OEFFNENDE_KLAMMER:
-				pTarget.append("SYM.Paren.Left");
+				ziel.append("SYM.Paren.Left");
 				break;
 			case SCHLIESSENDE_KLAMMER:
-				pTarget.append("SYM.Paren.Right");
+				ziel.append("SYM.Paren.Right");
 				break;
 			case DOPPELPUNKT:
-				pTarget.append("SYM.Pun.Colon");
+				ziel.append("SYM.Pun.Colon");
 				break;
 			case KOMMA:
-				pTarget.append("SYM.Pun.Comma");
+				ziel.append("SYM.Pun.Comma");
 				break;
 			case AUSLASSUNGSPUNKTE:
-				pTarget.append("SYM.Pun.Cont");
+				ziel.append("SYM.Pun.Cont");
 				break;
 			case BINDESTRICH:
-				pTarget.append("SYM.Pun.Hyph");
+				ziel.append("SYM.Pun.Hyph");
 				break;
 			case SONSTIGE_INTERPUNKTION:
-				pTarget.append("SYM.Pun.Other");
+				ziel.append("SYM.Pun.Other");
 				break;
 			case SATZENDE:
-				pTarget.append("SYM.Pun.Sent");
+				ziel.append("SYM.Pun.Sent");
 				break;
 			case SLASH:
-				pTarget.append("SYM.Pun.Slash");
+				ziel.append("SYM.Pun.Slash");
 				break;
 			case OEFFNENDES_ANFUEHRUNGSZEICHEN:
-				pTarget.append("SYM.Quot.Left");
+				ziel.append("SYM.Quot.Left");
 				break;
 			case SCHLIESSENDES_ANFUEHRUNGSZEICHEN:
-				pTarget.append("SYM.Quot.Right");
+				ziel.append("SYM.Quot.Right");
 				break;
 			case ABGETRENNTES_ADJEKTIVRESTGLIED:
-				pTarget.append("TRUNC.Adj");
+				ziel.append("TRUNC.Adj");
 				break;
 			case ABGETRENNTES_SUBSTANTIVRESTGLIED:
-				pTarget.append("TRUNC.Noun");
+				ziel.append("TRUNC.Noun");
 				break;
 			case ABGETRENNTES_VERBRESTGLIED:
-				pTarget.append("TRUNC.Verb");
+				ziel.append("TRUNC.Verb");
 				break;
 			case ABGETRENNTES_SONSTIGES_RESTGLIED:
-				pTarget.append("TRUNC.-");
+				ziel.append("TRUNC.-");
 				break;
 			case HILFSVERB_FINIT:
-				pTarget.append("VFIN.Aux");
-				pntmAusgeben(token);
+				ziel.append("VFIN.Aux");
+				pntmAusgeben(ziel, code);
 				break;
 			case HILFSVERB_IMPERATIV:
-				pTarget.append("VIMP.Aux");
-				pnAusgeben(token);
+				ziel.append("VIMP.Aux");
+				pnAusgeben(ziel, code);
 				break;
 			case HILFSVERB_INFINITIV:
-				pTarget.append("VINF.Aux.-");
+				ziel.append("VINF.Aux.-");
 				break;
 			case HILFSVERB_PARTIZIP:
-				pTarget.append("VPP.Aux");
+				ziel.append("VPP.Aux");
 				break;
 			case MODALVERB_FINIT:
-				pTarget.append("VFIN.Mod");
-				pntmAusgeben(token);
+				ziel.append("VFIN.Mod");
+				pntmAusgeben(ziel, code);
 				break;
 			case MODALVERB_INFINITIV:
-				pTarget.append("VINF.Mod.-");
+				ziel.append("VINF.Mod.-");
 				break;
 			case MODALVERB_PARTIZIP:
-				pTarget.append("VPP.Mod");
+				ziel.append("VPP.Mod");
 				break;
 			case VOLLVERB_FINIT:
-				pTarget.append("VFIN.Full");
-				pntmAusgeben(token);
+				ziel.append("VFIN.Full");
+				pntmAusgeben(ziel, code);
 				break;
 			case VOLLVERB_IMPERATIV:
-				pTarget.append("VIMP.Full");
-				pnAusgeben(token);
+				ziel.append("VIMP.Full");
+				pnAusgeben(ziel, code);
 				break;
 			case VOLLVERB_INFINITIV:
-				pTarget.append("VINF.Full.-");
+				ziel.append("VINF.Full.-");
 				break;
 			case VOLLVERB_INFINITIV_MIT_ZU:
-				pTarget.append("VINF.Full.zu");
+				ziel.append("VINF.Full.zu");
 				break;
 			case VOLLVERB_PARTIZIP:
-				pTarget.append("VPP.Full");
+				ziel.append("VPP.Full");
 				break;
 			default:
 				// sollte nie eintreten, da alle Konstanten abgedeckt sind
-				throw new KonverterException(token.pos.name() + " kann im Tiger-Format nicht dargestellt werden.", Arbeitsschritt.KONVERTIEREN);
+				throw new KonverterException(pos.name() + " kann im Tiger-Format nicht dargestellt werden.", Arbeitsschritt.KONVERTIEREN);
 		}
 	}
 	
-	private void kngAusgeben(final Item token) throws IOException, KonverterException {
-		kngAusgeben(token, true);
+	private static void kngAusgeben(final Appendable ziel, final int code) throws IOException, KonverterException {
+		kngAusgeben(ziel, code, true);
 	}
 	
-	private void kngAusgeben(final Item token, final boolean genusErforderlich) throws IOException, KonverterException {
-		featureAusgeben(token.kasus);
-		featureAusgeben(token.numerus);
-		featureAusgeben(token.genus, genusErforderlich);
+	private static void kngAusgeben(final Appendable ziel, final int code, final boolean genusErforderlich) throws IOException, KonverterException {
+		featureAusgeben(ziel, Tagcode.kasus(code));
+		featureAusgeben(ziel, Tagcode.numerus(code));
+		featureAusgeben(ziel, Tagcode.genus(code), genusErforderlich);
 	}
 	
-	private void pntmAusgeben(final Item token) throws IOException {
-		pnAusgeben(token);
-		featureAusgeben(token.tempus);
-		featureAusgeben(token.modus);
+	private static void pntmAusgeben(final Appendable ziel, final int code) throws IOException {
+		pnAusgeben(ziel, code);
+		featureAusgeben(ziel, Tagcode.tempus(code));
+		featureAusgeben(ziel, Tagcode.modus(code));
 	}
 	
-	private void pnAusgeben(final Item token) throws IOException, KonverterException {
-		featureAusgeben(token.person);
-		featureAusgeben(token.numerus);
+	private static void pnAusgeben(final Appendable ziel, final int code) throws IOException, KonverterException {
+		featureAusgeben(ziel, Tagcode.person(code));
+		featureAusgeben(ziel, Tagcode.numerus(code));
 	}
 	
-	private void featureAusgeben(final Steigerungsstufe grad) throws IOException, KonverterException {
+	private static void featureAusgeben(final Appendable ziel, final Steigerungsstufe grad) throws IOException, KonverterException {
 		if (grad == null)
 			throw new IllegalArgumentException();
-		pTarget.append('.');
+		ziel.append('.');
 		switch (grad) {
 			case POSITIV:
-				pTarget.append("Pos");
+				ziel.append("Pos");
 				break;
 			case KOMPARATIV:
-				pTarget.append("Comp");
+				ziel.append("Comp");
 				break;
 			case SUPERLATIV:
-				pTarget.append("Sup");
+				ziel.append("Sup");
 				break;
 			default:
 				throw unbekannteKonstante(grad, "Grad");
 		}
 	}
 	
-	private void featureAusgeben(final Kasus kasus) throws IOException, KonverterException {
+	private static void featureAusgeben(final Appendable ziel, final Kasus kasus) throws IOException, KonverterException {
 		if (kasus == null)
 			throw new IllegalArgumentException();
-		pTarget.append('.');
+		ziel.append('.');
 		switch (kasus) {
 			case NOMINATIV:
-				pTarget.append("Nom");
+				ziel.append("Nom");
 				break;
 			case GENITIV:
-				pTarget.append("Gen");
+				ziel.append("Gen");
 				break;
 			case DATIV:
-				pTarget.append("Dat");
+				ziel.append("Dat");
 				break;
 			case AKKUSATIV:
-				pTarget.append("Acc");
+				ziel.append("Acc");
 				break;
 			case UNTERSPEZIFIZIERT:
-				pTarget.append('*');
+				ziel.append('*');
 				break;
 			default:
 				throw unbekannteKonstante(kasus, "Kasus");
 		}
 	}
 	
-	private void featureAusgeben(final Numerus numerus) throws IOException, KonverterException {
+	private static void featureAusgeben(final Appendable ziel, final Numerus numerus) throws IOException, KonverterException {
 		if (numerus == null)
 			throw new IllegalArgumentException();
-		pTarget.append('.');
+		ziel.append('.');
 		switch (numerus) {
 			case SINGULAR:
-				pTarget.append("Sg");
+				ziel.append("Sg");
 				break;
 			case PLURAL:
-				pTarget.append("Pl");
+				ziel.append("Pl");
 				break;
 			case UNTERSPEZIFIZIERT:
-				pTarget.append('*');
+				ziel.append('*');
 				break;
 			default:
 				throw unbekannteKonstante(numerus, "Numerus");
 		}
 	}
 	
-	private void featureAusgeben(final Genus genus, final boolean erforderlich) throws IOException, KonverterException {
+	private static void featureAusgeben(final Appendable ziel, final Genus genus, final boolean erforderlich) throws IOException, KonverterException {
 		if (genus == null) {
 			if (erforderlich)
 				throw new IllegalArgumentException();
-			pTarget.append(".-");
+			ziel.append(".-");
 			return;
 		}
-		pTarget.append('.');
+		ziel.append('.');
 		switch (genus) {
 			case MASKULINUM:
-				pTarget.append("Masc");
+				ziel.append("Masc");
 				break;
 			case FEMININUM:
-				pTarget.append("Fem");
+				ziel.append("Fem");
 				break;
 			case NEUTRUM:
-				pTarget.append("Neut");
+				ziel.append("Neut");
 				break;
 			case UNTERSPEZIFIZIERT:
-				pTarget.append('*');
+				ziel.append('*');
 				break;
 			default:
 				throw unbekannteKonstante(genus, "Genus");
 		}
 	}
 	
-	private void featureAusgeben(final Person person) throws IOException, KonverterException {
-		pTarget.append('.');
+	private static void featureAusgeben(final Appendable ziel, final Person person) throws IOException, KonverterException {
+		ziel.append('.');
 		if (person == null) {
-			pTarget.append('-');
+			ziel.append('-');
 			return;
 		}
 		switch (person) {
 			case ERSTE:
-				pTarget.append('1');
+				ziel.append('1');
 				break;
 			case ZWEITE:
-				pTarget.append('2');
+				ziel.append('2');
 				break;
 			case DRITTE:
-				pTarget.append('3');
+				ziel.append('3');
 				break;
 			default:
 				throw new KonverterException("Person nicht vorgesehen: " + person.name(), Arbeitsschritt.AUSGEBEN);
 		}
 	}
 	
-	private void featureAusgeben(final Tempus tempus) throws IOException, KonverterException {
+	private static void featureAusgeben(final Appendable ziel, final Tempus tempus) throws IOException, KonverterException {
 		if (tempus == null)
 			throw new IllegalArgumentException();
-		pTarget.append('.');
+		ziel.append('.');
 		switch (tempus) {
 			case PRAESENS:
-				pTarget.append("Pres");
+				ziel.append("Pres");
 				break;
 			case PRAETERITUM:
-				pTarget.append("Past");
+				ziel.append("Past");
 				break;
 			default:
 				throw unbekannteKonstante(tempus, "Tempus");
 		}
 	}
 	
-	private void featureAusgeben(final Modus modus) throws IOException {
+	private static void featureAusgeben(final Appendable ziel, final Modus modus) throws IOException {
 		if (modus == null)
 			throw new IllegalArgumentException();
-		pTarget.append('.');
+		ziel.append('.');
 		switch (modus) {
 			case INDIKATIV:
-				pTarget.append("Ind");
+				ziel.append("Ind");
 				break;
 			case KONJUNKTIV:
-				pTarget.append("Subj");
+				ziel.append("Subj");
 				break;
 			default:
 				throw unbekannteKonstante(modus, "Modus");
@@ -5,11 +5,16 @@
  */
 package konverter.formate.rftagger;
 
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 
+import konverter.konvertierung.StromAusgabe;
+import konverter.konvertierung.StromEingabe;
 import konverter.konvertierung.TextdateiAusgabe;
 import konverter.konvertierung.TextdateiEingabe;
+import konverter.konvertierung.Verfahren;
 
 
 public class RFTagger {
@@ -18,8 +23,24 @@ public class RFTagger {
 		return new TextdateiAusgabe(file, charset, RFTagSchreiber::new);
 	}
 	
+	public static TextdateiAusgabe ausgabe(final Path file, final Charset charset, final int puffergroesse, final int pufferanzahl) {
+		return new TextdateiAusgabe(file, charset, RFTagSchreiber::new, puffergroesse, pufferanzahl);
+	}
+	
 	public static TextdateiEingabe eingabe(final Path file, final Charset charset) {
-		return new TextdateiEingabe(file, charset, RFTagParser::new);
+		return new TextdateiEingabe(file, charset, leser -> new RFTagParser(leser, true));
+	}
+	
+	public static TextdateiEingabe eingabe(final Path file, final Charset charset, final Verfahren verfahren) {
+		return new TextdateiEingabe(file, charset, leser -> new RFTagParser(leser, true), verfahren);
+	}
+	
+	public static StromAusgabe ausgabe(final WritableByteChannel kanal, final Charset charset, final int puffergroesse, final int pufferanzahl) {
+		return new StromAusgabe(kanal, charset, RFTagSchreiber::new, puffergroesse, pufferanzahl);
+	}
+	
+	public static StromEingabe eingabe(final InputStream strom, final Charset charset, final boolean satzweise) {
+		return new StromEingabe(strom, charset, leser -> new RFTagParser(leser, true), satzweise);
 	}
 	
 }
@@ -0,0 +1,307 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.formate.rftagger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import konverter.daten.Genus;
+import konverter.daten.Kasus;
+import konverter.daten.Modus;
+import konverter.daten.Numerus;
+import konverter.daten.POS;
+import konverter.daten.Person;
+import konverter.daten.Steigerungsstufe;
+import konverter.daten.Tagcode;
+import konverter.daten.Tempus;
+import konverter.exception.KonverterException;
+
+// Deterministischer Automat, der ein RFTagger-Tag in einem Durchlauf Zeichen
+// für Zeichen liest und dabei den Tagcode zusammensetzt. Er wird beim Laden
+// der Klasse aus den Wortlisten der Tag-Bestandteile erzeugt; die Werte der
+// Bestandteile liefern dabei die Bestimmen-Methoden von RFTagParser, es gibt
+// also keine zweite Zuordnung von Namen zu Konstanten.
+// Der Automat erkennt nur die gewöhnliche Schreibweise der gültigen Tags.
+// Alles andere (auch Fehler) geht an RFTagParser.analysieren, dadurch werden
+// genau dieselben Tags angenommen und dieselben Fehler geworfen wie bisher.
+public final class Tagautomat {
+	
+	private static final int ABGELEHNT = 0;
+	private static final int START = 1;
+	
+	// Zeichenklassen: 0 für alle Zeichen, die in keinem Tag vorkommen
+	private static final int[] KLASSEN = new int[128];
+	private static final int PUNKT;
+	private static final int KLASSENANZAHL;
+	
+	// Übergänge zustand * KLASSENANZAHL + klasse, 0 = abgelehnt
+	private static final int[] UEBERGAENGE;
+	// Beitrag zum Tagcode beim Verlassen eines Zustands über '.' oder am Ende
+	private static final int[] AUSGABEN;
+	private static final boolean[] ENDZUSTAENDE;
+	
+	static {
+		final Erzeugung erzeugung = new Erzeugung();
+		PUNKT = erzeugung.pKlassen.get('.');
+		KLASSENANZAHL = erzeugung.pKlassen.size() + 1;
+		for (final Map.Entry<Character, Integer> klasse : erzeugung.pKlassen.entrySet())
+			KLASSEN[klasse.getKey()] = klasse.getValue();
+		UEBERGAENGE = erzeugung.uebergaenge(KLASSENANZAHL);
+		AUSGABEN = erzeugung.ausgaben();
+		ENDZUSTAENDE = erzeugung.endzustaende();
+	}
+	
+	private Tagautomat() {}
+	
+	public static int analysieren(final String tagString) throws KonverterException {
+		return analysieren(tagString, 0, tagString.length());
+	}
+	
+	// analysiert text.subSequence(von, bis)
+	public static int analysieren(final CharSequence text, final int von, final int bis) throws KonverterException {
+		int zustand = START;
+		int code = 0;
+		for (int i = von; i < bis; i++) {
+			final char zeichen = text.charAt(i);
+			final int klasse = (zeichen < KLASSEN.length) ? KLASSEN[zeichen] : 0;
+			if (klasse == PUNKT)
+				code |= AUSGABEN[zustand];
+			zustand = UEBERGAENGE[zustand * KLASSENANZAHL + klasse];
+			if (zustand == ABGELEHNT)
+				return RFTagParser.analysieren(text.subSequence(von, bis).toString());
+		}
+		if (!ENDZUSTAENDE[zustand])
+			return RFTagParser.analysieren(text.subSequence(von, bis).toString());
+		return code | AUSGABEN[zustand];
+	}
+	
+	// Aufbau des Automaten: für jede Wortart eine Kette von Abschnitten, jeder
+	// Abschnitt ein Trie über seine Wörter; die Endzustände eines Abschnitts
+	// führen über '.' zum Anfang des nächsten
+	private static final class Erzeugung {
+		
+		private final Map<Character, Integer> pKlassen = new LinkedHashMap<>();
+		private final List<Map<Integer, Integer>> pUebergaenge = new ArrayList<>();
+		private final List<Integer> pAusgaben = new ArrayList<>();
+		private final List<Boolean> pEndzustaende = new ArrayList<>();
+		// Paare aus Anfangs- und Folgezustand der nicht geprüften Abschnitte
+		private final List<int[]> pRestabschnitte = new ArrayList<>();
+		
+		Erzeugung() {
+			zeichenklasse('.');
+			zustand(); // ABGELEHNT
+			zustand(); // START
+			
+			final Map<String, Integer> grad = woerter(RFTagParser::gradBestimmen, "Pos", "Comp", "Sup");
+			final Map<String, Integer> kasus = woerter(RFTagParser::kasusBestimmen, "Nom", "Gen", "Dat", "Acc", "*");
+			final Map<String, Integer> numerus = woerter(RFTagParser::numerusBestimmen, "Sg", "Pl", "*");
+			final Map<String, Integer> genus = woerter(RFTagParser::genusBestimmen, "Masc", "Fem", "Neut", "*");
+			final Map<String, Integer> genusOptional = woerter(w -> RFTagParser.genusBestimmen(w, true), "Masc", "Fem", "Neut", "*", "-");
+			final Map<String, Integer> person = woerter(RFTagParser::personBestimmen, "1", "2", "3");
+			final Map<String, Integer> personOptional = woerter(w -> RFTagParser.personBestimmen(w, true), "1", "2", "3", "-");
+			final Map<String, Integer> tempus = woerter(RFTagParser::tempusBestimmen, "Pres", "Past");
+			final Map<String, Integer> modus = woerter(RFTagParser::modusBestimmen, "Ind", "Subj");
+			final String[] verbtypen = { "Full", "Aux", "Mod" };
+			
+			wortart("ADJA", POS.ADJEKTIV_ATTRIBUTIV, false, grad, kasus, numerus, genus);
+			wortart("ADJD", POS.ADJEKTIV_PRAEDIKATIV, false, grad);
+			wortart("ADV", POS.ADVERB, false);
+			wortart("APPO", POS.POSTPOSITION, true);
+			wortart("APPR", POS.PRAEPOSITION, true);
+			wortart("APPRART", POS.PRAEPOSITION_MIT_ARTIKEL, false, kasus, numerus, genus);
+			wortart("APZR", POS.RECHTER_TEIL_EINER_ZIRKUMPOSITION, false);
+			wortart("ART", null, false, woerter(RFTagParser::definitheitBestimmen, "Def", "Indef"), kasus, numerus, genus);
+			wortart("CARD", POS.KARDINALZAHL, false);
+			wortart("CONJ", null, false, woerter(RFTagParser::konjunktionstypBestimmen, "Comp", "Coord", "SubFin", "SubInf"));
+			wortart("FM", POS.FREMDSPRACHLICHES_MATERIAL, false);
+			wortart("ITJ", POS.INTERJEKTION, false);
+			wortart("N", null, false, woerter(RFTagParser::substantivtypBestimmen, "Reg", "Name"), kasus, numerus, genus);
+			wortart("PART", null, false, woerter(RFTagParser::partikeltypBestimmen, "Ans", "Deg", "Neg", "Zu", "Verb"));
+			wortart("PRO", null, false,
+					paare(RFTagParser::pronomentypBestimmen, new String[] { "Pers", "Poss", "Dem", "Indef", "Inter", "Refl", "Rel" }, new String[] { "Attr", "Subst" }),
+					personOptional, kasus, numerus, genusOptional);
+			wortart("PROADV", null, false, woerter(RFTagParser::pronominaladverbtypBestimmen, "Dem", "Inter"));
+			wortart("SYM", null, false,
+					paare(RFTagParser::symboltypBestimmen, new String[] { "Pun", "Quot", "Paren", "Other" },
+							new String[] { "Colon", "Comma", "Sent", "Hyph", "Slash", "Cont", "Apos", "Other", "Left", "Right", "Aster", "Auth", "XY" }));
+			wortart("TRUNC", null, false, woerter(RFTagParser::restgliedtypBestimmen, "Adj", "Noun", "Verb", "-"));
+			wortart("VFIN", null, false,
+					woerter(w -> RFTagParser.verbtypBestimmen(w, POS.VOLLVERB_FINIT, POS.HILFSVERB_FINIT, POS.MODALVERB_FINIT), verbtypen),
+					person, numerus, tempus, modus);
+			wortart("VIMP", null, true, woerter(RFTagParser::verbtypBestimmenImperativ, verbtypen), person, numerus);
+			wortart("VINF", null, false, paare(RFTagParser::verbtypBestimmenInfinitiv, verbtypen, new String[] { "zu", "-" }));
+			wortart("VPP", null, true,
+					woerter(w -> RFTagParser.verbtypBestimmen(w, POS.VOLLVERB_PARTIZIP, POS.HILFSVERB_PARTIZIP, POS.MODALVERB_PARTIZIP), verbtypen));
+			vervollstaendigen();
+		}
+		
+		// Wörter, für die bestimmen keine Exception wirft, mit ihrem Tagcode
+		private static Map<String, Integer> woerter(final Function<String, ?> bestimmen, final String... woerter) {
+			final Map<String, Integer> result = new LinkedHashMap<>();
+			for (final String wort : woerter) {
+				try {
+					result.put(wort, kodieren(bestimmen.apply(wort)));
+				} catch (final KonverterException e) {
+					// kein gültiges Wort, bleibt dem Fehlerpfad überlassen
+				}
+			}
+			return result;
+		}
+		
+		// zwei voneinander abhängige Abschnitte als ein Wort "erstes.zweites"
+		private static Map<String, Integer> paare(final Paarbestimmung bestimmen, final String[] ersteWoerter, final String[] zweiteWoerter) {
+			final Map<String, Integer> result = new LinkedHashMap<>();
+			for (final String erstes : ersteWoerter) {
+				for (final String zweites : zweiteWoerter) {
+					try {
+						result.put(erstes + '.' + zweites, kodieren(bestimmen.bestimmen(erstes, zweites)));
+					} catch (final KonverterException e) {
+						// keine gültige Kombination
+					}
+				}
+			}
+			return result;
+		}
+		
+		private interface Paarbestimmung {
+			Object bestimmen(String erstes, String zweites);
+		}
+		
+		private static int kodieren(final Object wert) {
+			if (wert == null)
+				return 0;
+			if (wert instanceof POS)
+				return Tagcode.kodieren((POS) wert);
+			if (wert instanceof Steigerungsstufe)
+				return Tagcode.kodieren((Steigerungsstufe) wert);
+			if (wert instanceof Kasus)
+				return Tagcode.kodieren((Kasus) wert);
+			if (wert instanceof Numerus)
+				return Tagcode.kodieren((Numerus) wert);
+			if (wert instanceof Genus)
+				return Tagcode.kodieren((Genus) wert);
+			if (wert instanceof Person)
+				return Tagcode.kodieren((Person) wert);
+			if (wert instanceof Tempus)
+				return Tagcode.kodieren((Tempus) wert);
+			if (wert instanceof Modus)
+				return Tagcode.kodieren((Modus) wert);
+			throw new IllegalArgumentException(wert.toString());
+		}
+		
+		// mitBeliebigemRest: ein weiterer, nicht geprüfter Abschnitt ist erlaubt
+		@SafeVarargs
+		private final void wortart(final String name, final POS pos, final boolean mitBeliebigemRest, final Map<String, Integer>... abschnitte) {
+			List<Integer> enden = einfuegen(START, Collections.singletonMap(name, (pos == null) ? 0 : Tagcode.kodieren(pos)));
+			for (final Map<String, Integer> abschnitt : abschnitte)
+				enden = einfuegen(punkt(enden), abschnitt);
+			for (final int ende : enden)
+				pEndzustaende.set(ende, true);
+			if (mitBeliebigemRest) {
+				// die Übergänge werden erst in vervollstaendigen angelegt, wenn
+				// alle Zeichenklassen bekannt sind
+				final int rest = zustand();
+				pEndzustaende.set(rest, true);
+				pRestabschnitte.add(new int[] { punkt(enden), rest });
+			}
+		}
+		
+		private void vervollstaendigen() {
+			for (final int[] restabschnitt : pRestabschnitte) {
+				for (int klasse = 0; klasse <= pKlassen.size(); klasse++) {
+					if (klasse != pKlassen.get('.')) {
+						uebergang(restabschnitt[0], klasse, restabschnitt[1]);
+						uebergang(restabschnitt[1], klasse, restabschnitt[1]);
+					}
+				}
+			}
+		}
+		
+		// gemeinsamer Übergang über '.' von allen Endzuständen zu einem neuen Anfang
+		private int punkt(final List<Integer> enden) {
+			final int anfang = zustand();
+			for (final int ende : enden)
+				uebergang(ende, pKlassen.get('.'), anfang);
+			return anfang;
+		}
+		
+		// fügt die Wörter als Trie hinter den Anfangszustand ein und liefert die Endzustände
+		private List<Integer> einfuegen(final int anfang, final Map<String, Integer> woerter) {
+			final List<Integer> enden = new ArrayList<>();
+			for (final Map.Entry<String, Integer> wort : woerter.entrySet()) {
+				int zustand = anfang;
+				for (final char zeichen : wort.getKey().toCharArray()) {
+					final int klasse = zeichenklasse(zeichen);
+					final Integer naechster = pUebergaenge.get(zustand).get(klasse);
+					if (naechster == null) {
+						final int neu = zustand();
+						uebergang(zustand, klasse, neu);
+						zustand = neu;
+					} else {
+						zustand = naechster;
+					}
+				}
+				pAusgaben.set(zustand, wort.getValue());
+				enden.add(zustand);
+			}
+			return enden;
+		}
+		
+		private int zeichenklasse(final char zeichen) {
+			if (zeichen >= KLASSEN.length)
+				throw new IllegalStateException("Kein ASCII-Zeichen: " + zeichen);
+			Integer klasse = pKlassen.get(zeichen);
+			if (klasse == null) {
+				klasse = pKlassen.size() + 1;
+				pKlassen.put(zeichen, klasse);
+			}
+			return klasse;
+		}
+		
+		private int zustand() {
+			pUebergaenge.add(new LinkedHashMap<>());
+			pAusgaben.add(0);
+			pEndzustaende.add(false);
+			return pUebergaenge.size() - 1;
+		}
+		
+		private void uebergang(final int von, final int klasse, final int nach) {
+			final Integer vorhanden = pUebergaenge.get(von).put(klasse, nach);
+			// ein Wort darf nicht mit Punkt in ein anderes übergehen, sonst wäre
+			// der Automat nicht deterministisch
+			if ((vorhanden != null) && (vorhanden != nach))
+				throw new IllegalStateException("Mehrdeutiger Übergang");
+		}
+		
+		int[] uebergaenge(final int klassenanzahl) {
+			final int[] result = new int[pUebergaenge.size() * klassenanzahl];
+			for (int zustand = 0; zustand < pUebergaenge.size(); zustand++)
+				for (final Map.Entry<Integer, Integer> uebergang : pUebergaenge.get(zustand).entrySet())
+					result[zustand * klassenanzahl + uebergang.getKey()] = uebergang.getValue();
+			return result;
+		}
+		
+		int[] ausgaben() {
+			final int[] result = new int[pAusgaben.size()];
+			for (int i = 0; i < result.length; i++)
+				result[i] = pAusgaben.get(i);
+			return result;
+		}
+		
+		boolean[] endzustaende() {
+			final boolean[] result = new boolean[pEndzustaende.size()];
+			for (int i = 0; i < result.length; i++)
+				result[i] = pEndzustaende.get(i);
+			return result;
+		}
+	
+	}
+	
+}
@@ -5,113 +5,157 @@
  */
 package konverter.formate.tsv;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.function.BiConsumer;
-import java.util.regex.Pattern;
 
 import konverter.daten.Item;
 import konverter.daten.Itemtyp;
+import konverter.daten.Satzblock;
+import konverter.daten.Tagcode;
 import konverter.exception.KonverterException;
 import konverter.formate.conll.CoNLLFeatures;
+import konverter.formate.conll.Felder;
 import konverter.konvertierung.Quelle;
+import konverter.konvertierung.Tokensenke;
+import konverter.konvertierung.Zeilenleser;
 import konverter.tagsets.STTS;
 
 
 public class TsvTagParser implements Quelle {
 	
-	private static final Pattern TAB_PATTERN = Pattern.compile(Pattern.quote("\t"));
+	private final Zeilenleser pLeser;
+	private final boolean pWiederverwenden;
+	private final Item pItem;
+	private final Felder pFelder;
 	
-	private final BufferedReader pReader;
+	private long pIndex;
 	
-	private BigInteger pIndex;
+	public TsvTagParser(final Zeilenleser leser) {
+		this(leser, false);
+	}
 	
-	public TsvTagParser(final BufferedReader reader) {
-		pReader = reader;
-		new ArrayList<>();
+	// bei Wiederverwendung liefert der Parser bei jedem Aufruf von next
+	// dasselbe Item, siehe Quelle
+	public TsvTagParser(final Zeilenleser leser, final boolean wiederverwenden) {
+		pLeser = leser;
+		pWiederverwenden = wiederverwenden;
+		pItem = wiederverwenden ? new Item() : null;
+		pFelder = new Felder();
 		
-		pIndex = BigInteger.ZERO;
+		pIndex = 0;
 	}
 	
 	@Override
 	public Item next() throws IOException, KonverterException {
-		final Item result = new Item();
-		
-		final String line = pReader.readLine();
-		if (line == null) {
+		final Item result = item(pItem);
+		final CharSequence line = pLeser.zeileAnsehen();
+		if (line == null)
 			result.typ = Itemtyp.ENDE;
-			return result;
-		}
-		
-		final String[] lineParts = TAB_PATTERN.split(line);
-		switch (lineParts.length) {
-			default: // > 8 (split(line).length > 0)
-				set(result, lineParts, 8, TsvTagParser::modusSetzen);
-			case 8:
-				set(result, lineParts, 7, TsvTagParser::tempusSetzen);
-			case 7:
-				set(result, lineParts, 6, TsvTagParser::personSetzen);
-			case 6:
-				set(result, lineParts, 5, TsvTagParser::gradSetzen);
-			case 5:
-				set(result, lineParts, 4, TsvTagParser::numerusSetzen);
-			case 4:
-				set(result, lineParts, 3, TsvTagParser::kasusSetzen);
-			case 3:
-				set(result, lineParts, 2, TsvTagParser::genusSetzen);
-			case 2:
-				result.pos = STTS.fromSTTS(result.form, lineParts[1]);
-			case 1:
-				final String token = lineParts[0];
-				if ("".equals(token)) {
-					result.typ = Itemtyp.LEERZEILE;
-					pIndex = BigInteger.ZERO;
-					break;
-				}
-				result.typ = Itemtyp.TOKEN;
-				pIndex = BigInteger.ONE.add(pIndex);
-				result.index = pIndex;
-				result.lemma = null;
-				result.form = token;
-		}
-		
+		else
+			zeileParsen(line, result);
 		return result;
 	}
 	
-	private void set(final Item targetToken, final String[] lineParts, final int index, final BiConsumer<Item, String> setter) {
-		final String field = lineParts[index];
-		if (!"".equals(field))
-			setter.accept(targetToken, field);
-	}
-	
-	private static void genusSetzen(final Item token, final String str) {
-		token.genus = CoNLLFeatures.genusParsen(str);
+	@Override
+	public void next(final Satzblock block) throws IOException, KonverterException {
+		while (!block.voll()) {
+			final CharSequence line = pLeser.zeileAnsehen();
+			if (line == null) {
+				block.ende = true;
+				return;
+			}
+			final int tagcode = zeileParsen(line);
+			if (pFelder.leer(0)) {
+				block.satzBeenden();
+				pIndex = 0;
+			} else {
+				pIndex++;
+				// die Form direkt aus der Zeile, ohne String
+				final int formAnfang = block.zeichenAnhaengen(line, pFelder.anfang(0), pFelder.ende(0));
+				block.tokenHinzufuegen(pIndex, formAnfang, block.zeichenanzahl, -1, -1, tagcode);
+			}
+		}
 	}
 	
-	private static void kasusSetzen(final Item token, final String str) {
-		token.kasus = CoNLLFeatures.kasusParsen(str);
+	// die Form geht als Bereich der Zeile an die Senke
+	@Override
+	public boolean direktKonvertieren(final Tokensenke senke) throws IOException, KonverterException {
+		CharSequence line;
+		while ((line = pLeser.zeileAnsehen()) != null) {
+			final int tagcode = zeileParsen(line);
+			if (pFelder.leer(0)) {
+				senke.satzBeenden();
+				pIndex = 0;
+			} else {
+				pIndex++;
+				senke.token(pIndex, line, pFelder.anfang(0), pFelder.ende(0), -1, -1, tagcode);
+			}
+		}
+		return true;
 	}
 	
-	private static void numerusSetzen(final Item token, final String str) {
-		token.numerus = CoNLLFeatures.numerusParsen(str);
+	private static Item item(final Item vorhanden) {
+		if (vorhanden == null)
+			return new Item();
+		vorhanden.leeren();
+		return vorhanden;
 	}
 	
-	private static void gradSetzen(final Item token, final String str) {
-		token.grad = CoNLLFeatures.gradParsen(str);
+	private void zeileParsen(final CharSequence line, final Item result) {
+		result.tagcode = zeileParsen(line);
+		if (pFelder.leer(0)) {
+			result.typ = Itemtyp.LEERZEILE;
+			pIndex = 0;
+			return;
+		}
+		result.typ = Itemtyp.TOKEN;
+		pIndex++;
+		result.index = pIndex;
+		result.lemma = null;
+		result.form = pFelder.text(0);
 	}
 	
-	private static void personSetzen(final Item token, final String str) {
-		token.person = CoNLLFeatures.personParsen(str);
+	// zerlegt die Zeile in pFelder und liefert den Tagcode; die Spalten werden
+	// von hinten gelesen, ist die erste leer, ist es eine Leerzeile
+	private int zeileParsen(final CharSequence line) {
+		int code = 0;
+		switch (pFelder.zerlegen(line, '\t', 0)) {
+			default: // > 8 (split(line).length > 0)
+				code = feldSetzen(code, 8, (t, von, bis) -> Tagcode.kodieren(CoNLLFeatures.modusParsen(t, von, bis)));
+			case 8:
+				code = feldSetzen(code, 7, (t, von, bis) -> Tagcode.kodieren(CoNLLFeatures.tempusParsen(t, von, bis)));
+			case 7:
+				code = feldSetzen(code, 6, (t, von, bis) -> Tagcode.kodieren(CoNLLFeatures.personParsen(t, von, bis)));
+			case 6:
+				code = feldSetzen(code, 5, (t, von, bis) -> Tagcode.kodieren(CoNLLFeatures.gradParsen(t, von, bis)));
+			case 5:
+				code = feldSetzen(code, 4, (t, von, bis) -> Tagcode.kodieren(CoNLLFeatures.numerusParsen(t, von, bis)));
+			case 4:
+				code = feldSetzen(code, 3, (t, von, bis) -> Tagcode.kodieren(CoNLLFeatures.kasusParsen(t, von, bis)));
+			case 3:
+				code = feldSetzen(code, 2, (t, von, bis) -> Tagcode.kodieren(CoNLLFeatures.genusParsen(t, von, bis)));
+			case 2:
+				code = Tagcode.setzen(code, STTS.fromSTTS(line, pFelder.anfang(0), pFelder.ende(0), line, pFelder.anfang(1), pFelder.ende(1)));
+			case 1:
+			case 0:
+				// bei 0 besteht die Zeile nur aus Tabulatoren, das erste Feld
+				// ist dann leer
+				return code;
+		}
 	}
 	
-	private static void tempusSetzen(final Item token, final String str) {
-		token.tempus = CoNLLFeatures.tempusParsen(str);
+	// leere Spalten werden übergangen
+	private int feldSetzen(final int code, final int feld, final Feldparser parser) {
+		if (pFelder.leer(feld))
+			return code;
+		return Tagcode.setzen(code, parser.parsen(pFelder.zeile(), pFelder.anfang(feld), pFelder.ende(feld)));
 	}
 	
-	private static void modusSetzen(final Item token, final String str) {
-		token.modus = CoNLLFeatures.modusParsen(str);
+	// liefert das Feld im Tagcode
+	@FunctionalInterface
+	private static interface Feldparser {
+		
+		int parsen(CharSequence text, int von, int bis);
+		
 	}
 	
 }
@@ -6,22 +6,35 @@
 package konverter.formate.tsv;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 import konverter.daten.Genus;
 import konverter.daten.Item;
+import konverter.daten.Itemfeld;
 import konverter.daten.Itemtyp;
 import konverter.daten.Kasus;
 import konverter.daten.Modus;
 import konverter.daten.Numerus;
 import konverter.daten.Person;
+import konverter.daten.Satzblock;
 import konverter.daten.Steigerungsstufe;
+import konverter.daten.Tagcode;
+import konverter.daten.Tagtabelle;
 import konverter.daten.Tempus;
 import konverter.exception.KonverterException;
 import konverter.formate.conll.CoNLLFeatures;
 import konverter.konvertierung.Senke;
+import konverter.konvertierung.Tokensenke;
 import konverter.tagsets.STTS;
 
-public class TsvTagSchreiber implements Senke {
+public class TsvTagSchreiber implements Senke, Tokensenke {
+	
+	private static final Tagtabelle TAGS = new Tagtabelle(TsvTagSchreiber::tagSchreiben);
+
+	// ohne Index und Lemma
+	private static final Set<Itemfeld> FELDER = Collections.unmodifiableSet(EnumSet.of(Itemfeld.FORM, Itemfeld.TAG));
 	
 	private final Appendable pTarget;
 	
@@ -29,71 +42,112 @@ public class TsvTagSchreiber implements Senke {
 		pTarget = target;
 	}
 	
+	@Override
+	public Set<Itemfeld> felder() {
+		return FELDER;
+	}
+	
 	@Override
 	public void next(final Item token) throws IOException, KonverterException {
-		if (token.typ == Itemtyp.TOKEN) {
-			pTarget.append(token.form);
-			pTarget.append('\t');
-			pTarget.append(STTS.toSTTS(token.pos));
-			pTarget.append('\t');
-			spalteAusgeben(token.genus);
-			pTarget.append('\t');
-			spalteAusgeben(token.kasus);
-			pTarget.append('\t');
-			spalteAusgeben(token.numerus);
-			pTarget.append('\t');
-			spalteAusgeben(token.grad);
-			pTarget.append('\t');
-			spalteAusgeben(token.person);
-			pTarget.append('\t');
-			spalteAusgeben(token.tempus);
-			pTarget.append('\t');
-			spalteAusgeben(token.modus);
+		schreiben(token);
+	}
+	
+	@Override
+	public void next(final Satzblock block) throws IOException, KonverterException {
+		final CharSequence zeichen = block.zeichenfolge();
+		int token = 0;
+		for (int satz = 0; satz <= block.satzanzahl; satz++) {
+			for (final int ende = block.satzende(satz); token < ende; token++)
+				tokenSchreiben(zeichen, block.formAnfang[token], block.formEnde[token], block.tagcodes[token]);
+			if (satz < block.satzanzahl)
+				satzBeenden();
 		}
-		
+	}
+	
+	// ohne Index und Lemma
+	@Override
+	public void token(final long index, final CharSequence zeile, final int formVon, final int formBis, final int lemmaVon, final int lemmaBis, final int tagcode) throws IOException, KonverterException {
+		tokenSchreiben(zeile, formVon, formBis, tagcode);
+	}
+	
+	@Override
+	public void satzBeenden() throws IOException {
 		pTarget.append('\n');
 	}
 	
-	private void spalteAusgeben(final Genus genus) throws IOException, KonverterException {
+	private void schreiben(final Item token) throws IOException, KonverterException {
+		if (token.typ == Itemtyp.TOKEN)
+			tokenSchreiben(token.form, 0, token.form.length(), token.tagcode);
+		else
+			pTarget.append('\n');
+	}
+	
+	private void tokenSchreiben(final CharSequence form, final int formVon, final int formBis, final int code) throws IOException, KonverterException {
+		pTarget.append(form, formVon, formBis);
+		TAGS.schreiben(code, pTarget);
+	}
+	
+	// alle Spalten nach der Form einschließlich Zeilenende
+	private static void tagSchreiben(final int code, final Appendable ziel) throws IOException, KonverterException {
+		ziel.append('\t');
+		ziel.append(STTS.toSTTS(Tagcode.pos(code)));
+		ziel.append('\t');
+		spalteAusgeben(ziel, Tagcode.genus(code));
+		ziel.append('\t');
+		spalteAusgeben(ziel, Tagcode.kasus(code));
+		ziel.append('\t');
+		spalteAusgeben(ziel, Tagcode.numerus(code));
+		ziel.append('\t');
+		spalteAusgeben(ziel, Tagcode.grad(code));
+		ziel.append('\t');
+		spalteAusgeben(ziel, Tagcode.person(code));
+		ziel.append('\t');
+		spalteAusgeben(ziel, Tagcode.tempus(code));
+		ziel.append('\t');
+		spalteAusgeben(ziel, Tagcode.modus(code));
+		ziel.append('\n');
+	}
+	
+	private static void spalteAusgeben(final Appendable ziel, final Genus genus) throws IOException, KonverterException {
 		if (genus == null)
 			return;
-		CoNLLFeatures.genusSchreiben(genus, pTarget);
+		CoNLLFeatures.genusSchreiben(genus, ziel);
 	}
 	
-	private void spalteAusgeben(final Kasus kasus) throws IOException, KonverterException {
+	private static void spalteAusgeben(final Appendable ziel, final Kasus kasus) throws IOException, KonverterException {
 		if (kasus == null)
 			return;
-		CoNLLFeatures.kasusSchreiben(kasus, pTarget);
+		CoNLLFeatures.kasusSchreiben(kasus, ziel);
 	}
 	
-	private void spalteAusgeben(final Numerus numerus) throws IOException, KonverterException {
+	private static void spalteAusgeben(final Appendable ziel, final Numerus numerus) throws IOException, KonverterException {
 		if (numerus == null)
 			return;
-		CoNLLFeatures.numerusSchreiben(numerus, pTarget);
+		CoNLLFeatures.numerusSchreiben(numerus, ziel);
 	}
 	
-	private void spalteAusgeben(final Steigerungsstufe grad) throws IOException, KonverterException {
+	private static void spalteAusgeben(final Appendable ziel, final Steigerungsstufe grad) throws IOException, KonverterException {
 		if (grad == null)
 			return;
-		CoNLLFeatures.gradSchreiben(grad, pTarget);
+		CoNLLFeatures.gradSchreiben(grad, ziel);
 	}
 	
-	private void spalteAusgeben(final Person person) throws IOException, KonverterException {
+	private static void spalteAusgeben(final Appendable ziel, final Person person) throws IOException, KonverterException {
 		if (person == null)
 			return;
-		CoNLLFeatures.personSchreiben(person, pTarget);
+		CoNLLFeatures.personSchreiben(person, ziel);
 	}
 	
-	private void spalteAusgeben(final Tempus tempus) throws IOException, KonverterException {
+	private static void spalteAusgeben(final Appendable ziel, final Tempus tempus) throws IOException, KonverterException {
 		if (tempus == null)
 			return;
-		CoNLLFeatures.tempusSchreiben(tempus, pTarget);
+		CoNLLFeatures.tempusSchreiben(tempus, ziel);
 	}
 	
-	private void spalteAusgeben(final Modus modus) throws IOException, KonverterException {
+	private static void spalteAusgeben(final Appendable ziel, final Modus modus) throws IOException, KonverterException {
 		if (modus == null)
 			return;
-		CoNLLFeatures.modusSchreiben(modus, pTarget);
+		CoNLLFeatures.modusSchreiben(modus, ziel);
 	}
 	
 }
@@ -0,0 +1,100 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+// Eine Zeile als Bereich eines Bytepuffers (UTF-8 oder ISO-8859-1). Bei
+// ISO-8859-1 und bei reinen ASCII-Zeilen ist jedes Byte ein Zeichen, die Zeile
+// wird dann gar nicht dekodiert; nur UTF-8-Zeilen mit anderen Zeichen werden
+// in einen wiederverwendeten char-Puffer dekodiert. Erst toString und
+// subSequence erzeugen Strings.
+public final class Bytezeile implements CharSequence {
+	
+	private final CharsetDecoder pDecoder;
+	
+	private ByteBuffer pBytes;
+	// Kopie von pBytes mit eigener Position für den Decoder
+	private ByteBuffer pEingabe;
+	private int pAnfang;
+	private int pLaenge;
+	
+	private char[] pZeichen;
+	private boolean pDekodiert;
+	
+	public Bytezeile(final Charset charset) {
+		// ISO-8859-1 braucht keinen Decoder
+		pDecoder = StandardCharsets.UTF_8.equals(charset) ? charset.newDecoder() : null;
+		pZeichen = new char[256];
+	}
+	
+	// nichtAscii: der Bereich enthält Bytes außerhalb von ASCII
+	void setzen(final ByteBuffer bytes, final int anfang, final int ende, final boolean nichtAscii) throws CharacterCodingException {
+		if (bytes != pBytes) {
+			pBytes = bytes;
+			pEingabe = null;
+		}
+		pAnfang = anfang;
+		pDekodiert = nichtAscii && (pDecoder != null);
+		pLaenge = pDekodiert ? dekodieren(ende) : (ende - anfang);
+	}
+	
+	private int dekodieren(final int ende) throws CharacterCodingException {
+		if (pZeichen.length < ende - pAnfang)
+			pZeichen = new char[ende - pAnfang];
+		if (pEingabe == null)
+			pEingabe = pBytes.duplicate();
+		pEingabe.limit(ende);
+		pEingabe.position(pAnfang);
+		final CharBuffer ausgabe = CharBuffer.wrap(pZeichen);
+		pDecoder.reset();
+		CoderResult ergebnis = pDecoder.decode(pEingabe, ausgabe, true);
+		if (!ergebnis.isUnderflow())
+			ergebnis.throwException();
+		ergebnis = pDecoder.flush(ausgabe);
+		if (!ergebnis.isUnderflow())
+			ergebnis.throwException();
+		return ausgabe.position();
+	}
+	
+	@Override
+	public int length() {
+		return pLaenge;
+	}
+	
+	@Override
+	public char charAt(final int index) {
+		if (pDekodiert)
+			return pZeichen[index];
+		return (char) (pBytes.get(pAnfang + index) & 0xFF);
+	}
+	
+	@Override
+	public CharSequence subSequence(final int von, final int bis) {
+		return zeichenkette(von, bis);
+	}
+	
+	@Override
+	public String toString() {
+		return zeichenkette(0, pLaenge);
+	}
+	
+	private String zeichenkette(final int von, final int bis) {
+		if (pDekodiert)
+			return new String(pZeichen, von, bis - von);
+		final char[] zeichen = new char[bis - von];
+		for (int i = 0; i < zeichen.length; i++)
+			zeichen[i] = (char) (pBytes.get(pAnfang + von + i) & 0xFF);
+		return new String(zeichen);
+	}
+	
+}
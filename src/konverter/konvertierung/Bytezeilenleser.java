@@ -0,0 +1,116 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+// Liest Zeilen direkt aus den Bytes einer UTF-8- oder ISO-8859-1-Datei, ohne
+// die Datei vorher zu dekodieren: Zeilenenden werden in den Bytes gesucht,
+// zeileAnsehen liefert eine Bytezeile über dem Bereich. Die Zeilenenden sind
+// dieselben wie bei BufferedReader.readLine ("\n", "\r" und "\r\n").
+// Dateien werden abschnittsweise in den Speicher abgebildet; eine Zeile, die
+// über das Ende eines Abschnitts hinausgeht, wird mit dem nächsten Abschnitt
+// vollständig neu abgebildet.
+public class Bytezeilenleser implements Zeilenleser {
+	
+	public static final int ABSCHNITTSGROESSE = 1 << 26;
+	
+	private final FileChannel pChannel;
+	private final long pDateigroesse;
+	
+	private ByteBuffer pPuffer;
+	// Dateiposition des Pufferanfangs
+	private long pVersatz;
+	
+	private final Bytezeile pZeile;
+	
+	public Bytezeilenleser(final ByteBuffer puffer, final Charset charset) {
+		pChannel = null;
+		pDateigroesse = puffer.limit();
+		pPuffer = puffer;
+		pZeile = new Bytezeile(charset);
+	}
+	
+	public Bytezeilenleser(final FileChannel channel, final Charset charset) throws IOException {
+		pChannel = channel;
+		pDateigroesse = channel.size();
+		pPuffer = abbilden(0, ABSCHNITTSGROESSE);
+		pZeile = new Bytezeile(charset);
+	}
+	
+	public static boolean unterstuetzt(final Charset charset) {
+		return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset);
+	}
+	
+	@Override
+	public String zeileLesen() throws IOException {
+		final CharSequence zeile = zeileAnsehen();
+		return (zeile == null) ? null : zeile.toString();
+	}
+	
+	@Override
+	public CharSequence zeileAnsehen() throws IOException {
+		int start = pPuffer.position();
+		if (pVersatz + start >= pDateigroesse)
+			return null;
+		while (true) {
+			final int limit = pPuffer.limit();
+			// die Suche nach dem Zeilenende prüft zugleich, ob die Zeile nur
+			// ASCII enthält
+			int nichtAscii = 0;
+			for (int i = start; i < limit; i++) {
+				final byte b = pPuffer.get(i);
+				if ((b == '\n') || (b == '\r')) {
+					int weiter = i + 1;
+					if (b == '\r') {
+						if (weiter == limit && !amDateiende()) {
+							// ob "\n" folgt, steht erst im nächsten Abschnitt
+							break;
+						}
+						if ((weiter < limit) && (pPuffer.get(weiter) == '\n'))
+							weiter++;
+					}
+					pZeile.setzen(pPuffer, start, i, nichtAscii < 0);
+					pPuffer.position(weiter);
+					return pZeile;
+				}
+				nichtAscii |= b;
+			}
+			if (amDateiende()) {
+				pZeile.setzen(pPuffer, start, limit, nichtAscii < 0);
+				pPuffer.position(limit);
+				return pZeile;
+			}
+			// Zeile geht über das Ende des Abschnitts hinaus
+			final long zeilenanfang = pVersatz + start;
+			final int laenge = limit - start;
+			pPuffer = abbilden(zeilenanfang, Math.max(ABSCHNITTSGROESSE, 2 * laenge));
+			start = 0;
+		}
+	}
+	
+	// Position hinter der zuletzt gelesenen Zeile, einschließlich Zeilenende
+	public long position() {
+		return pVersatz + pPuffer.position();
+	}
+	
+	private boolean amDateiende() {
+		return pVersatz + pPuffer.limit() >= pDateigroesse;
+	}
+	
+	private ByteBuffer abbilden(final long anfang, final long groesse) throws IOException {
+		if (pChannel == null)
+			throw new IllegalStateException();
+		pVersatz = anfang;
+		final long laenge = Math.min(Math.min(groesse, Integer.MAX_VALUE), pDateigroesse - anfang);
+		return pChannel.map(FileChannel.MapMode.READ_ONLY, anfang, laenge);
+	}
+	
+}
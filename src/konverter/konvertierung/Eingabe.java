@@ -8,9 +8,14 @@ package konverter.konvertierung;
 import java.io.IOException;
 
 import konverter.exception.KonverterException;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
 
 public interface Eingabe {
 	
 	void konvertierenVon(Senke senke) throws IOException, KonverterException;
 	
+	default void konvertierenVon(final Senkengenerator senkengenerator, final Appendable ziel) throws IOException, KonverterException {
+		konvertierenVon(senkengenerator.senke(ziel));
+	}
+	
 }
@@ -0,0 +1,311 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import konverter.exception.Arbeitsschritt;
+import konverter.exception.KonverterException;
+
+// Ersetzt BufferedWriter für die Ausgabe der Schreiber: ohne Synchronisierung,
+// mit großem Zeichenpuffer und eigener Kodierung in einen direkten Bytepuffer,
+// der in großen Stücken in den Kanal geschrieben wird. Zeichen, die in UTF-8
+// bzw. ISO-8859-1 einem einzelnen Byte entsprechen, werden direkt übernommen,
+// nur die übrigen gehen durch den CharsetEncoder. Nicht darstellbare Zeichen
+// führen wie bei Files.newBufferedWriter zu einer CharacterCodingException.
+// Mit mehr als einem Bytepuffer schreibt ein Hintergrundthread die vollen
+// Puffer, während der aufrufende Thread den nächsten füllt; Fehler beim
+// Schreiben kommen dann beim nächsten Pufferwechsel oder spätestens bei close
+// als KonverterException (AUSGEBEN) an. flush wartet auch dann, bis alles
+// geschrieben ist. close schließt den Kanal nicht.
+public final class Kanalausgabe implements Appendable, Closeable, Flushable {
+	
+	public static final int ZEICHENPUFFER = 1 << 16;
+	public static final int BYTEPUFFER = 1 << 18;
+	
+	// Markierung für den Hintergrundthread, dass keine Puffer mehr kommen
+	private static final ByteBuffer ENDE = ByteBuffer.allocate(0);
+	
+	private final WritableByteChannel pKanal;
+	private final CharsetEncoder pEncoder;
+	// Zeichen unterhalb der Grenze werden ohne Encoder als ein Byte geschrieben
+	private final char pGrenze;
+	
+	private final char[] pZeichen;
+	private final CharBuffer pZeichenpuffer;
+	private int pAnzahl;
+	private ByteBuffer pBytes;
+	
+	// nur bei asynchronem Schreiben
+	private final BlockingQueue<ByteBuffer> pVoll;
+	private final BlockingQueue<ByteBuffer> pFrei;
+	// nimmt bei flush die freien Puffer auf, bis alle zurück sind
+	private final ByteBuffer[] pZurueck;
+	private final Thread pSchreiber;
+	private volatile Throwable pFehler;
+	
+	private boolean pGeschlossen;
+	
+	public Kanalausgabe(final WritableByteChannel kanal, final Charset charset) {
+		this(kanal, charset, BYTEPUFFER, 1);
+	}
+	
+	// pufferanzahl 1: synchron im aufrufenden Thread schreiben
+	public Kanalausgabe(final WritableByteChannel kanal, final Charset charset, final int puffergroesse, final int pufferanzahl) {
+		if ((puffergroesse < 16) || (pufferanzahl < 1))
+			throw new IllegalArgumentException();
+		pKanal = kanal;
+		pEncoder = charset.newEncoder();
+		if (StandardCharsets.ISO_8859_1.equals(charset))
+			pGrenze = 0x100;
+		else if (StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset))
+			pGrenze = 0x80;
+		else
+			pGrenze = 0;
+		pZeichen = new char[ZEICHENPUFFER];
+		pZeichenpuffer = CharBuffer.wrap(pZeichen);
+		pBytes = ByteBuffer.allocateDirect(puffergroesse);
+		if (pufferanzahl == 1) {
+			pVoll = null;
+			pFrei = null;
+			pZurueck = null;
+			pSchreiber = null;
+		} else {
+			pVoll = new ArrayBlockingQueue<>(pufferanzahl);
+			pFrei = new ArrayBlockingQueue<>(pufferanzahl);
+			for (int i = 1; i < pufferanzahl; i++)
+				pFrei.add(ByteBuffer.allocateDirect(puffergroesse));
+			pZurueck = new ByteBuffer[pufferanzahl - 1];
+			pSchreiber = new Thread(this::hintergrundSchreiben, "Kanalausgabe");
+			pSchreiber.setDaemon(true);
+			pSchreiber.start();
+		}
+	}
+	
+	@Override
+	public Kanalausgabe append(final char c) throws IOException {
+		if (pAnzahl == pZeichen.length)
+			kodieren();
+		pZeichen[pAnzahl++] = c;
+		return this;
+	}
+	
+	@Override
+	public Kanalausgabe append(final CharSequence text) throws IOException {
+		final CharSequence zeichen = (text == null) ? "null" : text;
+		return append(zeichen, 0, zeichen.length());
+	}
+	
+	@Override
+	public Kanalausgabe append(final CharSequence text, final int von, final int bis) throws IOException {
+		if (text == null)
+			return append("null", von, bis);
+		int position = von;
+		while (position < bis) {
+			if (pAnzahl == pZeichen.length)
+				kodieren();
+			final int laenge = Math.min(bis - position, pZeichen.length - pAnzahl);
+			kopieren(text, position, position + laenge);
+			position += laenge;
+		}
+		return this;
+	}
+	
+	private void kopieren(final CharSequence text, final int von, final int bis) {
+		if (text instanceof String) {
+			((String) text).getChars(von, bis, pZeichen, pAnzahl);
+			pAnzahl += bis - von;
+		} else if (text instanceof StringBuilder) {
+			((StringBuilder) text).getChars(von, bis, pZeichen, pAnzahl);
+			pAnzahl += bis - von;
+		} else {
+			for (int i = von; i < bis; i++)
+				pZeichen[pAnzahl++] = text.charAt(i);
+		}
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		kodieren();
+		schreiben();
+		if (pSchreiber != null)
+			abwarten();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if (pGeschlossen)
+			return;
+		pGeschlossen = true;
+		try {
+			kodieren();
+			// ein übrig gebliebenes High-Surrogate meldet der Encoder als Fehler
+			kodieren(0, pAnzahl, true);
+			pAnzahl = 0;
+			while (pEncoder.flush(pBytes).isOverflow())
+				schreiben();
+			schreiben();
+		} finally {
+			if (pSchreiber != null)
+				beenden();
+		}
+		fehlerPruefen();
+	}
+	
+	// kodiert den Zeichenpuffer; ein High-Surrogate am Ende bleibt für den
+	// nächsten Aufruf im Puffer
+	private void kodieren() throws IOException {
+		int i = 0;
+		while (i < pAnzahl) {
+			// Zeichen, die einem Byte entsprechen
+			int ziel = pBytes.position();
+			final int grenze = Math.min(pAnzahl, i + pBytes.limit() - ziel);
+			while ((i < grenze) && (pZeichen[i] < pGrenze))
+				pBytes.put(ziel++, (byte) pZeichen[i++]);
+			pBytes.position(ziel);
+			if (!pBytes.hasRemaining()) {
+				schreiben();
+				continue;
+			}
+			if (i == pAnzahl)
+				break;
+			// alle folgenden Zeichen, die der Encoder braucht
+			int j = i + 1;
+			while ((j < pAnzahl) && (pZeichen[j] >= pGrenze))
+				j++;
+			i = kodieren(i, j, false);
+			if (i < j) {
+				if (j < pAnzahl)
+					throw new MalformedInputException(j - i);
+				break;
+			}
+		}
+		System.arraycopy(pZeichen, i, pZeichen, 0, pAnzahl - i);
+		pAnzahl -= i;
+	}
+	
+	// liefert die Position nach dem letzten verbrauchten Zeichen
+	private int kodieren(final int von, final int bis, final boolean vollstaendig) throws IOException {
+		pZeichenpuffer.limit(bis);
+		pZeichenpuffer.position(von);
+		while (true) {
+			final CoderResult ergebnis = pEncoder.encode(pZeichenpuffer, pBytes, vollstaendig);
+			if (ergebnis.isUnderflow())
+				return pZeichenpuffer.position();
+			if (ergebnis.isOverflow())
+				schreiben();
+			else
+				ergebnis.throwException();
+		}
+	}
+	
+	private void schreiben() throws IOException {
+		pBytes.flip();
+		if (pSchreiber == null) {
+			// Schreibfehler wie beim Hintergrundthread melden
+			try {
+				while (pBytes.hasRemaining())
+					pKanal.write(pBytes);
+			} catch (final IOException e) {
+				throw new KonverterException(e, Arbeitsschritt.AUSGEBEN);
+			}
+			pBytes.clear();
+			return;
+		}
+		fehlerPruefen();
+		try {
+			pVoll.put(pBytes);
+			pBytes = pFrei.take();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new KonverterException(e, Arbeitsschritt.AUSGEBEN);
+		}
+	}
+	
+	// wartet, bis der Hintergrundthread alle übergebenen Puffer geschrieben
+	// hat, also alle außer dem aktuellen wieder frei sind
+	private void abwarten() {
+		int anzahl = 0;
+		try {
+			while (anzahl < pZurueck.length) {
+				pZurueck[anzahl] = pFrei.take();
+				anzahl++;
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new KonverterException(e, Arbeitsschritt.AUSGEBEN);
+		} finally {
+			for (int i = 0; i < anzahl; i++) {
+				pFrei.add(pZurueck[i]);
+				pZurueck[i] = null;
+			}
+		}
+		fehlerPruefen();
+	}
+	
+	private void fehlerPruefen() {
+		final Throwable fehler = pFehler;
+		if (fehler != null)
+			throw new KonverterException(fehler, Arbeitsschritt.AUSGEBEN);
+	}
+	
+	// wartet, bis alle übergebenen Puffer geschrieben sind
+	private void beenden() throws IOException {
+		boolean unterbrochen = false;
+		while (true) {
+			try {
+				pVoll.put(ENDE);
+				break;
+			} catch (final InterruptedException e) {
+				unterbrochen = true;
+			}
+		}
+		while (true) {
+			try {
+				pSchreiber.join();
+				break;
+			} catch (final InterruptedException e) {
+				unterbrochen = true;
+			}
+		}
+		if (unterbrochen)
+			Thread.currentThread().interrupt();
+	}
+	
+	private void hintergrundSchreiben() {
+		try {
+			ByteBuffer puffer;
+			while ((puffer = pVoll.take()) != ENDE) {
+				// nach einem Fehler werden die Puffer nur noch zurückgegeben
+				if (pFehler == null) {
+					try {
+						while (puffer.hasRemaining())
+							pKanal.write(puffer);
+					} catch (final Throwable t) {
+						pFehler = t;
+					}
+				}
+				puffer.clear();
+				pFrei.put(puffer);
+			}
+		} catch (final InterruptedException e) {
+			pFehler = e;
+		}
+	}
+	
+}
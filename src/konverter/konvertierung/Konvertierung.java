@@ -5,22 +5,79 @@
  */
 package konverter.konvertierung;
 
+import java.io.BufferedReader;
+import java.io.Flushable;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import konverter.daten.Item;
+import konverter.daten.Satzblock;
 import konverter.exception.KonverterException;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+import konverter.konvertierung.TextdateiEingabe.Quellengenerator;
 
 public class Konvertierung {
 	
+	public static void konvertieren(final Path datei, final Charset charset, final Quellengenerator quellengenerator, final Senkengenerator senkengenerator, final Appendable ziel) throws IOException, KonverterException {
+		if (Files.isRegularFile(datei) && Bytezeilenleser.unterstuetzt(charset)) {
+			try (final FileChannel channel = FileChannel.open(datei, StandardOpenOption.READ)) {
+				konvertieren(quellengenerator.quelle(new Bytezeilenleser(channel, charset)), senkengenerator.senke(ziel));
+			}
+			return;
+		}
+		try (final BufferedReader reader = Files.newBufferedReader(datei, charset)) {
+			konvertieren(quellengenerator.quelle(reader::readLine), senkengenerator.senke(ziel));
+		}
+	}
+	
 	public static void konvertieren(final Quelle quelle, final Senke senke) throws IOException, KonverterException {
+		quelle.felderFestlegen(senke.felder());
+		// ohne Satzblock, wenn beide Seiten es können
+		if ((senke instanceof Tokensenke) && quelle.direktKonvertieren((Tokensenke) senke))
+			return;
+		final Satzblock block = new Satzblock();
+		do {
+			block.leeren();
+			try {
+				quelle.next(block);
+			} finally {
+				// bereits gelesene Tokens auch dann ausgeben, wenn das Einlesen
+				// fehlgeschlagen ist (wie bei der Verarbeitung einzelner Items)
+				senke.next(block);
+			}
+		} while (!block.ende);
+	}
+	
+	// liest mit BufferedReader, damit auch Pipes (FIFOs) Zeile für Zeile
+	// gelesen werden, siehe satzweiseKonvertieren(Quelle, Senke, Appendable)
+	public static void satzweiseKonvertieren(final Path datei, final Charset charset, final Quellengenerator quellengenerator, final Senkengenerator senkengenerator, final Appendable ziel) throws IOException, KonverterException {
+		try (final BufferedReader reader = Files.newBufferedReader(datei, charset)) {
+			satzweiseKonvertieren(quellengenerator.quelle(reader::readLine), senkengenerator.senke(ziel), ziel);
+		}
+	}
+	
+	// Item für Item ohne Satzblock, damit kein Satz auf weitere Eingabe
+	// wartet; nach jeder Leerzeile wird das Ziel geleert, wenn es Flushable ist
+	public static void satzweiseKonvertieren(final Quelle quelle, final Senke senke, final Appendable ziel) throws IOException, KonverterException {
+		quelle.felderFestlegen(senke.felder());
 		while (true) {
 			final Item token = quelle.next();
 			switch (token.typ) {
 				case ENDE:
 					return;
+				case IGNORIEREN:
+					break;
+				case LEERZEILE:
+					senke.next(token);
+					if (ziel instanceof Flushable)
+						((Flushable) ziel).flush();
+					break;
 				default:
 					senke.next(token);
-				case IGNORIEREN:
 			}
 		}
 	}
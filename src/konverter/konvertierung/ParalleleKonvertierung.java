@@ -0,0 +1,249 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+
+import konverter.exception.Arbeitsschritt;
+import konverter.exception.KonverterException;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+import konverter.konvertierung.TextdateiEingabe.Quellengenerator;
+
+// Teilt die Eingabedatei an Leerzeilen (Satzgrenzen) in Abschnitte, die
+// unabhängig voneinander konvertiert werden können. Alle Formate setzen ihren
+// satzbezogenen Zustand an Leerzeilen zurück, daher ist die Ausgabe identisch
+// mit der sequenziellen Konvertierung.
+public class ParalleleKonvertierung implements Verfahren {
+	
+	public static final int STANDARDABSCHNITTSGROESSE = 8 * 1024 * 1024;
+	
+	private static final int SUCHFENSTER = 1024 * 1024;
+	private static final int MIN_ABSCHNITTSGROESSE = 64 * 1024;
+	// Anfangsgröße der Ausgabe eines Abschnitts in Zeichen
+	private static final int AUSGABEPUFFER = 64 * 1024;
+	// Heap für die Ausgabe eines Abschnitts pro Eingabebyte: gut 2 Zeichen
+	// (CoNLL-X aus RFTagger) zu je 2 Bytes, beim Wachsen des StringBuilders
+	// vorübergehend das Doppelte
+	private static final int HEAP_PRO_BYTE = 8;
+	
+	private final int pParallelitaet;
+	private final int pAbschnittsgroesse;
+	// null: ein eigener Pool für jede Datei
+	private final ForkJoinPool pPool;
+	// Abschnitte, die noch nicht ausgegeben sind, über alle Dateien, die
+	// gleichzeitig mit diesem Verfahren konvertiert werden
+	private final Semaphore pFreigaben;
+	
+	public ParalleleKonvertierung() {
+		this(Runtime.getRuntime().availableProcessors(), STANDARDABSCHNITTSGROESSE);
+	}
+	
+	public ParalleleKonvertierung(final int parallelitaet, final int abschnittsgroesse) {
+		if ((parallelitaet < 1) || (abschnittsgroesse < 1))
+			throw new IllegalArgumentException();
+		pParallelitaet = parallelitaet;
+		pAbschnittsgroesse = abschnittsgroesse(parallelitaet, abschnittsgroesse);
+		pPool = null;
+		pFreigaben = new Semaphore(maxAusstehend(parallelitaet, pAbschnittsgroesse));
+	}
+	
+	// für mehrere gleichzeitig konvertierte Dateien: alle teilen sich den
+	// Pool, der dem Aufrufer gehört und nicht beendet wird
+	public ParalleleKonvertierung(final ForkJoinPool pool, final int abschnittsgroesse) {
+		if (abschnittsgroesse < 1)
+			throw new IllegalArgumentException();
+		pParallelitaet = pool.getParallelism();
+		pAbschnittsgroesse = abschnittsgroesse(pParallelitaet, abschnittsgroesse);
+		pPool = pool;
+		pFreigaben = new Semaphore(maxAusstehend(pParallelitaet, pAbschnittsgroesse));
+	}
+	
+	// die Ausgabe der ausstehenden Abschnitte soll höchstens die Hälfte des
+	// Heaps belegen
+	private static long ausgabespeicher() {
+		return Runtime.getRuntime().maxMemory() / 2;
+	}
+	
+	// kleinere Abschnitte, wenn sonst nicht zwei pro Thread in den Speicher
+	// passen
+	private static int abschnittsgroesse(final int parallelitaet, final int abschnittsgroesse) {
+		final long passend = ausgabespeicher() / (HEAP_PRO_BYTE * 2L * parallelitaet);
+		return (int) Math.min(abschnittsgroesse, Math.max(MIN_ABSCHNITTSGROESSE, passend));
+	}
+	
+	// höchstens zwei Abschnitte pro Thread, aber immer mindestens einer
+	private static int maxAusstehend(final int parallelitaet, final int abschnittsgroesse) {
+		final long passend = ausgabespeicher() / ((long) HEAP_PRO_BYTE * abschnittsgroesse);
+		return (int) Math.max(1, Math.min(2L * parallelitaet, passend));
+	}
+	
+	@Override
+	public void konvertieren(final Path datei, final Charset charset, final Quellengenerator quellengenerator, final Senkengenerator senkengenerator, final Appendable ziel) throws IOException, KonverterException {
+		if (!Files.isRegularFile(datei) || !asciiKompatibel(charset)) {
+			Verfahren.SEQUENZIELL.konvertieren(datei, charset, quellengenerator, senkengenerator, ziel);
+			return;
+		}
+		
+		final ForkJoinPool pool = (pPool == null) ? new ForkJoinPool(pParallelitaet) : pPool;
+		try (final FileChannel channel = FileChannel.open(datei, StandardOpenOption.READ)) {
+			final long groesse = channel.size();
+			// jeder ausstehende Abschnitt hält eine Freigabe
+			final ArrayDeque<ForkJoinTask<Ergebnis>> ausstehend = new ArrayDeque<>();
+			long start = 0;
+			try {
+				while ((start < groesse) || !ausstehend.isEmpty()) {
+					while (start < groesse) {
+						// nur ohne eigene ausstehende Abschnitte warten, sonst
+						// würden sich mehrere Dateien gegenseitig blockieren
+						if (ausstehend.isEmpty())
+							pFreigaben.acquireUninterruptibly();
+						else if (!pFreigaben.tryAcquire())
+							break;
+						final long ende;
+						try {
+							ende = grenzeSuchen(channel, start + pAbschnittsgroesse, groesse);
+							if (ende - start > Integer.MAX_VALUE)
+								throw new KonverterException("Keine Leerzeile innerhalb von " + Integer.MAX_VALUE + " Bytes ab Position " + start, Arbeitsschritt.EINLESEN);
+							final MappedByteBuffer abschnitt = channel.map(MapMode.READ_ONLY, start, ende - start);
+							ausstehend.add(pool.submit(new Abschnittskonvertierung(abschnitt, charset, quellengenerator, senkengenerator)));
+						} catch (final Throwable t) {
+							pFreigaben.release();
+							throw t;
+						}
+						start = ende;
+					}
+					try {
+						final Ergebnis ergebnis = ausstehend.removeFirst().join();
+						ziel.append(ergebnis.ausgabe);
+						if (ergebnis.fehler != null)
+							weiterwerfen(ergebnis.fehler);
+					} finally {
+						pFreigaben.release();
+					}
+				}
+			} finally {
+				for (final ForkJoinTask<Ergebnis> task : ausstehend)
+					task.cancel(false);
+				pFreigaben.release(ausstehend.size());
+			}
+		} finally {
+			if (pPool == null)
+				pool.shutdownNow();
+		}
+	}
+	
+	private static boolean asciiKompatibel(final Charset charset) {
+		if (!charset.canEncode())
+			return false;
+		try {
+			return einzelbyte(charset.newEncoder(), '\n') && einzelbyte(charset.newEncoder(), '\r');
+		} catch (final IOException e) {
+			return false;
+		}
+	}
+	
+	private static boolean einzelbyte(final CharsetEncoder encoder, final char c) throws IOException {
+		final ByteBuffer bytes = encoder.encode(CharBuffer.wrap(new char[] { c }));
+		return (bytes.remaining() == 1) && (bytes.get(0) == c);
+	}
+	
+	// liefert die Position direkt hinter der ersten Leerzeile, die an oder nach
+	// der gewünschten Position endet, oder das Dateiende
+	private static long grenzeSuchen(final FileChannel channel, final long ab, final long groesse) throws IOException {
+		if (ab >= groesse)
+			return groesse;
+		long position = Math.max(ab - 2, 0);
+		int vorletztes = -1;
+		int letztes = -1;
+		while (position < groesse) {
+			final int laenge = (int) Math.min(SUCHFENSTER, groesse - position);
+			final MappedByteBuffer fenster = channel.map(MapMode.READ_ONLY, position, laenge);
+			for (int i = 0; i < laenge; i++) {
+				final byte b = fenster.get(i);
+				if ((b == '\n') && (position + i >= ab) && ((letztes == '\n') || ((letztes == '\r') && (vorletztes == '\n'))))
+					return position + i + 1;
+				vorletztes = letztes;
+				letztes = b;
+			}
+			position += laenge;
+		}
+		return groesse;
+	}
+	
+	private static void weiterwerfen(final Throwable t) throws IOException, KonverterException {
+		if (t instanceof IOException)
+			throw (IOException) t;
+		if (t instanceof RuntimeException)
+			throw (RuntimeException) t;
+		if (t instanceof Error)
+			throw (Error) t;
+		throw new KonverterException(t, Arbeitsschritt.KONVERTIEREN);
+	}
+	
+	private static class Ergebnis {
+		
+		public final StringBuilder ausgabe;
+		public final Throwable fehler;
+		
+		public Ergebnis(final StringBuilder ausgabe, final Throwable fehler) {
+			this.ausgabe = ausgabe;
+			this.fehler = fehler;
+		}
+		
+	}
+	
+	private static class Abschnittskonvertierung extends RecursiveTask<Ergebnis> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final transient MappedByteBuffer pAbschnitt;
+		private final transient Charset pCharset;
+		private final transient Quellengenerator pQuellengenerator;
+		private final transient Senkengenerator pSenkengenerator;
+		
+		public Abschnittskonvertierung(final MappedByteBuffer abschnitt, final Charset charset, final Quellengenerator quellengenerator, final Senkengenerator senkengenerator) {
+			pAbschnitt = abschnitt;
+			pCharset = charset;
+			pQuellengenerator = quellengenerator;
+			pSenkengenerator = senkengenerator;
+		}
+		
+		@Override
+		protected Ergebnis compute() {
+			// wächst mit der Ausgabe, statt für jeden ausstehenden Abschnitt
+			// vorab das Anderthalbfache der Eingabe zu belegen
+			final StringBuilder ausgabe = new StringBuilder(Math.min(pAbschnitt.remaining(), AUSGABEPUFFER));
+			try {
+				final Zeilenleser leser;
+				if (Bytezeilenleser.unterstuetzt(pCharset))
+					leser = new Bytezeilenleser(pAbschnitt, pCharset);
+				else
+					leser = new PufferZeilenleser(pCharset.newDecoder().decode(pAbschnitt));
+				Konvertierung.konvertieren(pQuellengenerator.quelle(leser), pSenkengenerator.senke(ausgabe));
+				return new Ergebnis(ausgabe, null);
+			} catch (final Throwable t) {
+				return new Ergebnis(ausgabe, t);
+			}
+		}
+		
+	}
+	
+}
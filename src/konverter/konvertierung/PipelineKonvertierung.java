@@ -0,0 +1,234 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import konverter.daten.Itemfeld;
+import konverter.daten.Satzblock;
+import konverter.exception.Arbeitsschritt;
+import konverter.exception.KonverterException;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+import konverter.konvertierung.TextdateiEingabe.Quellengenerator;
+
+// Einlesen, Parsen und Ausgeben laufen in je einem eigenen Thread und
+// reichen sich Pakete über beschränkte Warteschlangen weiter: satzweise Zeilen
+// vom Einlesen zum Parsen und Satzblöcke vom Parsen zum Ausgeben.
+public class PipelineKonvertierung implements Verfahren {
+	
+	public static final int STANDARDKAPAZITAET = 64;
+	
+	// Obergrenze für Zeilenpakete, falls die Eingabe keine Leerzeilen enthält
+	private static final int MAX_PAKETGROESSE = 1024;
+	
+	private final int pKapazitaet;
+	
+	public PipelineKonvertierung() {
+		this(STANDARDKAPAZITAET);
+	}
+	
+	public PipelineKonvertierung(final int kapazitaet) {
+		if (kapazitaet < 1)
+			throw new IllegalArgumentException();
+		pKapazitaet = kapazitaet;
+	}
+	
+	@Override
+	public void konvertieren(final Path datei, final Charset charset, final Quellengenerator quellengenerator, final Senkengenerator senkengenerator, final Appendable ziel) throws IOException, KonverterException {
+		// readLine lässt sich nicht unterbrechen; bei Pipes (FIFOs) könnte der
+		// lesende Thread nach einem Fehler beliebig lange auf Eingabe warten
+		if (!Files.isRegularFile(datei)) {
+			Verfahren.SEQUENZIELL.konvertieren(datei, charset, quellengenerator, senkengenerator, ziel);
+			return;
+		}
+		
+		final Senke senke = senkengenerator.senke(ziel);
+		final BlockingQueue<Paket<ArrayList<String>>> zeilen = new ArrayBlockingQueue<>(pKapazitaet);
+		final BlockingQueue<Paket<Satzblock>> items = new ArrayBlockingQueue<>(pKapazitaet);
+		
+		final Thread leser = thread(() -> einlesen(datei, charset, zeilen), "Einlesen");
+		final Thread parser = thread(() -> parsen(quellengenerator, senke.felder(), zeilen, items), "Konvertieren");
+		boolean fertig = false;
+		try {
+			ausgeben(items, senke);
+			fertig = true;
+		} finally {
+			leser.interrupt();
+			parser.interrupt();
+			// nach einem Fehler nicht auf die Threads warten, damit der Fehler
+			// sofort gemeldet wird; sie enden nach der Unterbrechung von selbst
+			if (fertig) {
+				beenden(leser);
+				beenden(parser);
+			}
+		}
+	}
+	
+	private static Thread thread(final Runnable runnable, final String name) {
+		final Thread result = new Thread(runnable, name);
+		result.setDaemon(true);
+		result.start();
+		return result;
+	}
+	
+	private static void beenden(final Thread thread) {
+		boolean unterbrochen = false;
+		while (true) {
+			try {
+				thread.join();
+				break;
+			} catch (final InterruptedException e) {
+				unterbrochen = true;
+			}
+		}
+		if (unterbrochen)
+			Thread.currentThread().interrupt();
+	}
+	
+	private static void einlesen(final Path datei, final Charset charset, final BlockingQueue<Paket<ArrayList<String>>> ziel) {
+		ArrayList<String> paket = new ArrayList<>();
+		try {
+			try (final BufferedReader reader = Files.newBufferedReader(datei, charset)) {
+				while (true) {
+					final String line = reader.readLine();
+					if (line == null)
+						break;
+					paket.add(line);
+					if (line.isEmpty() || (paket.size() >= MAX_PAKETGROESSE)) {
+						ziel.put(new Paket<>(paket, null, false));
+						paket = new ArrayList<>();
+					}
+				}
+			}
+			ziel.put(new Paket<>(paket, null, true));
+		} catch (final InterruptedException e) {
+			// Abbruch durch den ausgebenden Thread
+		} catch (final Throwable t) {
+			fehlerWeitergeben(ziel, new Paket<>(paket, t, true));
+		}
+	}
+	
+	private static void parsen(final Quellengenerator quellengenerator, final Set<Itemfeld> felder, final BlockingQueue<Paket<ArrayList<String>>> quelle, final BlockingQueue<Paket<Satzblock>> ziel) {
+		// für jedes Paket ein neuer Satzblock, da der ausgebende Thread ihn
+		// noch liest, während der Parser schon das nächste Paket füllt
+		Satzblock block = new Satzblock();
+		try {
+			final Quelle parser = quellengenerator.quelle(new PaketZeilenleser(quelle));
+			parser.felderFestlegen(felder);
+			while (true) {
+				parser.next(block);
+				ziel.put(new Paket<>(block, null, block.ende));
+				if (block.ende)
+					return;
+				block = new Satzblock();
+			}
+		} catch (final InterruptedException | Abbruch e) {
+			// Abbruch durch den ausgebenden Thread
+		} catch (final Throwable t) {
+			fehlerWeitergeben(ziel, new Paket<>(block, t, true));
+		}
+	}
+	
+	private static void ausgeben(final BlockingQueue<Paket<Satzblock>> quelle, final Senke senke) throws IOException, KonverterException {
+		while (true) {
+			final Paket<Satzblock> paket = entnehmen(quelle);
+			senke.next(paket.inhalt);
+			if (paket.fehler != null)
+				weiterwerfen(paket.fehler);
+			if (paket.ende)
+				return;
+		}
+	}
+	
+	private static <T> void fehlerWeitergeben(final BlockingQueue<Paket<T>> ziel, final Paket<T> paket) {
+		try {
+			ziel.put(paket);
+		} catch (final InterruptedException e) {
+			// Abbruch durch den ausgebenden Thread, der Fehler ist dann nicht mehr relevant
+		}
+	}
+	
+	private static <T> Paket<T> entnehmen(final BlockingQueue<Paket<T>> quelle) throws KonverterException {
+		try {
+			return quelle.take();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new KonverterException("Konvertierung unterbrochen", e, Arbeitsschritt.KONVERTIEREN);
+		}
+	}
+	
+	private static void weiterwerfen(final Throwable t) throws IOException, KonverterException {
+		if (t instanceof IOException)
+			throw (IOException) t;
+		if (t instanceof RuntimeException)
+			throw (RuntimeException) t;
+		if (t instanceof Error)
+			throw (Error) t;
+		throw new KonverterException(t, Arbeitsschritt.KONVERTIEREN);
+	}
+	
+	private static class Paket<T> {
+		
+		public final T inhalt;
+		public final Throwable fehler;
+		public final boolean ende;
+		
+		public Paket(final T inhalt, final Throwable fehler, final boolean ende) {
+			this.inhalt = inhalt;
+			this.fehler = fehler;
+			this.ende = ende;
+		}
+		
+	}
+	
+	// signalisiert dem Parser-Thread, dass er abgebrochen wurde
+	private static class Abbruch extends RuntimeException {
+		
+		private static final long serialVersionUID = 1L;
+		
+	}
+	
+	private static class PaketZeilenleser implements Zeilenleser {
+		
+		private final BlockingQueue<Paket<ArrayList<String>>> pQuelle;
+		
+		private Paket<ArrayList<String>> pPaket;
+		private int pPosition;
+		
+		public PaketZeilenleser(final BlockingQueue<Paket<ArrayList<String>>> quelle) {
+			pQuelle = quelle;
+		}
+		
+		@Override
+		public String zeileLesen() throws IOException {
+			while ((pPaket == null) || (pPosition >= pPaket.inhalt.size())) {
+				if (pPaket != null) {
+					if (pPaket.fehler != null)
+						weiterwerfen(pPaket.fehler);
+					if (pPaket.ende)
+						return null;
+				}
+				try {
+					pPaket = pQuelle.take();
+				} catch (final InterruptedException e) {
+					throw new Abbruch();
+				}
+				pPosition = 0;
+			}
+			return pPaket.inhalt.get(pPosition++);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,50 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.nio.CharBuffer;
+
+// liest Zeilen aus einem Zeichenpuffer mit denselben Zeilenenden wie
+// BufferedReader.readLine ("\n", "\r" und "\r\n")
+public class PufferZeilenleser implements Zeilenleser {
+	
+	private final CharBuffer pPuffer;
+	
+	public PufferZeilenleser(final CharBuffer puffer) {
+		pPuffer = puffer;
+	}
+	
+	@Override
+	public String zeileLesen() {
+		final int start = pPuffer.position();
+		final int limit = pPuffer.limit();
+		if (start >= limit)
+			return null;
+		for (int i = start; i < limit; i++) {
+			final char c = pPuffer.get(i);
+			if ((c == '\n') || (c == '\r')) {
+				final String result = zeile(start, i);
+				int weiter = i + 1;
+				if ((c == '\r') && (weiter < limit) && (pPuffer.get(weiter) == '\n'))
+					weiter++;
+				pPuffer.position(weiter);
+				return result;
+			}
+		}
+		pPuffer.position(limit);
+		return zeile(start, limit);
+	}
+	
+	private String zeile(final int start, final int ende) {
+		if (pPuffer.hasArray())
+			return new String(pPuffer.array(), pPuffer.arrayOffset() + start, ende - start);
+		final CharBuffer kopie = pPuffer.duplicate();
+		kopie.limit(ende);
+		kopie.position(start);
+		return kopie.toString();
+	}
+	
+}
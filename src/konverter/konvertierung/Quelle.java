@@ -6,12 +6,46 @@
 package konverter.konvertierung;
 
 import java.io.IOException;
+import java.util.Set;
 
 import konverter.daten.Item;
+import konverter.daten.Itemfeld;
+import konverter.daten.Itemtyp;
+import konverter.daten.Satzblock;
 import konverter.exception.KonverterException;
 
+// Eine Quelle darf das von next gelieferte Item beim nächsten Aufruf von next
+// wiederverwenden. Wer Items darüber hinaus aufbewahrt, muss sie mit
+// Item.kopie kopieren.
 public interface Quelle {
 	
 	Item next() throws IOException, KonverterException;
 	
+	// vor dem ersten next: nur diese Felder müssen in den Tokens gefüllt
+	// werden (siehe Senke.felder), nicht benötigte Felder bleiben leer (null
+	// bzw. ohne Lemma im Satzblock); geprüft wird die Eingabe trotzdem
+	// vollständig, damit Fehler nicht von der Ausgabe abhängen
+	default void felderFestlegen(final Set<Itemfeld> felder) {
+	}
+	
+	// statt next: liest die ganze Eingabe und gibt jedes Token sofort an die
+	// Senke weiter; false, wenn die Quelle das nicht kann (dann wurde noch
+	// nichts gelesen)
+	default boolean direktKonvertieren(final Tokensenke senke) throws IOException, KonverterException {
+		return false;
+	}
+	
+	// füllt den Block, bis er voll ist oder das Ende der Eingabe erreicht
+	// ist; statt eines Items vom Typ ENDE wird am Ende block.ende gesetzt
+	default void next(final Satzblock block) throws IOException, KonverterException {
+		while (!block.voll()) {
+			final Item token = next();
+			if (token.typ == Itemtyp.ENDE) {
+				block.ende = true;
+				return;
+			}
+			block.hinzufuegen(token);
+		}
+	}
+	
 }
@@ -6,12 +6,42 @@
 package konverter.konvertierung;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 import konverter.daten.Item;
+import konverter.daten.Itemfeld;
+import konverter.daten.Itemtyp;
+import konverter.daten.Satzblock;
 import konverter.exception.KonverterException;
 
+// Die übergebenen Items gehören der Quelle und sind nur während des Aufrufs
+// gültig; eine Senke, die Items aufbewahrt, muss sie mit Item.kopie kopieren.
 public interface Senke {
 	
+	Set<Itemfeld> ALLE_FELDER = Collections.unmodifiableSet(EnumSet.allOf(Itemfeld.class));
+	
+	// die Felder der Tokens, die die Senke tatsächlich ausgibt; die übrigen
+	// darf die Quelle leer lassen
+	default Set<Itemfeld> felder() {
+		return ALLE_FELDER;
+	}
+	
 	void next(Item token) throws IOException, KonverterException;
 	
+	default void next(final Satzblock block) throws IOException, KonverterException {
+		final Item item = new Item();
+		int token = 0;
+		for (int satz = 0; satz <= block.satzanzahl; satz++) {
+			for (final int ende = block.satzende(satz); token < ende; token++)
+				next(block.item(token, item));
+			if (satz < block.satzanzahl) {
+				item.leeren();
+				item.typ = Itemtyp.LEERZEILE;
+				next(item);
+			}
+		}
+	}
+	
 }
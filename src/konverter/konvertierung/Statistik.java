@@ -0,0 +1,622 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import konverter.daten.Item;
+import konverter.daten.Itemfeld;
+import konverter.daten.Itemtyp;
+import konverter.daten.POS;
+import konverter.daten.Satzblock;
+import konverter.daten.Tagcode;
+import konverter.exception.KonverterException;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+
+// Zählt während einer oder mehrerer Konvertierungen Tokens, Sätze, Wortarten
+// und Bytes und misst die Zeit in Quelle (Einlesen und Parsen) und Senke
+// (Konvertieren und Ausgeben). Eingeschaltet wird sie, indem Verfahren,
+// Eingabe, Eingabestrom und Ausgabekanal mit den Methoden hier umhüllt
+// werden; ohne Statistik bleibt alles unverändert und kostet nichts.
+// Die Hüllen zählen für sich und übernehmen ihre Zähler in Abständen
+// synchronisiert in die Statistik, daher kann eine Statistik von allen
+// Threads einer Konvertierung (pipeline, parallel) und von mehreren
+// Konvertierungen zugleich (Stapelbetrieb) benutzt werden. Jeder Aufruf
+// wird gemessen: Stichproben würden einzelne lange Aufrufe (das Schreiben
+// eines vollen Ausgabepuffers) vervielfachen.
+public class Statistik {
+	
+	private static final int TOKENINTERVALL = 4096;
+	private static final int BYTEINTERVALL = 1 << 16;
+	
+	private static final POS[] WORTARTEN = POS.values();
+	// Tokens ohne Wortart
+	private static final int KEINE_WORTART = WORTARTEN.length;
+	
+	private static final double MB = 1e6;
+	
+	private final long pStart;
+	private long pEnde;
+	// Summe der Dateigrößen, -1 wenn unbekannt
+	private long pGesamtgroesse;
+	
+	private long pDateien;
+	private long pEingabeBytes;
+	private long pAusgabeBytes;
+	private long pTokens;
+	private long pSaetze;
+	// Nanosekunden, über alle Threads summiert
+	private long pQuellzeit;
+	private long pSenkenzeit;
+	private final long[] pWortarten;
+	
+	public Statistik() {
+		pStart = System.nanoTime();
+		pEnde = -1;
+		pGesamtgroesse = -1;
+		pWortarten = new long[KEINE_WORTART + 1];
+	}
+	
+	// für Fortschritt und Restzeit
+	public synchronized void gesamtgroesseSetzen(final long groesse) {
+		pGesamtgroesse = groesse;
+	}
+	
+	// zählt beim Einlesen die Bytes der Zeilen, genau beim Bytezeilenleser,
+	// sonst aus der Anzahl der Zeichen geschätzt; nach einer vollständigen
+	// Konvertierung zählt die Dateigröße
+	public Verfahren verfahren(final Verfahren verfahren) {
+		return (datei, charset, quellengenerator, senkengenerator, ziel) -> {
+			final Huellen huellen = new Huellen();
+			final double bytesProZeichen = bytesProZeichen(charset);
+			boolean vollstaendig = false;
+			try {
+				verfahren.konvertieren(datei, charset, leser -> huellen.quelle(quellengenerator.quelle(huellen.leser(leser, bytesProZeichen))), z -> huellen.senke(senkengenerator.senke(z)), ziel);
+				vollstaendig = true;
+			} finally {
+				huellen.uebernehmen((vollstaendig && Files.isRegularFile(datei)) ? Files.size(datei) : -1, -1);
+			}
+		};
+	}
+	
+	// für Eingaben aus Strömen, die kein Verfahren haben: nur die Senke wird
+	// umhüllt, die Zeit der Quelle ist die übrige Zeit; die Bytes zählt
+	// strom
+	public Eingabe eingabe(final Eingabe eingabe) {
+		return new Eingabe() {
+			
+			@Override
+			public void konvertierenVon(final Senke senke) throws IOException, KonverterException {
+				konvertierenVon(z -> senke, null);
+			}
+			
+			@Override
+			public void konvertierenVon(final Senkengenerator senkengenerator, final Appendable ziel) throws IOException, KonverterException {
+				final Huellen huellen = new Huellen();
+				final long start = System.nanoTime();
+				try {
+					eingabe.konvertierenVon(z -> huellen.senke(senkengenerator.senke(z)), ziel);
+				} finally {
+					huellen.uebernehmen(-1, System.nanoTime() - start);
+				}
+			}
+		
+		};
+	}
+	
+	public InputStream strom(final InputStream strom) {
+		return new FilterInputStream(strom) {
+			
+			@Override
+			public int read() throws IOException {
+				final int result = super.read();
+				if (result >= 0)
+					eingabeBytesUebernehmen(1);
+				return result;
+			}
+			
+			@Override
+			public int read(final byte[] b, final int off, final int len) throws IOException {
+				final int result = super.read(b, off, len);
+				if (result > 0)
+					eingabeBytesUebernehmen(result);
+				return result;
+			}
+			
+			@Override
+			public long skip(final long n) throws IOException {
+				final long result = super.skip(n);
+				eingabeBytesUebernehmen(result);
+				return result;
+			}
+		
+		};
+	}
+	
+	public WritableByteChannel kanal(final WritableByteChannel kanal) {
+		return new WritableByteChannel() {
+			
+			@Override
+			public int write(final ByteBuffer src) throws IOException {
+				final int result = kanal.write(src);
+				ausgabeBytesUebernehmen(result);
+				return result;
+			}
+			
+			@Override
+			public boolean isOpen() {
+				return kanal.isOpen();
+			}
+			
+			@Override
+			public void close() throws IOException {
+				kanal.close();
+			}
+		
+		};
+	}
+	
+	// hält die Zeit an; danach übernommene Zähler kommen noch in den Bericht
+	public synchronized void beenden() {
+		if (pEnde < 0)
+			pEnde = System.nanoTime();
+	}
+	
+	// schreibt alle intervall Millisekunden eine Zeile nach ausgabe, bis das
+	// Ergebnis geschlossen wird
+	public Closeable fortschrittAnzeigen(final PrintStream ausgabe, final long intervall) {
+		final Thread thread = new Thread(() -> {
+			try {
+				while (true) {
+					Thread.sleep(intervall);
+					ausgabe.println(fortschritt());
+				}
+			} catch (final InterruptedException e) {
+				// beendet
+			}
+		}, "Fortschritt");
+		thread.setDaemon(true);
+		thread.start();
+		return () -> {
+			thread.interrupt();
+			try {
+				thread.join();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+	}
+	
+	// Anteil und Restzeit nur bei bekannter Gesamtgröße
+	public synchronized String fortschritt() {
+		final double sekunden = (System.nanoTime() - pStart) / 1e9;
+		final double rate = pEingabeBytes / sekunden;
+		final StringBuilder result = new StringBuilder("Fortschritt: ");
+		if (pGesamtgroesse > 0) {
+			result.append(String.format(Locale.ROOT, "%.1f %% (%.1f von %.1f MB)", Math.min(100.0 * pEingabeBytes / pGesamtgroesse, 100), pEingabeBytes / MB, pGesamtgroesse / MB));
+		} else {
+			result.append(String.format(Locale.ROOT, "%.1f MB", pEingabeBytes / MB));
+		}
+		result.append(", ").append(pTokens).append(" Tokens");
+		result.append(String.format(Locale.ROOT, ", %.1f MB/s", rate / MB));
+		if ((pGesamtgroesse > 0) && (rate > 0)) {
+			final long rest = Math.max((long) ((pGesamtgroesse - pEingabeBytes) / rate), 0);
+			result.append(String.format(Locale.ROOT, ", Restzeit %d:%02d:%02d", rest / 3600, rest / 60 % 60, rest % 60));
+		}
+		return result.toString();
+	}
+	
+	public synchronized String bericht() {
+		final double sekunden = sekunden();
+		final double[] stufen = stufenzeiten(sekunden);
+		final StringBuilder result = new StringBuilder();
+		result.append("Dateien: ").append(pDateien).append('\n');
+		result.append("Tokens: ").append(pTokens).append('\n');
+		result.append("Sätze: ").append(pSaetze).append('\n');
+		result.append("Bytes Eingabe: ").append(pEingabeBytes).append('\n');
+		result.append("Bytes Ausgabe: ").append(pAusgabeBytes).append('\n');
+		result.append(String.format(Locale.ROOT, "Zeit: %.3f s\n", sekunden));
+		result.append(String.format(Locale.ROOT, "  Einlesen und Parsen: %.3f s\n", stufen[0]));
+		result.append(String.format(Locale.ROOT, "  Konvertieren und Ausgeben: %.3f s\n", stufen[1]));
+		result.append(String.format(Locale.ROOT, "Tokens/s: %.0f\n", pTokens / sekunden));
+		result.append(String.format(Locale.ROOT, "MB/s: %.1f\n", pEingabeBytes / MB / sekunden));
+		result.append("Wortarten:\n");
+		for (final int wortart : wortartenSortiert())
+			result.append(String.format(Locale.ROOT, "  %-45s %12d %6.2f %%\n", wortartname(wortart), pWortarten[wortart], 100.0 * pWortarten[wortart] / pTokens));
+		return result.toString();
+	}
+	
+	public synchronized String berichtJson() {
+		final double sekunden = sekunden();
+		final double[] stufen = stufenzeiten(sekunden);
+		final StringBuilder result = new StringBuilder("{\n");
+		result.append("  \"files\": ").append(pDateien).append(",\n");
+		result.append("  \"tokens\": ").append(pTokens).append(",\n");
+		result.append("  \"sentences\": ").append(pSaetze).append(",\n");
+		result.append("  \"bytes_in\": ").append(pEingabeBytes).append(",\n");
+		result.append("  \"bytes_out\": ").append(pAusgabeBytes).append(",\n");
+		result.append(String.format(Locale.ROOT, "  \"seconds\": %.3f,\n", sekunden));
+		result.append(String.format(Locale.ROOT, "  \"stage_seconds\": { \"input\": %.3f, \"output\": %.3f },\n", stufen[0], stufen[1]));
+		result.append(String.format(Locale.ROOT, "  \"tokens_per_second\": %.0f,\n", pTokens / sekunden));
+		result.append(String.format(Locale.ROOT, "  \"megabytes_per_second\": %.3f,\n", pEingabeBytes / MB / sekunden));
+		result.append("  \"pos\": {");
+		boolean erste = true;
+		for (final int wortart : wortartenSortiert()) {
+			result.append(erste ? "\n" : ",\n").append("    \"").append(wortartname(wortart)).append("\": ").append(pWortarten[wortart]);
+			erste = false;
+		}
+		result.append(erste ? "}\n" : "\n  }\n");
+		return result.append("}\n").toString();
+	}
+	
+	private double sekunden() {
+		return (((pEnde < 0) ? System.nanoTime() : pEnde) - pStart) / 1e9;
+	}
+	
+	// Einlesen und Ausgeben in Sekunden; laufen sie gleichzeitig in mehreren
+	// Threads, übersteigt ihre Summe die Gesamtzeit, die dann im Verhältnis
+	// der gemessenen Zeiten aufgeteilt wird
+	private double[] stufenzeiten(final double sekunden) {
+		final double quelle = pQuellzeit / 1e9;
+		final double senke = pSenkenzeit / 1e9;
+		final double faktor = (quelle + senke > sekunden) ? sekunden / (quelle + senke) : 1;
+		return new double[] { quelle * faktor, senke * faktor };
+	}
+	
+	// die vorkommenden Wortarten, die häufigsten zuerst
+	private List<Integer> wortartenSortiert() {
+		final List<Integer> result = new ArrayList<>();
+		for (int i = 0; i < pWortarten.length; i++)
+			if (pWortarten[i] > 0)
+				result.add(i);
+		result.sort((a, b) -> Long.compare(pWortarten[b], pWortarten[a]));
+		return result;
+	}
+	
+	private static String wortartname(final int wortart) {
+		return (wortart == KEINE_WORTART) ? "-" : WORTARTEN[wortart].name();
+	}
+	
+	private static int wortart(final int tagcode) {
+		final POS pos = Tagcode.pos(tagcode);
+		return (pos == null) ? KEINE_WORTART : pos.ordinal();
+	}
+	
+	// Bytezeilenleser liefern die Bytes selbst
+	private static double bytesProZeichen(final Charset charset) {
+		if (Bytezeilenleser.unterstuetzt(charset) || !charset.canEncode())
+			return 1;
+		return charset.newEncoder().averageBytesPerChar();
+	}
+	
+	private synchronized void eingabeBytesUebernehmen(final long bytes) {
+		pEingabeBytes += bytes;
+	}
+	
+	private synchronized void ausgabeBytesUebernehmen(final long bytes) {
+		pAusgabeBytes += bytes;
+	}
+	
+	// die Hüllen einer Konvertierung, damit sie am Ende alles übernehmen
+	// können, was sie noch nicht übernommen haben; sie werden in den Threads
+	// des Verfahrens erzeugt, übernommen wird erst, wenn diese fertig sind
+	private class Huellen {
+		
+		private final List<Zaehlleser> pLeser;
+		private final List<Statistikquelle> pQuellen;
+		private final List<Statistiksenke> pSenken;
+		
+		Huellen() {
+			pLeser = Collections.synchronizedList(new ArrayList<>());
+			pQuellen = Collections.synchronizedList(new ArrayList<>());
+			pSenken = Collections.synchronizedList(new ArrayList<>());
+		}
+		
+		Zeilenleser leser(final Zeilenleser leser, final double bytesProZeichen) {
+			final Zaehlleser result = new Zaehlleser(leser, bytesProZeichen);
+			pLeser.add(result);
+			return result;
+		}
+		
+		Quelle quelle(final Quelle quelle) {
+			final Statistikquelle result = new Statistikquelle(quelle);
+			pQuellen.add(result);
+			return result;
+		}
+		
+		Senke senke(final Senke senke) {
+			final Statistiksenke result = (senke instanceof Tokensenke) ? new Tokenstatistiksenke(senke) : new Statistiksenke(senke);
+			pSenken.add(result);
+			return result;
+		}
+		
+		// dateigroesse ersetzt die gezählten Bytes, gesamtzeit abzüglich der
+		// Senken ist die Zeit der Quelle, wenn diese nicht umhüllt ist; -1
+		// jeweils für unbekannt
+		void uebernehmen(final long dateigroesse, final long gesamtzeit) {
+			long gelesen = 0;
+			long senkenzeit = 0;
+			synchronized (pLeser) {
+				for (final Zaehlleser leser : pLeser) {
+					leser.uebernehmen();
+					gelesen += leser.pUebernommen;
+				}
+			}
+			synchronized (pQuellen) {
+				for (final Statistikquelle quelle : pQuellen)
+					quelle.uebernehmen();
+			}
+			synchronized (pSenken) {
+				for (final Statistiksenke senke : pSenken) {
+					senkenzeit += senke.pGesamtzeit + senke.pZeit;
+					senke.uebernehmen(true);
+				}
+			}
+			synchronized (Statistik.this) {
+				pDateien++;
+				if (dateigroesse >= 0)
+					pEingabeBytes += dateigroesse - gelesen;
+				if (gesamtzeit >= 0)
+					pQuellzeit += Math.max(gesamtzeit - senkenzeit, 0);
+			}
+		}
+	
+	}
+	
+	private class Zaehlleser implements Zeilenleser {
+		
+		private final Zeilenleser pLeser;
+		// null, wenn die Bytes aus den Zeichen geschätzt werden
+		private final Bytezeilenleser pBytezeilenleser;
+		private final double pBytesProZeichen;
+		
+		private double pGelesen;
+		long pUebernommen;
+		
+		Zaehlleser(final Zeilenleser leser, final double bytesProZeichen) {
+			pLeser = leser;
+			pBytezeilenleser = (leser instanceof Bytezeilenleser) ? (Bytezeilenleser) leser : null;
+			pBytesProZeichen = bytesProZeichen;
+		}
+		
+		@Override
+		public String zeileLesen() throws IOException {
+			final String result = pLeser.zeileLesen();
+			zaehlen(result);
+			return result;
+		}
+		
+		@Override
+		public CharSequence zeileAnsehen() throws IOException {
+			final CharSequence result = pLeser.zeileAnsehen();
+			zaehlen(result);
+			return result;
+		}
+		
+		private void zaehlen(final CharSequence zeile) {
+			if (pBytezeilenleser != null)
+				pGelesen = pBytezeilenleser.position();
+			else if (zeile != null)
+				pGelesen += (zeile.length() + 1) * pBytesProZeichen;
+			if ((zeile == null) || (pGelesen - pUebernommen >= BYTEINTERVALL))
+				uebernehmen();
+		}
+		
+		void uebernehmen() {
+			final long bytes = (long) pGelesen - pUebernommen;
+			if (bytes > 0) {
+				eingabeBytesUebernehmen(bytes);
+				pUebernommen += bytes;
+			}
+		}
+	
+	}
+	
+	private class Statistikquelle implements Quelle {
+		
+		private final Quelle pQuelle;
+		private long pZeit;
+		
+		Statistikquelle(final Quelle quelle) {
+			pQuelle = quelle;
+		}
+		
+		@Override
+		public Item next() throws IOException, KonverterException {
+			final long start = System.nanoTime();
+			final Item result = pQuelle.next();
+			pZeit += System.nanoTime() - start;
+			return result;
+		}
+		
+		@Override
+		public void felderFestlegen(final Set<Itemfeld> felder) {
+			pQuelle.felderFestlegen(felder);
+		}
+		
+		// Quelle und Senke wechseln sich Token für Token ab, die Zeit der
+		// Senke (gemessen in der Hülle) wird abgezogen
+		@Override
+		public boolean direktKonvertieren(final Tokensenke senke) throws IOException, KonverterException {
+			final Statistiksenke huelle = (senke instanceof Statistiksenke) ? (Statistiksenke) senke : null;
+			final long senkenzeit = (huelle == null) ? 0 : huelle.pGesamtzeit + huelle.pZeit;
+			final long start = System.nanoTime();
+			try {
+				return pQuelle.direktKonvertieren(senke);
+			} finally {
+				pZeit += System.nanoTime() - start - ((huelle == null) ? 0 : huelle.pGesamtzeit + huelle.pZeit - senkenzeit);
+			}
+		}
+		
+		@Override
+		public void next(final Satzblock block) throws IOException, KonverterException {
+			final long start = System.nanoTime();
+			try {
+				pQuelle.next(block);
+			} finally {
+				pZeit += System.nanoTime() - start;
+			}
+		}
+		
+		void uebernehmen() {
+			final long zeit = Math.max(pZeit, 0);
+			pZeit = 0;
+			synchronized (Statistik.this) {
+				pQuellzeit += zeit;
+			}
+		}
+	
+	}
+	
+	private class Statistiksenke implements Senke {
+		
+		private final Senke pSenke;
+		
+		// pZeit seit der letzten Übernahme, pGesamtzeit davor
+		long pZeit;
+		long pGesamtzeit;
+		
+		private long pTokens;
+		private long pSaetze;
+		private boolean pSatzOffen;
+		private final long[] pWortarten;
+		private int pSeitUebernahme;
+		
+		Statistiksenke(final Senke senke) {
+			pSenke = senke;
+			pWortarten = new long[KEINE_WORTART + 1];
+		}
+		
+		@Override
+		public Set<Itemfeld> felder() {
+			return pSenke.felder();
+		}
+		
+		@Override
+		public void next(final Item token) throws IOException, KonverterException {
+			final long start = System.nanoTime();
+			try {
+				pSenke.next(token);
+			} finally {
+				pZeit += System.nanoTime() - start;
+			}
+			zaehlen(token);
+		}
+		
+		@Override
+		public void next(final Satzblock block) throws IOException, KonverterException {
+			final long start = System.nanoTime();
+			try {
+				pSenke.next(block);
+			} finally {
+				pZeit += System.nanoTime() - start;
+			}
+			int token = 0;
+			for (int satz = 0; satz <= block.satzanzahl; satz++) {
+				for (final int ende = block.satzende(satz); token < ende; token++) {
+					pWortarten[wortart(block.tagcodes[token])]++;
+					pSatzOffen = true;
+				}
+				if (satz < block.satzanzahl)
+					satzZaehlen();
+			}
+			pTokens += block.tokenanzahl;
+			pSeitUebernahme += block.tokenanzahl;
+			if (pSeitUebernahme >= TOKENINTERVALL)
+				uebernehmen(false);
+		}
+		
+		final void tokenZaehlen(final int tagcode) {
+			pTokens++;
+			pWortarten[wortart(tagcode)]++;
+			pSatzOffen = true;
+			if (++pSeitUebernahme >= TOKENINTERVALL)
+				uebernehmen(false);
+		}
+		
+		// leere Sätze (mehrere Leerzeilen) zählen nicht
+		final void satzZaehlen() {
+			if (pSatzOffen)
+				pSaetze++;
+			pSatzOffen = false;
+		}
+		
+		private void zaehlen(final Item item) {
+			if (item.typ == Itemtyp.TOKEN)
+				tokenZaehlen(item.tagcode);
+			else if (item.typ == Itemtyp.LEERZEILE)
+				satzZaehlen();
+		}
+		
+		// am Ende zählt auch ein Satz ohne abschließende Leerzeile
+		void uebernehmen(final boolean ende) {
+			if (ende)
+				satzZaehlen();
+			synchronized (Statistik.this) {
+				Statistik.this.pTokens += pTokens;
+				Statistik.this.pSaetze += pSaetze;
+				pSenkenzeit += pZeit;
+				for (int i = 0; i < pWortarten.length; i++)
+					Statistik.this.pWortarten[i] += pWortarten[i];
+			}
+			pTokens = 0;
+			pSaetze = 0;
+			pGesamtzeit += pZeit;
+			pZeit = 0;
+			Arrays.fill(pWortarten, 0);
+			pSeitUebernahme = 0;
+		}
+	
+	}
+	
+	private class Tokenstatistiksenke extends Statistiksenke implements Tokensenke {
+		
+		private final Tokensenke pTokensenke;
+		
+		Tokenstatistiksenke(final Senke senke) {
+			super(senke);
+			pTokensenke = (Tokensenke) senke;
+		}
+		
+		@Override
+		public void token(final long index, final CharSequence zeile, final int formVon, final int formBis, final int lemmaVon, final int lemmaBis, final int tagcode) throws IOException, KonverterException {
+			final long start = System.nanoTime();
+			try {
+				pTokensenke.token(index, zeile, formVon, formBis, lemmaVon, lemmaBis, tagcode);
+			} finally {
+				pZeit += System.nanoTime() - start;
+			}
+			tokenZaehlen(tagcode);
+		}
+		
+		@Override
+		public void satzBeenden() throws IOException, KonverterException {
+			final long start = System.nanoTime();
+			try {
+				pTokensenke.satzBeenden();
+			} finally {
+				pZeit += System.nanoTime() - start;
+			}
+			satzZaehlen();
+		}
+	
+	}
+	
+}
@@ -0,0 +1,47 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+import konverter.exception.KonverterException;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+
+
+// Schreibt in einen Kanal, der nicht geschlossen wird: für System.out der
+// Kanal von FileDescriptor.out (an System.out vorbei, ohne dessen Puffer und
+// Synchronisierung), beim Dienst die Verbindung zum Client.
+public class StromAusgabe implements Ausgabe {
+	
+	private final WritableByteChannel pKanal;
+	private final Charset pCharset;
+	private final Senkengenerator pSenkengenerator;
+	private final int pPuffergroesse;
+	private final int pPufferanzahl;
+	
+	public StromAusgabe(final WritableByteChannel kanal, final Charset charset, final Senkengenerator senkengenerator) {
+		this(kanal, charset, senkengenerator, Kanalausgabe.BYTEPUFFER, 1);
+	}
+	
+	public StromAusgabe(final WritableByteChannel kanal, final Charset charset, final Senkengenerator senkengenerator, final int puffergroesse, final int pufferanzahl) {
+		pKanal = kanal;
+		pCharset = charset;
+		pSenkengenerator = senkengenerator;
+		pPuffergroesse = puffergroesse;
+		pPufferanzahl = pufferanzahl;
+	}
+	
+	@Override
+	public void konvertierenNach(final Eingabe eingabe) throws IOException, KonverterException {
+		try (final Kanalausgabe ausgabe = new Kanalausgabe(pKanal, pCharset, pPuffergroesse, pPufferanzahl)) {
+			eingabe.konvertierenVon(pSenkengenerator, ausgabe);
+			ausgabe.flush();
+		}
+	}
+	
+}
@@ -0,0 +1,53 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+
+import konverter.exception.KonverterException;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+import konverter.konvertierung.TextdateiEingabe.Quellengenerator;
+
+// Liest aus einem Strom (System.in oder die Verbindung eines Clients des
+// Dienstes), immer sequenziell. Satzweise wird Item für Item konvertiert und
+// die Ausgabe nach jeder Leerzeile geleert, sodass jeder Satz ausgegeben ist,
+// bevor der nächste eintrifft. Der Strom wird nicht geschlossen.
+public class StromEingabe implements Eingabe {
+	
+	private final InputStream pStrom;
+	private final Charset pCharset;
+	private final Quellengenerator pQuellengenerator;
+	private final boolean pSatzweise;
+	
+	public StromEingabe(final InputStream strom, final Charset charset, final Quellengenerator quellengenerator, final boolean satzweise) {
+		pStrom = strom;
+		pCharset = charset;
+		pQuellengenerator = quellengenerator;
+		pSatzweise = satzweise;
+	}
+	
+	@Override
+	public void konvertierenVon(final Senke senke) throws IOException, KonverterException {
+		konvertierenVon(ziel -> senke, null);
+	}
+	
+	@Override
+	public void konvertierenVon(final Senkengenerator senkengenerator, final Appendable ziel) throws IOException, KonverterException {
+		// Decoder wie bei Files.newBufferedReader: ungültige Eingabe ist ein
+		// Fehler, statt ersetzt zu werden
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(pStrom, pCharset.newDecoder()));
+		final Quelle quelle = pQuellengenerator.quelle(reader::readLine);
+		if (pSatzweise)
+			Konvertierung.satzweiseKonvertieren(quelle, senkengenerator.senke(ziel), ziel);
+		else
+			Konvertierung.konvertieren(quelle, senkengenerator.senke(ziel));
+	}
+	
+}
@@ -5,10 +5,9 @@
  */
 package konverter.konvertierung;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 
@@ -20,25 +19,35 @@ public class TextdateiAusgabe implements Ausgabe {
 	private final Path pFile;
 	private final Charset pCharset;
 	private final Senkengenerator pSenkengenerator;
+	private final int pPuffergroesse;
+	private final int pPufferanzahl;
 	
 	public TextdateiAusgabe(final Path file, final Charset charset, final Senkengenerator senkengenerator) {
+		this(file, charset, senkengenerator, Kanalausgabe.BYTEPUFFER, 1);
+	}
+	
+	// siehe Kanalausgabe; ab zwei Puffern wird im Hintergrund geschrieben
+	public TextdateiAusgabe(final Path file, final Charset charset, final Senkengenerator senkengenerator, final int puffergroesse, final int pufferanzahl) {
 		pFile = file;
 		pCharset = charset;
 		pSenkengenerator = senkengenerator;
+		pPuffergroesse = puffergroesse;
+		pPufferanzahl = pufferanzahl;
 	}
 	
 	@Override
 	public void konvertierenNach(final Eingabe eingabe) throws IOException, KonverterException {
-		try (final BufferedWriter writer = Files.newBufferedWriter(pFile, pCharset, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
-			eingabe.konvertierenVon(pSenkengenerator.senke(writer));
-			writer.flush();
+		try (final FileChannel channel = FileChannel.open(pFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+				final Kanalausgabe ausgabe = new Kanalausgabe(channel, pCharset, pPuffergroesse, pPufferanzahl)) {
+			eingabe.konvertierenVon(pSenkengenerator, ausgabe);
+			ausgabe.flush();
 		}
 	}
 	
 	@FunctionalInterface
 	public static interface Senkengenerator {
 		
-		Senke senke(BufferedWriter writer) throws IOException;
+		Senke senke(Appendable ziel) throws IOException;
 		
 	}
 	
@@ -5,13 +5,12 @@
  */
 package konverter.konvertierung;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import konverter.exception.KonverterException;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
 
 
 public class TextdateiEingabe implements Eingabe {
@@ -19,24 +18,33 @@ public class TextdateiEingabe implements Eingabe {
 	private final Path pFile;
 	private final Charset pCharset;
 	private final Quellengenerator pQuellengenerator;
+	private final Verfahren pVerfahren;
 	
 	public TextdateiEingabe(final Path file, final Charset charset, final Quellengenerator quellengenerator) {
+		this(file, charset, quellengenerator, Verfahren.SEQUENZIELL);
+	}
+	
+	public TextdateiEingabe(final Path file, final Charset charset, final Quellengenerator quellengenerator, final Verfahren verfahren) {
 		pFile = file;
 		pCharset = charset;
 		pQuellengenerator = quellengenerator;
+		pVerfahren = verfahren;
 	}
 	
 	@Override
 	public void konvertierenVon(final Senke senke) throws IOException, KonverterException {
-		try (final BufferedReader reader = Files.newBufferedReader(pFile, pCharset)) {
-			Konvertierung.konvertieren(pQuellengenerator.quelle(reader), senke);
-		}
+		Verfahren.SEQUENZIELL.konvertieren(pFile, pCharset, pQuellengenerator, ziel -> senke, null);
+	}
+	
+	@Override
+	public void konvertierenVon(final Senkengenerator senkengenerator, final Appendable ziel) throws IOException, KonverterException {
+		pVerfahren.konvertieren(pFile, pCharset, pQuellengenerator, senkengenerator, ziel);
 	}
 	
 	@FunctionalInterface
 	public static interface Quellengenerator {
 		
-		Quelle quelle(BufferedReader reader) throws IOException;
+		Quelle quelle(Zeilenleser leser) throws IOException;
 		
 	}
 	
@@ -0,0 +1,23 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.io.IOException;
+
+import konverter.exception.KonverterException;
+
+// Für Senken, die ein Token direkt aus Bereichen der Eingabezeile schreiben
+// können, ohne Item oder Satzblock (siehe Quelle.direktKonvertieren). Die
+// Zeile ist nur während des Aufrufs gültig.
+public interface Tokensenke {
+	
+	// lemmaVon < 0, wenn das Token kein Lemma hat
+	void token(long index, CharSequence zeile, int formVon, int formBis, int lemmaVon, int lemmaBis, int tagcode) throws IOException, KonverterException;
+	
+	// entspricht einer Leerzeile
+	void satzBeenden() throws IOException, KonverterException;
+	
+}
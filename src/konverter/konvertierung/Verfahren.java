@@ -0,0 +1,26 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
+import konverter.exception.KonverterException;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+import konverter.konvertierung.TextdateiEingabe.Quellengenerator;
+
+@FunctionalInterface
+public interface Verfahren {
+	
+	Verfahren SEQUENZIELL = Konvertierung::konvertieren;
+	
+	// nach jedem Satz wird die Ausgabe geleert
+	Verfahren SATZWEISE = Konvertierung::satzweiseKonvertieren;
+	
+	void konvertieren(Path datei, Charset charset, Quellengenerator quellengenerator, Senkengenerator senkengenerator, Appendable ziel) throws IOException, KonverterException;
+	
+}
@@ -0,0 +1,22 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.konvertierung;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface Zeilenleser {
+	
+	// liefert null am Ende der Eingabe
+	String zeileLesen() throws IOException;
+	
+	// wie zeileLesen, die Zeile ist aber nur bis zum nächsten Aufruf gültig;
+	// Zeilenleser, die ohne Kopie auskommen, überschreiben diese Methode
+	default CharSequence zeileAnsehen() throws IOException {
+		return zeileLesen();
+	}
+	
+}
@@ -0,0 +1,243 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.korpus;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import konverter.KonverterMain;
+import konverter.daten.Item;
+import konverter.daten.Itemfeld;
+import konverter.daten.Itemtyp;
+import konverter.daten.Satzblock;
+import konverter.exception.KonverterException;
+import konverter.formate.Format;
+import konverter.konvertierung.Ausgabe;
+import konverter.konvertierung.Eingabe;
+import konverter.konvertierung.Kanalausgabe;
+import konverter.konvertierung.Konvertierung;
+import konverter.konvertierung.Quelle;
+import konverter.konvertierung.Senke;
+import konverter.konvertierung.Tokensenke;
+
+// Erzeugt ein künstliches Korpus mit gültigen Tags (siehe Vokabular) als
+// Eingabe für jede Ausgabe, also in jedem Format. Bei gleichem Startwert und
+// gleichen Parametern ist das Korpus immer dasselbe, auch bei jedem weiteren
+// konvertierenVon. Die Tokens werden ohne Umweg über Text erzeugt, das
+// Schreiben kostet also nur, was der Schreiber des Formats kostet.
+// Aufruf: java konverter.korpus.Korpusgenerator [-seed n] [-tokens n] [-min-length n] [-max-length n] [-output-charset Zeichenkodierung] Format Ausgabedatei
+public class Korpusgenerator implements Eingabe {
+	
+	private static final int LEERZEILE = -1;
+	private static final int ENDE = -2;
+	
+	private final long pStartwert;
+	private final long pTokens;
+	private final int pMinSatzlaenge;
+	private final int pMaxSatzlaenge;
+	
+	// Satzlängen gleichverteilt zwischen minSatzlaenge und maxSatzlaenge, mit
+	// Satzzeichen am Ende; der letzte Satz ist kürzer, wenn die Tokens sonst
+	// nicht aufgehen
+	public Korpusgenerator(final long startwert, final long tokens, final int minSatzlaenge, final int maxSatzlaenge) {
+		if ((tokens < 0) || (minSatzlaenge < 1) || (maxSatzlaenge < minSatzlaenge))
+			throw new IllegalArgumentException();
+		pStartwert = startwert;
+		pTokens = tokens;
+		pMinSatzlaenge = minSatzlaenge;
+		pMaxSatzlaenge = maxSatzlaenge;
+	}
+	
+	public static void main(final String[] args) {
+		long startwert = 1;
+		long tokens = 1000000;
+		int minSatzlaenge = 3;
+		int maxSatzlaenge = 40;
+		Charset charset = StandardCharsets.UTF_8;
+		Format format = null;
+		String datei = null;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+					case "-seed":
+						startwert = Long.parseLong(args[++i]);
+						break;
+					case "-tokens":
+						tokens = Long.parseLong(args[++i]);
+						break;
+					case "-min-length":
+						minSatzlaenge = Integer.parseInt(args[++i]);
+						break;
+					case "-max-length":
+						maxSatzlaenge = Integer.parseInt(args[++i]);
+						break;
+					case "-output-charset":
+						charset = Charset.forName(args[++i]);
+						break;
+					default:
+						if (format == null) {
+							format = Format.suchen(args[i]);
+							if (format == null)
+								throw new IllegalArgumentException(args[i]);
+						} else if (datei == null) {
+							datei = args[i];
+						} else {
+							throw new IllegalArgumentException(args[i]);
+						}
+				}
+			}
+			if ((datei == null) || (tokens < 0) || (minSatzlaenge < 1) || (maxSatzlaenge < minSatzlaenge))
+				throw new IllegalArgumentException();
+		} catch (final IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			System.out.println("Aufruf: java konverter.korpus.Korpusgenerator [-seed n] [-tokens n] [-min-length n] [-max-length n] [-output-charset Zeichenkodierung] Format Ausgabedatei");
+			System.out.println("Format: \"rftagger\", \"conllx\" oder \"tsv\"; \"-\" als Ausgabedatei steht für die Standardausgabe.");
+			System.exit(1);
+			return;
+		}
+		
+		final Korpusgenerator generator = new Korpusgenerator(startwert, tokens, minSatzlaenge, maxSatzlaenge);
+		// mit zwei Puffern wird im Hintergrund geschrieben
+		final Ausgabe ausgabe;
+		if (datei.equals("-"))
+			ausgabe = format.ausgabe(new FileOutputStream(FileDescriptor.out).getChannel(), charset, Kanalausgabe.BYTEPUFFER, 2);
+		else
+			ausgabe = format.ausgabe(Paths.get(datei), charset, Kanalausgabe.BYTEPUFFER, 2);
+		try {
+			ausgabe.konvertierenNach(generator);
+		} catch (final KonverterException e) {
+			System.err.println(KonverterMain.fehlermeldung(e));
+			System.exit(2);
+		} catch (final IOException e) {
+			System.err.println("Fehler beim Schreiben: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	@Override
+	public void konvertierenVon(final Senke senke) throws IOException, KonverterException {
+		Konvertierung.konvertieren(new Generatorquelle(), senke);
+	}
+	
+	private class Generatorquelle implements Quelle {
+		
+		private final SplittableRandom pZufall;
+		private final Vokabular pVokabular;
+		private final Item pItem;
+		private boolean pLemmas;
+		
+		private long pRest;
+		private int pSatzrest;
+		private boolean pSatzOffen;
+		private long pIndex;
+		// die Form des letzten Tokens in pVokabular.formen[pTag]
+		private int pTag;
+		private int pForm;
+		
+		Generatorquelle() {
+			pZufall = new SplittableRandom(pStartwert);
+			pVokabular = new Vokabular(pZufall.split());
+			pItem = new Item();
+			pLemmas = true;
+			pRest = pTokens;
+		}
+		
+		@Override
+		public void felderFestlegen(final Set<Itemfeld> felder) {
+			pLemmas = felder.contains(Itemfeld.LEMMA);
+		}
+		
+		@Override
+		public Item next() {
+			final Item result = pItem;
+			result.leeren();
+			switch (naechstes()) {
+				case ENDE:
+					result.typ = Itemtyp.ENDE;
+					break;
+				case LEERZEILE:
+					result.typ = Itemtyp.LEERZEILE;
+					break;
+				default:
+					final Vokabular.Formen formen = pVokabular.formen[pTag];
+					result.typ = Itemtyp.TOKEN;
+					result.index = pIndex;
+					result.form = formen.formen[pForm];
+					result.lemma = pLemmas ? formen.lemmas[pForm] : null;
+					result.tagcode = pVokabular.tagcodes[pTag];
+			}
+			return result;
+		}
+		
+		@Override
+		public void next(final Satzblock block) {
+			while (!block.voll()) {
+				switch (naechstes()) {
+					case ENDE:
+						block.ende = true;
+						return;
+					case LEERZEILE:
+						block.satzBeenden();
+						break;
+					default:
+						final Vokabular.Formen formen = pVokabular.formen[pTag];
+						block.tokenHinzufuegen(pIndex, formen.formen[pForm], pLemmas ? formen.lemmas[pForm] : null, pVokabular.tagcodes[pTag]);
+				}
+			}
+		}
+		
+		// Form und Lemma gehen als Bereiche von Formen.zeilen an die Senke
+		@Override
+		public boolean direktKonvertieren(final Tokensenke senke) throws IOException, KonverterException {
+			while (true) {
+				switch (naechstes()) {
+					case ENDE:
+						return true;
+					case LEERZEILE:
+						senke.satzBeenden();
+						break;
+					default:
+						final Vokabular.Formen formen = pVokabular.formen[pTag];
+						final String zeile = formen.zeilen[pForm];
+						final int formBis = formen.formen[pForm].length();
+						if (pLemmas)
+							senke.token(pIndex, zeile, 0, formBis, formBis, zeile.length(), pVokabular.tagcodes[pTag]);
+						else
+							senke.token(pIndex, zeile, 0, formBis, -1, -1, pVokabular.tagcodes[pTag]);
+				}
+			}
+		}
+		
+		// setzt pTag und pForm für das nächste Token und liefert pTag, oder
+		// LEERZEILE bzw. ENDE
+		private int naechstes() {
+			if (pSatzrest == 0) {
+				if (pSatzOffen) {
+					pSatzOffen = false;
+					pIndex = 0;
+					return LEERZEILE;
+				}
+				if (pRest == 0)
+					return ENDE;
+				pSatzrest = (int) Math.min(pMinSatzlaenge + pZufall.nextInt(pMaxSatzlaenge - pMinSatzlaenge + 1), pRest);
+				pSatzOffen = true;
+			}
+			pSatzrest--;
+			pRest--;
+			pIndex++;
+			pTag = (pSatzrest == 0) ? pVokabular.satzende : pVokabular.tagZiehen(pZufall);
+			pForm = pVokabular.formen[pTag].ziehen(pZufall);
+			return pTag;
+		}
+	
+	}
+	
+}
@@ -0,0 +1,73 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.korpus;
+
+import java.util.SplittableRandom;
+
+// Diskrete Verteilung über 0 bis n - 1 nach dem Alias-Verfahren von Walker:
+// jedes Ziehen kostet eine Zufallszahl, unabhängig von n. Ihr ganzzahliger
+// Teil wählt den Platz, der Rest entscheidet zwischen Platz und Alias.
+class Verteilung {
+	
+	private final double[] pSchwelle;
+	private final int[] pAlias;
+	
+	// die Gewichte müssen nicht normiert sein, aber positiv
+	Verteilung(final double[] gewichte) {
+		final int n = gewichte.length;
+		double summe = 0;
+		for (final double gewicht : gewichte)
+			summe += gewicht;
+		pSchwelle = new double[n];
+		pAlias = new int[n];
+		// Werte mit weniger bzw. mehr als dem Durchschnitt, als Stapel
+		final int[] klein = new int[n];
+		final int[] gross = new int[n];
+		int kleinAnzahl = 0;
+		int grossAnzahl = 0;
+		for (int i = 0; i < n; i++) {
+			pSchwelle[i] = gewichte[i] * n / summe;
+			if (pSchwelle[i] < 1)
+				klein[kleinAnzahl++] = i;
+			else
+				gross[grossAnzahl++] = i;
+		}
+		while ((kleinAnzahl > 0) && (grossAnzahl > 0)) {
+			final int k = klein[--kleinAnzahl];
+			final int g = gross[grossAnzahl - 1];
+			pAlias[k] = g;
+			pSchwelle[g] -= 1 - pSchwelle[k];
+			if (pSchwelle[g] < 1) {
+				grossAnzahl--;
+				klein[kleinAnzahl++] = g;
+			}
+		}
+		// Rundungsreste
+		while (grossAnzahl > 0)
+			pSchwelle[gross[--grossAnzahl]] = 1;
+		while (kleinAnzahl > 0)
+			pSchwelle[klein[--kleinAnzahl]] = 1;
+	}
+	
+	// Gewicht 1 / (rang + 1)^exponent für die Ränge 0 bis n - 1
+	static Verteilung zipf(final int n, final double exponent) {
+		final double[] gewichte = new double[n];
+		for (int i = 0; i < n; i++)
+			gewichte[i] = zipfgewicht(i, exponent);
+		return new Verteilung(gewichte);
+	}
+	
+	static double zipfgewicht(final int rang, final double exponent) {
+		return 1 / Math.pow(rang + 1, exponent);
+	}
+	
+	int ziehen(final SplittableRandom zufall) {
+		final double u = zufall.nextDouble() * pSchwelle.length;
+		final int i = (int) u;
+		return (u - i < pSchwelle[i]) ? i : pAlias[i];
+	}
+	
+}
@@ -0,0 +1,341 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.korpus;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import konverter.daten.Item;
+import konverter.daten.Itemtyp;
+import konverter.exception.KonverterException;
+import konverter.formate.conllx.CoNLLXTagParser;
+import konverter.formate.conllx.CoNLLXTagSchreiber;
+import konverter.formate.rftagger.RFTagParser;
+import konverter.formate.rftagger.RFTagSchreiber;
+import konverter.formate.rftagger.Tagautomat;
+import konverter.formate.tsv.TsvTagParser;
+import konverter.formate.tsv.TsvTagSchreiber;
+import konverter.konvertierung.PufferZeilenleser;
+import konverter.konvertierung.Quelle;
+import konverter.konvertierung.Senke;
+import konverter.konvertierung.TextdateiAusgabe.Senkengenerator;
+import konverter.konvertierung.TextdateiEingabe.Quellengenerator;
+
+// Tags und Wortformen für den Korpusgenerator. Die Tags sind alle
+// Kombinationen der RFTagger-Tag-Bestandteile, die der Tagautomat annimmt,
+// einschließlich "*" und "-", soweit sie sich in alle Formate konvertieren
+// lassen. Gezogen wird zuerst eine Wortklasse nach
+// ungefähren Anteilen in deutschen Texten, dann ein Tag der Klasse und dann
+// eine Form aus der Liste für das Tag, beides mit Zipf-Verteilung. Offene
+// Klassen bekommen künstliche Wörter aus Silben, abhängig vom Startwert.
+class Vokabular {
+	
+	private static final double ZIPF_TAGS = 1.0;
+	private static final double ZIPF_FORMEN = 1.07;
+	
+	private static final String[] GRAD = { "Pos", "Comp", "Sup" };
+	private static final String[] KASUS = { "Nom", "Gen", "Dat", "Acc", "*" };
+	private static final String[] NUMERUS = { "Sg", "Pl", "*" };
+	private static final String[] GENUS = { "Masc", "Fem", "Neut", "*", "-" };
+	private static final String[] PERSON = { "1", "2", "3", "-" };
+	private static final String[] TEMPUS = { "Pres", "Past" };
+	private static final String[] MODUS = { "Ind", "Subj", "Imp" };
+	private static final String[] VERBTYP = { "Full", "Aux", "Mod" };
+	private static final String[] REST = { "Dat", "Imp", "Psp", "-" };
+	
+	// Wortklassen mit Anteil, jeweils alle Tags, die mit dem Namen anfangen
+	private static final String[] KLASSEN = { "N.Reg", "N.Name", "SYM.Pun", "SYM.Quot", "SYM.Paren", "SYM.Other", "ART", "APPR", "APPRART", "APPO", "APZR", "ADJA", "ADJD", "ADV", "VFIN", "VINF", "VPP", "VIMP", "PRO", "PROADV", "CONJ", "PART", "CARD", "FM", "ITJ", "TRUNC" };
+	private static final double[] ANTEILE = { 0.17, 0.05, 0.11, 0.01, 0.008, 0.002, 0.11, 0.08, 0.02, 0.001, 0.001, 0.06, 0.02, 0.05, 0.065, 0.02, 0.02, 0.002, 0.08, 0.005, 0.05, 0.02, 0.02, 0.003, 0.001, 0.001 };
+	
+	private static final String SATZENDE = "SYM.Pun.Sent";
+	
+	// für konvertierbar, in derselben Reihenfolge
+	private static final Senkengenerator[] SCHREIBER = { RFTagSchreiber::new, CoNLLXTagSchreiber::new, TsvTagSchreiber::new };
+	private static final Quellengenerator[] PARSER = { RFTagParser::new, CoNLLXTagParser::new, TsvTagParser::new };
+	
+	private static final String[] ANLAUT = { "", "b", "d", "f", "g", "h", "k", "l", "m", "n", "p", "r", "s", "t", "w", "z", "sch", "st", "br", "kr", "tr", "gl", "pf", "schw", "fl" };
+	private static final String[] VOKAL = { "a", "e", "i", "o", "u", "ä", "ö", "ü", "au", "ei", "ie", "eu" };
+	private static final String[] AUSLAUT = { "", "", "n", "r", "l", "s", "t", "ch", "ng", "ck", "nd", "st", "ß", "m" };
+	
+	// die Tags, jeweils mit Tagcode und Formen
+	final int[] tagcodes;
+	final Formen[] formen;
+	// das Tag am Ende jedes Satzes
+	final int satzende;
+	
+	private final Verteilung pTags;
+	
+	Vokabular(final SplittableRandom zufall) {
+		final Map<String, Formen> listen = formenErzeugen(zufall);
+		// nur Tags, die sich in jedes Format und zurück konvertieren lassen
+		final List<String> tags = new ArrayList<>();
+		final List<Integer> codes = new ArrayList<>();
+		final List<Formen> tagformen = new ArrayList<>();
+		for (final String tag : tagsAufzaehlen()) {
+			final int tagcode = Tagautomat.analysieren(tag);
+			final Formen liste = listen.get(laengsterAnfang(tag, listen.keySet()));
+			if (konvertierbar(tag, tagcode, liste)) {
+				tags.add(tag);
+				codes.add(tagcode);
+				tagformen.add(liste);
+			}
+		}
+		tagcodes = new int[tags.size()];
+		formen = tagformen.toArray(new Formen[tags.size()]);
+		for (int i = 0; i < tagcodes.length; i++)
+			tagcodes[i] = codes.get(i);
+		satzende = tags.indexOf(SATZENDE);
+		
+		// eine Verteilung über alle Tags: Anteil der Klasse mal Zipf-Gewicht
+		// in der Klasse
+		final double[] gewichte = new double[tagcodes.length];
+		for (int k = 0; k < KLASSEN.length; k++) {
+			final List<Integer> klasse = new ArrayList<>();
+			for (int i = 0; i < tags.size(); i++)
+				if (gehoertZu(tags.get(i), KLASSEN[k]))
+					klasse.add(i);
+			if (klasse.isEmpty())
+				throw new IllegalStateException("Keine Tags für " + KLASSEN[k]);
+			// gemischt, denn die Reihenfolge bestimmt die Häufigkeit
+			for (int i = klasse.size() - 1; i > 0; i--)
+				klasse.set(i, klasse.set(zufall.nextInt(i + 1), klasse.get(i)));
+			double summe = 0;
+			for (int rang = 0; rang < klasse.size(); rang++)
+				summe += Verteilung.zipfgewicht(rang, ZIPF_TAGS);
+			for (int rang = 0; rang < klasse.size(); rang++)
+				gewichte[klasse.get(rang)] = ANTEILE[k] * Verteilung.zipfgewicht(rang, ZIPF_TAGS) / summe;
+		}
+		pTags = new Verteilung(gewichte);
+	}
+	
+	// Index in tagcodes und formen
+	int tagZiehen(final SplittableRandom zufall) {
+		return pTags.ziehen(zufall);
+	}
+	
+	
+	private static List<String> tagsAufzaehlen() {
+		final Map<String, String[][]> wortarten = new LinkedHashMap<>();
+		wortarten.put("ADJA", new String[][] { GRAD, KASUS, NUMERUS, GENUS });
+		wortarten.put("ADJD", new String[][] { GRAD });
+		wortarten.put("ADV", new String[][] {});
+		wortarten.put("APPO", new String[][] { REST });
+		wortarten.put("APPR", new String[][] { REST });
+		wortarten.put("APPRART", new String[][] { KASUS, NUMERUS, GENUS });
+		wortarten.put("APZR", new String[][] {});
+		wortarten.put("ART", new String[][] { { "Def", "Indef" }, KASUS, NUMERUS, GENUS });
+		wortarten.put("CARD", new String[][] {});
+		wortarten.put("CONJ", new String[][] { { "Comp", "Coord", "SubFin", "SubInf" } });
+		wortarten.put("FM", new String[][] {});
+		wortarten.put("ITJ", new String[][] {});
+		wortarten.put("N", new String[][] { { "Reg", "Name" }, KASUS, NUMERUS, GENUS });
+		wortarten.put("PART", new String[][] { { "Ans", "Deg", "Neg", "Zu", "Verb" } });
+		wortarten.put("PRO", new String[][] { { "Pers", "Poss", "Dem", "Indef", "Inter", "Refl", "Rel" }, { "Attr", "Subst" }, PERSON, KASUS, NUMERUS, GENUS });
+		wortarten.put("PROADV", new String[][] { { "Dem", "Inter" } });
+		wortarten.put("SYM", new String[][] { { "Pun", "Quot", "Paren", "Other" }, { "Colon", "Comma", "Sent", "Hyph", "Slash", "Cont", "Apos", "Other", "Left", "Right", "Aster", "Auth", "XY" } });
+		wortarten.put("TRUNC", new String[][] { { "Adj", "Noun", "Verb", "-" } });
+		wortarten.put("VFIN", new String[][] { VERBTYP, PERSON, NUMERUS, TEMPUS, MODUS });
+		wortarten.put("VIMP", new String[][] { VERBTYP, PERSON, NUMERUS, REST });
+		wortarten.put("VINF", new String[][] { VERBTYP, { "zu", "-" } });
+		wortarten.put("VPP", new String[][] { VERBTYP, REST });
+		
+		final List<String> result = new ArrayList<>();
+		for (final Map.Entry<String, String[][]> wortart : wortarten.entrySet())
+			kombinieren(wortart.getKey(), wortart.getValue(), 0, result);
+		return result;
+	}
+	
+	private static void kombinieren(final String tag, final String[][] abschnitte, final int abschnitt, final List<String> result) {
+		if (abschnitt == abschnitte.length) {
+			try {
+				Tagautomat.analysieren(tag);
+				result.add(tag);
+			} catch (final KonverterException e) {
+				// keine gültige Kombination
+			}
+			return;
+		}
+		for (final String wort : abschnitte[abschnitt])
+			kombinieren(tag + "." + wort, abschnitte, abschnitt + 1, result);
+	}
+	
+	// Die Schreiber und Parser nehmen nicht alles an, was der Tagautomat
+	// annimmt (zum Beispiel "-" als Genus bei Nomen), und die STTS-Heuristiken
+	// hängen bei Artikeln und Satzzeichen von der Form ab; daher wird jedes
+	// Tag geschrieben, zurückgelesen und in jedes Format geschrieben.
+	private static boolean konvertierbar(final String tag, final int tagcode, final Formen liste) {
+		final Item token = new Item();
+		token.typ = Itemtyp.TOKEN;
+		token.index = 1;
+		token.tagcode = tagcode;
+		final Item leerzeile = new Item();
+		leerzeile.typ = Itemtyp.LEERZEILE;
+		final int formenanzahl = (tag.startsWith("ART") || tag.startsWith("SYM")) ? liste.formen.length : 1;
+		try {
+			for (int f = 0; f < formenanzahl; f++) {
+				token.form = liste.formen[f];
+				token.lemma = liste.lemmas[f];
+				for (int format = 0; format < SCHREIBER.length; format++) {
+					final StringBuilder text = new StringBuilder();
+					final Senke senke = SCHREIBER[format].senke(text);
+					senke.next(token);
+					senke.next(leerzeile);
+					final Quelle quelle = PARSER[format].quelle(new PufferZeilenleser(CharBuffer.wrap(text)));
+					for (Item gelesen = quelle.next(); gelesen.typ != Itemtyp.ENDE; gelesen = quelle.next())
+						for (final Senkengenerator schreiber : SCHREIBER)
+							schreiber.senke(new StringBuilder()).next(gelesen);
+				}
+			}
+			return true;
+		} catch (final IOException | RuntimeException e) {
+			return false;
+		}
+	}
+	
+	private static boolean gehoertZu(final String tag, final String anfang) {
+		return tag.equals(anfang) || (tag.startsWith(anfang) && (tag.charAt(anfang.length()) == '.'));
+	}
+	
+	private static String laengsterAnfang(final String tag, final Iterable<String> anfaenge) {
+		String result = null;
+		for (final String anfang : anfaenge)
+			if (gehoertZu(tag, anfang) && ((result == null) || (anfang.length() > result.length())))
+				result = anfang;
+		if (result == null)
+			throw new IllegalStateException("Keine Formen für " + tag);
+		return result;
+	}
+	
+	// für jeden Tag-Anfang eine Formenliste; die Formen geschlossener Klassen
+	// sind nach Häufigkeit geordnet
+	private static Map<String, Formen> formenErzeugen(final SplittableRandom zufall) {
+		final Map<String, Formen> result = new LinkedHashMap<>();
+		liste(result, "ADJA", zufall, 5000, "", new String[] { "e", "en", "er", "es", "em" }, false);
+		liste(result, "ADJD", zufall, 2000, "", new String[] { "", "er", "lich", "ig" }, false);
+		liste(result, "ADV", zufall, 1000, "", new String[] { "", "s", "lich", "weise" }, false);
+		liste(result, "APPO", "zufolge", "gegenüber", "entlang", "halber", "wegen");
+		liste(result, "APPR", "in", "mit", "von", "zu", "auf", "für", "an", "bei", "nach", "aus", "über", "unter", "durch", "um", "vor", "gegen", "ohne", "seit", "zwischen", "während");
+		liste(result, "APPRART", "im", "zum", "zur", "vom", "am", "beim", "ins", "ans", "aufs");
+		liste(result, "APZR", "an", "her", "hinweg", "heraus", "hinaus");
+		liste(result, "ART.Def", "der", "die", "das", "den", "dem", "des");
+		liste(result, "ART.Indef", "ein", "eine", "einen", "einem", "einer", "eines");
+		liste(result, "CARD", zufall, 2000, "", null, false);
+		liste(result, "CONJ.Comp", "als", "wie");
+		liste(result, "CONJ.Coord", "und", "oder", "aber", "sondern", "sowie", "denn");
+		liste(result, "CONJ.SubFin", "dass", "weil", "wenn", "ob", "als", "da", "obwohl", "während", "bevor");
+		liste(result, "CONJ.SubInf", "um", "ohne", "statt", "anstatt");
+		liste(result, "FM", "the", "of", "and", "de", "la", "et", "in", "to", "is", "le");
+		liste(result, "ITJ", "ach", "oh", "ah", "hallo", "na", "tja", "hm");
+		liste(result, "N.Reg", zufall, 20000, "", new String[] { "", "e", "en", "er", "s", "ung", "heit", "keit", "chen" }, true);
+		liste(result, "N.Name", zufall, 5000, "", new String[] { "", "er", "mann", "berg", "a" }, true);
+		liste(result, "PART.Ans", "ja", "nein", "danke", "bitte", "doch");
+		liste(result, "PART.Deg", "zu", "am", "allzu");
+		liste(result, "PART.Neg", "nicht");
+		liste(result, "PART.Verb", "an", "auf", "ab", "aus", "ein", "mit", "zu", "vor", "zurück");
+		liste(result, "PART.Zu", "zu");
+		liste(result, "PRO.Dem", "dieser", "diese", "dieses", "diesen", "diesem", "jener", "der", "die", "das", "dessen", "derselbe");
+		liste(result, "PRO.Indef", "man", "alle", "einige", "viele", "etwas", "nichts", "jemand", "niemand", "manche", "jeder", "kein", "keine");
+		liste(result, "PRO.Inter", "wer", "was", "welcher", "welche", "welches", "wem", "wen");
+		liste(result, "PRO.Pers", "er", "sie", "es", "ich", "wir", "ihr", "du", "ihn", "ihm", "ihnen", "mir", "mich", "uns", "dir", "dich", "euch");
+		liste(result, "PRO.Poss", "sein", "seine", "ihr", "ihre", "ihren", "seinen", "unser", "unsere", "mein", "meine", "dein", "euer");
+		liste(result, "PRO.Refl", "sich", "mich", "uns", "dich", "euch", "mir");
+		liste(result, "PRO.Rel", "die", "der", "das", "den", "dem", "deren", "dessen", "welche", "was", "wo");
+		liste(result, "PROADV.Dem", "dabei", "damit", "dafür", "darauf", "daran", "dazu", "deshalb", "dadurch");
+		liste(result, "PROADV.Inter", "wofür", "womit", "worauf", "wobei", "wodurch", "wozu");
+		liste(result, "SYM", "§", "%", "&", "+", "=", "°", "#");
+		liste(result, "SYM.Other.Aster", "*");
+		liste(result, "SYM.Paren", "(", ")", "[", "]");
+		liste(result, "SYM.Paren.Left", "(", "[");
+		liste(result, "SYM.Paren.Right", ")", "]");
+		liste(result, "SYM.Pun", ";", ":", "-", "/");
+		liste(result, "SYM.Pun.Apos", "'");
+		liste(result, "SYM.Pun.Colon", ":");
+		liste(result, "SYM.Pun.Comma", ",");
+		liste(result, "SYM.Pun.Cont", "...", "…");
+		liste(result, "SYM.Pun.Hyph", "-", "–");
+		liste(result, "SYM.Pun.Sent", ".", "?", "!");
+		liste(result, "SYM.Pun.Slash", "/");
+		liste(result, "SYM.Quot", "\"", "'");
+		liste(result, "SYM.Quot.Left", "„", "\"", "``");
+		liste(result, "SYM.Quot.Right", "“", "\"", "''");
+		liste(result, "TRUNC", zufall, 500, "", new String[] { "-" }, true);
+		liste(result, "VFIN", zufall, 4000, "", new String[] { "t", "e", "st", "en", "te", "ten" }, false);
+		liste(result, "VIMP", zufall, 300, "", new String[] { "", "e", "t" }, false);
+		liste(result, "VINF", zufall, 2000, "", new String[] { "en" }, false);
+		liste(result, "VPP", zufall, 2000, "ge", new String[] { "t", "en" }, false);
+		return result;
+	}
+	
+	// geschlossene Klasse; die Formen sind ihre eigenen Lemmas
+	private static void liste(final Map<String, Formen> listen, final String anfang, final String... formen) {
+		listen.put(anfang, new Formen(formen, formen));
+	}
+	
+	// offene Klasse aus künstlichen Stämmen mit Vorsilbe und einer der
+	// Endungen, das Lemma ist der Stamm (bei Verben mit "en"); ohne Endungen
+	// sind es Zahlen
+	private static void liste(final Map<String, Formen> listen, final String anfang, final SplittableRandom zufall, final int anzahl, final String vorsilbe, final String[] endungen, final boolean gross) {
+		final String[] formen = new String[anzahl];
+		final String[] lemmas = new String[anzahl];
+		final boolean verb = anfang.startsWith("V");
+		for (int i = 0; i < anzahl; i++) {
+			if (endungen == null) {
+				// kleine Zahlen sind häufiger, daher nach Rang
+				formen[i] = Integer.toString(i + 1);
+				lemmas[i] = formen[i];
+				continue;
+			}
+			String stamm = stamm(zufall);
+			if (gross)
+				stamm = stamm.substring(0, 1).toUpperCase(Locale.GERMAN) + stamm.substring(1);
+			formen[i] = vorsilbe + stamm + endungen[zufall.nextInt(endungen.length)];
+			lemmas[i] = verb ? stamm + "en" : stamm;
+		}
+		listen.put(anfang, new Formen(formen, lemmas));
+	}
+	
+	private static String stamm(final SplittableRandom zufall) {
+		final StringBuilder result = new StringBuilder();
+		final int silben = 1 + zufall.nextInt(3);
+		for (int i = 0; i < silben; i++) {
+			result.append(ANLAUT[zufall.nextInt(ANLAUT.length)]);
+			result.append(VOKAL[zufall.nextInt(VOKAL.length)]);
+			result.append(AUSLAUT[zufall.nextInt(AUSLAUT.length)]);
+		}
+		return result.toString();
+	}
+	
+	// Formen und Lemmas einer Liste; zeilen enthält jeweils Form und Lemma
+	// hintereinander, für Tokensenke.token
+	static class Formen {
+		
+		final String[] formen;
+		final String[] lemmas;
+		final String[] zeilen;
+		private final Verteilung pVerteilung;
+		
+		Formen(final String[] formen, final String[] lemmas) {
+			this.formen = formen;
+			this.lemmas = lemmas;
+			zeilen = new String[formen.length];
+			for (int i = 0; i < formen.length; i++)
+				zeilen[i] = formen[i] + lemmas[i];
+			pVerteilung = Verteilung.zipf(formen.length, ZIPF_FORMEN);
+		}
+		
+		int ziehen(final SplittableRandom zufall) {
+			return pVerteilung.ziehen(zufall);
+		}
+	
+	}
+	
+}
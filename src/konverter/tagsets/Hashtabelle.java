@@ -0,0 +1,88 @@
+/* This Source Code Form is subject to the terms of the hermA Licence.
+ * If a copy of the licence was not distributed with this file, You have
+ * received this Source Code Form in a manner that does not comply with
+ * the terms of the licence.
+ */
+package konverter.tagsets;
+
+import java.util.Map;
+
+// Unveränderliche Tabelle für eine feste Menge von Schlüsseln mit perfektem
+// Hash: beim Erzeugen wird ein Startwert gesucht, für den alle Schlüssel auf
+// verschiedene Plätze fallen. Nachschlagen kostet daher genau eine
+// Hashberechnung und einen Vergleich und geht direkt auf einem Bereich einer
+// CharSequence, ohne vorher einen Teilstring zu bilden.
+public final class Hashtabelle<T> {
+	
+	private static final int MAX_VERSUCHE = 1 << 12;
+	
+	private final char[][] pSchluessel;
+	private final Object[] pWerte;
+	private final int pStartwert;
+	private final int pMaske;
+	
+	public Hashtabelle(final Map<String, T> eintraege) {
+		// mindestens acht Plätze pro Schlüssel, damit sich schnell ein
+		// Startwert findet (aufgerundet auf eine Zweierpotenz)
+		int groesse = Integer.highestOneBit(Math.max(eintraege.size() - 1, 1)) << 4;
+		int startwert = 1;
+		while (!kollisionsfrei(eintraege, startwert, groesse - 1)) {
+			if (++startwert > MAX_VERSUCHE) {
+				startwert = 1;
+				groesse <<= 1;
+			}
+		}
+		pSchluessel = new char[groesse][];
+		pWerte = new Object[groesse];
+		pStartwert = startwert;
+		pMaske = groesse - 1;
+		for (final Map.Entry<String, T> eintrag : eintraege.entrySet()) {
+			final String schluessel = eintrag.getKey();
+			final int platz = platz(schluessel, 0, schluessel.length());
+			pSchluessel[platz] = schluessel.toCharArray();
+			pWerte[platz] = eintrag.getValue();
+		}
+	}
+	
+	// null, wenn der Schlüssel nicht enthalten ist
+	public T suchen(final String schluessel) {
+		return suchen(schluessel, 0, schluessel.length());
+	}
+	
+	// sucht text.subSequence(von, bis)
+	@SuppressWarnings("unchecked")
+	public T suchen(final CharSequence text, final int von, final int bis) {
+		final int platz = platz(text, von, bis);
+		final char[] schluessel = pSchluessel[platz];
+		if ((schluessel == null) || (schluessel.length != bis - von))
+			return null;
+		for (int i = 0; i < schluessel.length; i++)
+			if (schluessel[i] != text.charAt(von + i))
+				return null;
+		return (T) pWerte[platz];
+	}
+	
+	private int platz(final CharSequence text, final int von, final int bis) {
+		return hash(text, von, bis, pStartwert) & pMaske;
+	}
+	
+	private static boolean kollisionsfrei(final Map<String, ?> eintraege, final int startwert, final int maske) {
+		final boolean[] belegt = new boolean[maske + 1];
+		for (final String schluessel : eintraege.keySet()) {
+			final int platz = hash(schluessel, 0, schluessel.length(), startwert) & maske;
+			if (belegt[platz])
+				return false;
+			belegt[platz] = true;
+		}
+		return true;
+	}
+	
+	// FNV-1a mit dem Startwert als Basis
+	private static int hash(final CharSequence text, final int von, final int bis, final int startwert) {
+		int h = 0x811c9dc5 * startwert;
+		for (int i = von; i < bis; i++)
+			h = (h ^ text.charAt(i)) * 0x01000193;
+		return h ^ (h >>> 15);
+	}
+	
+}
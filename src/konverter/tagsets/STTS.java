@@ -5,7 +5,9 @@
  */
 package konverter.tagsets;
 
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import konverter.daten.POS;
 import konverter.exception.Arbeitsschritt;
@@ -13,121 +15,121 @@ import konverter.exception.KonverterException;
 
 public class STTS {
 	
+	// für Tags mit formabhängiger Heuristik steht in der Tabelle ein Vertreter,
+	// der in fromSTTS durch die Heuristik ersetzt wird
+	private static final Hashtabelle<POS> TAGS;
+	
+	static {
+		final Map<String, POS> tags = new LinkedHashMap<>();
+		tags.put("ADJA", POS.ADJEKTIV_ATTRIBUTIV);
+		tags.put("ADJD", POS.ADJEKTIV_PRAEDIKATIV);
+		tags.put("ADV", POS.ADVERB);
+		tags.put("APPO", POS.POSTPOSITION);
+		tags.put("APPR", POS.PRAEPOSITION);
+		tags.put("APPRART", POS.PRAEPOSITION_MIT_ARTIKEL);
+		tags.put("APPART", POS.PRAEPOSITION_MIT_ARTIKEL);
+		tags.put("APZR", POS.RECHTER_TEIL_EINER_ZIRKUMPOSITION);
+		tags.put("ART", POS.BESTIMMTER_ARTIKEL);
+		tags.put("CARD", POS.KARDINALZAHL);
+		tags.put("FM", POS.FREMDSPRACHLICHES_MATERIAL);
+		tags.put("ITJ", POS.INTERJEKTION);
+		tags.put("KOKOM", POS.VERGLEICHSPARTIKEL);
+		tags.put("KON", POS.BEIORDNENDE_KONJUNKTION);
+		tags.put("KOUI", POS.KONJUNKTION_MIT_INFINITIV_MIT_ZU);
+		tags.put("KOUS", POS.KONJUNKTION_MIT_FINITEM_NEBENSATZ);
+		tags.put("NE", POS.EIGENNAME);
+		tags.put("NN", POS.SUBSTANTIV);
+		tags.put("PAV", POS.PRONOMINALADVERB);
+		tags.put("PROAV", POS.PRONOMINALADVERB);
+		tags.put("PDAT", POS.ATTRIBUTIVES_DEMONSTRATIVPRONOMEN);
+		tags.put("PDS", POS.SUBSTITUIERENDES_DEMONSTRATIVPRONOMEN);
+		tags.put("PIAT", POS.ATTRIBUTIVES_INDEFINITPRONOMEN);
+		tags.put("PIDAT", POS.ATTRIBUTIVES_INDEFINITPRONOMEN_MIT_ARTIKEL);
+		tags.put("PIS", POS.SUBSTITUIERENDES_INDEFINITPRONOMEN);
+		tags.put("PPER", POS.PERSONALPRONOMEN);
+		tags.put("PPOSAT", POS.ATTRIBUTIVES_POSSESSIVPRONOMEN);
+		tags.put("PPOSS", POS.SUBSTITUIERENDES_POSSESSIVPRONOMEN);
+		tags.put("PRELAT", POS.ATTRIBUTIVES_RELATIVPRONOMEN);
+		tags.put("PRELS", POS.SUBSTITUIERENDES_RELATIVPRONOMEN);
+		tags.put("PRF", POS.REFLEXIVPRONOMEN);
+		tags.put("PTKA", POS.GRADPARTIKEL);
+		tags.put("PTKANT", POS.ANTWORTPARTIKEL);
+		tags.put("PTKNEG", POS.NEGATIONSPARTIKEL);
+		tags.put("PTKVZ", POS.VERBPRAEFIX);
+		tags.put("PTKZU", POS.PARTIKEL_ZU);
+		tags.put("PWAT", POS.ATTRIBUTIVES_INTERROGATIVPRONOMEN);
+		tags.put("PWAV", POS.ADVERBIALES_INTERROGATIVPRONOMEN);
+		tags.put("PWS", POS.SUBSTITUIERENDES_INTERROGATIVPRONOMEN);
+		tags.put("TRUNC", POS.ABGETRENNTES_SONSTIGES_RESTGLIED);
+		tags.put("VAFIN", POS.HILFSVERB_FINIT);
+		tags.put("VAIMP", POS.HILFSVERB_IMPERATIV);
+		tags.put("VAINF", POS.HILFSVERB_INFINITIV);
+		tags.put("VAPP", POS.HILFSVERB_PARTIZIP);
+		tags.put("VMFIN", POS.MODALVERB_FINIT);
+		tags.put("VMINF", POS.MODALVERB_INFINITIV);
+		tags.put("VMPP", POS.MODALVERB_PARTIZIP);
+		tags.put("VVFIN", POS.VOLLVERB_FINIT);
+		tags.put("VVIMP", POS.VOLLVERB_IMPERATIV);
+		tags.put("VVINF", POS.VOLLVERB_INFINITIV);
+		tags.put("VVIZU", POS.VOLLVERB_INFINITIV_MIT_ZU);
+		tags.put("VVPP", POS.VOLLVERB_PARTIZIP);
+		tags.put("XY", POS.NICHTWORT);
+		tags.put("$.", POS.SATZENDE);
+		tags.put("$,", POS.KOMMA);
+		tags.put("$(", POS.SONSTIGE_INTERPUNKTION);
+		tags.put("$LRB", POS.SONSTIGE_INTERPUNKTION);
+		TAGS = new Hashtabelle<>(tags);
+	}
+	
 	public static POS fromSTTS(final String form, final String tag) {
-		switch (tag) {
-			case "ADJA":
-				return POS.ADJEKTIV_ATTRIBUTIV;
-			case "ADJD":
-				return POS.ADJEKTIV_PRAEDIKATIV;
-			case "ADV":
-				return POS.ADVERB;
-			case "APPO":
-				return POS.POSTPOSITION;
-			case "APPR":
-				return POS.PRAEPOSITION;
-			case "APPRART":
-			case "APPART":
-				return POS.PRAEPOSITION_MIT_ARTIKEL;
-			case "APZR":
-				return POS.RECHTER_TEIL_EINER_ZIRKUMPOSITION;
-			case "ART":
+		return fromSTTS(form, tag, 0, tag.length());
+	}
+	
+	// das Tag ist text.subSequence(von, bis)
+	public static POS fromSTTS(final String form, final CharSequence text, final int von, final int bis) {
+		return heuristikAnwenden(tagSuchen(text, von, bis), form);
+	}
+	
+	// die Form ist form.subSequence(formVon, formBis) und wird nur für die
+	// Heuristiken als String gebraucht
+	public static POS fromSTTS(final CharSequence form, final int formVon, final int formBis, final CharSequence text, final int von, final int bis) {
+		final POS pos = tagSuchen(text, von, bis);
+		if (!heuristisch(pos))
+			return pos;
+		return heuristikAnwenden(pos, form.subSequence(formVon, formBis).toString());
+	}
+	
+	private static POS tagSuchen(final CharSequence text, final int von, final int bis) {
+		final POS pos = TAGS.suchen(text, von, bis);
+		if (pos == null)
+			throw new KonverterException("Unbekanntes STTS-POS-Tag: " + text.subSequence(von, bis), Arbeitsschritt.EINLESEN);
+		return pos;
+	}
+	
+	private static boolean heuristisch(final POS pos) {
+		switch (pos) {
+			case BESTIMMTER_ARTIKEL:
+			case NICHTWORT:
+			case SATZENDE:
+			case SONSTIGE_INTERPUNKTION:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	private static POS heuristikAnwenden(final POS pos, final String form) {
+		switch (pos) {
+			case BESTIMMTER_ARTIKEL:
 				return definitheitsheuristik(form);
-			case "CARD":
-				return POS.KARDINALZAHL;
-			case "FM":
-				return POS.FREMDSPRACHLICHES_MATERIAL;
-			case "ITJ":
-				return POS.INTERJEKTION;
-			case "KOKOM":
-				return POS.VERGLEICHSPARTIKEL;
-			case "KON":
-				return POS.BEIORDNENDE_KONJUNKTION;
-			case "KOUI":
-				return POS.KONJUNKTION_MIT_INFINITIV_MIT_ZU;
-			case "KOUS":
-				return POS.KONJUNKTION_MIT_FINITEM_NEBENSATZ;
-			case "NE":
-				return POS.EIGENNAME;
-			case "NN":
-				return POS.SUBSTANTIV;
-			case "PAV":
-			case "PROAV":
-				return POS.PRONOMINALADVERB;
-			case "PDAT":
-				return POS.ATTRIBUTIVES_DEMONSTRATIVPRONOMEN;
-			case "PDS":
-				return POS.SUBSTITUIERENDES_DEMONSTRATIVPRONOMEN;
-			case "PIAT":
-				return POS.ATTRIBUTIVES_INDEFINITPRONOMEN;
-			case "PIDAT":
-				return POS.ATTRIBUTIVES_INDEFINITPRONOMEN_MIT_ARTIKEL;
-			case "PIS":
-				return POS.SUBSTITUIERENDES_INDEFINITPRONOMEN;
-			case "PPER":
-				return POS.PERSONALPRONOMEN;
-			case "PPOSAT":
-				return POS.ATTRIBUTIVES_POSSESSIVPRONOMEN;
-			case "PPOSS":
-				return POS.SUBSTITUIERENDES_POSSESSIVPRONOMEN;
-			case "PRELAT":
-				return POS.ATTRIBUTIVES_RELATIVPRONOMEN;
-			case "PRELS":
-				return POS.SUBSTITUIERENDES_RELATIVPRONOMEN;
-			case "PRF":
-				return POS.REFLEXIVPRONOMEN;
-			case "PTKA":
-				return POS.GRADPARTIKEL;
-			case "PTKANT":
-				return POS.ANTWORTPARTIKEL;
-			case "PTKNEG":
-				return POS.NEGATIONSPARTIKEL;
-			case "PTKVZ":
-				return POS.VERBPRAEFIX;
-			case "PTKZU":
-				return POS.PARTIKEL_ZU;
-			case "PWAT":
-				return POS.ATTRIBUTIVES_INTERROGATIVPRONOMEN;
-			case "PWAV":
-				return POS.ADVERBIALES_INTERROGATIVPRONOMEN;
-			case "PWS":
-				return POS.SUBSTITUIERENDES_INTERROGATIVPRONOMEN;
-			case "TRUNC":
-				return POS.ABGETRENNTES_SONSTIGES_RESTGLIED;
-			case "VAFIN":
-				return POS.HILFSVERB_FINIT;
-			case "VAIMP":
-				return POS.HILFSVERB_IMPERATIV;
-			case "VAINF":
-				return POS.HILFSVERB_INFINITIV;
-			case "VAPP":
-				return POS.HILFSVERB_PARTIZIP;
-			case "VMFIN":
-				return POS.MODALVERB_FINIT;
-			case "VMINF":
-				return POS.MODALVERB_INFINITIV;
-			case "VMPP":
-				return POS.MODALVERB_PARTIZIP;
-			case "VVFIN":
-				return POS.VOLLVERB_FINIT;
-			case "VVIMP":
-				return POS.VOLLVERB_IMPERATIV;
-			case "VVINF":
-				return POS.VOLLVERB_INFINITIV;
-			case "VVIZU":
-				return POS.VOLLVERB_INFINITIV_MIT_ZU;
-			case "VVPP":
-				return POS.VOLLVERB_PARTIZIP;
-			case "XY":
+			case NICHTWORT:
 				return nichtwortheuristik(form);
-			case "$.":
+			case SATZENDE:
 				return satzendeheuristik(form);
-			case "$,":
-				return POS.KOMMA;
-			case "$(":
-			case "$LRB":
+			case SONSTIGE_INTERPUNKTION:
 				return symbolheuristik(form);
 			default:
-				throw new KonverterException("Unbekanntes STTS-POS-Tag: " + tag, Arbeitsschritt.EINLESEN);
+				return pos;
 		}
 	}
 	